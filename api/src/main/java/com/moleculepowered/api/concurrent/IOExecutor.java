@@ -0,0 +1,117 @@
+package com.moleculepowered.api.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The shared executor used by Molecule for blocking I/O, such as provider connections, update
+ * downloads and user data writes. Using it keeps these tasks off the server's main thread and
+ * off the platform's own asynchronous scheduler pool.
+ *
+ * <p>When the running JVM supports virtual threads (Java 21 or newer), every task runs on its own
+ * virtual thread. On older runtimes, tasks run on a bounded pool of daemon platform threads. The
+ * project still targets Java 8, so virtual threads are detected at runtime rather than compiled
+ * against. The detection can be disabled by setting the {@code molecule.io.virtual} system
+ * property to {@code false}.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class IOExecutor
+{
+    private static final ExecutorService EXECUTOR;
+    private static final boolean VIRTUAL;
+
+    static {
+        ExecutorService virtual = Boolean.parseBoolean(System.getProperty("molecule.io.virtual", "true")) ? createVirtual() : null;
+        VIRTUAL = virtual != null;
+        EXECUTOR = VIRTUAL ? virtual : createBounded();
+    }
+
+    /**
+     * Returns the shared I/O executor.
+     *
+     * @return the shared executor
+     */
+    public static @NotNull ExecutorService get() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Returns true if the shared executor runs its tasks on virtual threads.
+     *
+     * @return true if virtual threads are used
+     */
+    public static boolean isVirtual() {
+        return VIRTUAL;
+    }
+
+    /**
+     * Executes the provided task on the shared executor.
+     *
+     * @param task the target task
+     */
+    public static void execute(@NotNull Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    /**
+     * Runs the provided supplier on the shared executor and returns a future completed with
+     * its result.
+     *
+     * @param supplier the target supplier
+     * @param <T>      the type of the result
+     * @return a future completed with the result of the supplier
+     */
+    public static <T> @NotNull CompletableFuture<T> supply(@NotNull Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, EXECUTOR);
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Attempts to create a virtual-thread-per-task executor, returning null if the running
+     * JVM does not support virtual threads.
+     *
+     * @return the virtual thread executor, or null
+     */
+    private static ExecutorService createVirtual() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates the bounded platform thread pool used when virtual threads are not available. Its
+     * threads are daemon threads and time out when idle, so the pool never prevents a shutdown.
+     *
+     * @return the bounded executor
+     */
+    private static ExecutorService createBounded() {
+        int threads = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors() * 2));
+        AtomicInteger counter = new AtomicInteger();
+
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, "MoleculeAPI-IO-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
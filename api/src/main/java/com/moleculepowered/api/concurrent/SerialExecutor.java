@@ -0,0 +1,91 @@
+package com.moleculepowered.api.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * An executor that runs its tasks one at a time, in the order they were submitted, on top of
+ * another executor. It is used to keep the writes of a single user ordered while still running
+ * them on the shared {@link IOExecutor}.
+ *
+ * <p>A serial executor does not own any threads; when it has no pending tasks it costs nothing
+ * more than the object itself.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class SerialExecutor implements Executor
+{
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor;
+    private Runnable active;
+
+    /**
+     * Creates a serial executor on top of the shared {@link IOExecutor}.
+     */
+    public SerialExecutor() {
+        this(IOExecutor.get());
+    }
+
+    /**
+     * Creates a serial executor on top of the provided executor.
+     *
+     * @param executor the executor tasks will run on
+     */
+    public SerialExecutor(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the provided task, running it once every task submitted before it completed.
+     *
+     * @param task the target task
+     */
+    @Override
+    public synchronized void execute(@NotNull Runnable task) {
+        tasks.add(() -> {
+            try {
+                task.run();
+            } finally {
+                scheduleNext();
+            }
+        });
+        if (active == null) scheduleNext();
+    }
+
+    /**
+     * Returns a future that completes once every task submitted before this call completed. The future
+     * completes after the next task, if any, was handed over, so this executor is no longer
+     * {@link #isBusy() busy} by then unless tasks were submitted after this call.
+     *
+     * @return a future completed once this executor is drained
+     */
+    public synchronized @NotNull CompletableFuture<Void> drain() {
+        CompletableFuture<Void> drained = new CompletableFuture<>();
+        tasks.add(() -> {
+            scheduleNext();
+            drained.complete(null);
+        });
+        if (active == null) scheduleNext();
+        return drained;
+    }
+
+    /**
+     * Returns true if this executor has a task running or waiting to run.
+     *
+     * @return true if this executor is busy
+     */
+    public synchronized boolean isBusy() {
+        return active != null;
+    }
+
+    /**
+     * Hands the next queued task, if any, to the underlying executor.
+     */
+    private synchronized void scheduleNext() {
+        if ((active = tasks.poll()) != null) executor.execute(active);
+    }
+}
@@ -0,0 +1,115 @@
+package com.moleculepowered.api.concurrent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedules deferred flushes for data that is persisted using write-behind, such as user data.
+ * Changes made within the flush window are coalesced into a single flush, which runs on a shared
+ * daemon thread once the window elapses. Flushes are expected to be cheap, typically handing the
+ * actual write over to the shared {@link IOExecutor}.
+ *
+ * <p>The number of pending flushes is bounded. Once the bound is reached, new flushes run immediately
+ * on the calling thread instead of being deferred, so a burst of changes cannot queue without limit.</p>
+ *
+ * <p>Write-behind is disabled until a flush window is set, so every change is flushed as soon as it is
+ * made. Deferred flushes only run while the process is alive, so an owner opting in using
+ * {@link #setWindow(Duration)} must flush its data before it is disabled.</p>
+ *
+ * <p>Every {@link com.moleculepowered.api.user.UserManager UserManager} has its own write-behind, so
+ * the window and bound of one plugin do not affect the users of another. Only the flushing thread is
+ * shared. Data created outside a manager uses the {@link #getDefault() default} write-behind, which
+ * nothing flushes on disable and therefore never defers a flush.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class WriteBehind
+{
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "MoleculeAPI-Flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final WriteBehind DEFAULT = new WriteBehind();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile long window;
+    private volatile int maximumPending = 4096;
+
+    /**
+     * Returns the write-behind used by data that does not belong to a manager. It flushes every change
+     * as soon as it is made, and its flush window cannot be changed.
+     *
+     * @return the default write-behind
+     */
+    public static @NotNull WriteBehind getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Schedules the provided flush to run once the flush window elapses. Callers are expected to
+     * schedule at most one flush per dirty object, coalescing every change made before it runs.
+     *
+     * @param flush the target flush
+     */
+    public void schedule(@NotNull Runnable flush) {
+        long window = this.window;
+        if (window <= 0 || pending.incrementAndGet() > maximumPending) {
+            if (window > 0) pending.decrementAndGet();
+            flush.run();
+            return;
+        }
+
+        FLUSHER.schedule(() -> {
+            pending.decrementAndGet();
+            try {
+                flush.run();
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }, window, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sets how long changes are coalesced before they are flushed. A zero duration disables write-behind,
+     * flushing every change as soon as it is made.
+     *
+     * @param window the flush window
+     * @throws UnsupportedOperationException when called on the default write-behind
+     */
+    public void setWindow(@NotNull Duration window) {
+        if (this == DEFAULT) throw new UnsupportedOperationException("The default write-behind cannot defer flushes");
+        this.window = Math.max(0, window.toMillis());
+    }
+
+    /**
+     * Sets the maximum number of deferred flushes; once reached, flushes run immediately.
+     *
+     * @param maximum the maximum number of pending flushes
+     */
+    public void setMaximumPending(int maximum) {
+        this.maximumPending = Math.max(1, maximum);
+    }
+
+    /**
+     * Returns how long changes are coalesced before they are flushed.
+     *
+     * @return the flush window
+     */
+    public @NotNull Duration getWindow() {
+        return Duration.ofMillis(window);
+    }
+
+    /**
+     * Returns the number of flushes currently deferred.
+     *
+     * @return the number of pending flushes
+     */
+    public int getPending() {
+        return pending.get();
+    }
+}
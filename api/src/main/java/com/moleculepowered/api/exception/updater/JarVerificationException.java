@@ -0,0 +1,44 @@
+package com.moleculepowered.api.exception.updater;
+
+import com.moleculepowered.api.localization.i18n;
+
+import java.io.IOException;
+
+import static com.moleculepowered.api.localization.i18n.tl;
+
+/**
+ * This exception is thrown when a downloaded update fails verification, for example when the
+ * file is not a valid jar, when its plugin.yml does not match the running plugin or when its
+ * checksum does not match the one published by the provider.
+ *
+ * <p>
+ * Please note that if the {@link i18n} class is properly configured to translate messages,
+ * this class will use it to automatically translate messages. If not configured, all messages
+ * will be output as they are provided.
+ * </p>
+ *
+ * @author OMGitzFROST
+ */
+public final class JarVerificationException extends IOException
+{
+    /**
+     * Constructs a new JarVerificationException with the specified detail message.
+     *
+     * @param message the detail message. The detail message is saved for later retrieval
+     *                by the {@link #getMessage()} method.
+     * @param param   optional parameters that will be included inside the exception message
+     */
+    public JarVerificationException(String message, Object... param) {
+        super(tl(message, param));
+    }
+
+    /**
+     * Constructs a new JarVerificationException with the specified detail message and cause.
+     *
+     * @param message the detail message
+     * @param cause   the cause (which is saved for later retrieval by the {@link #getCause()} method)
+     */
+    public JarVerificationException(String message, Throwable cause) {
+        super(tl(message), cause);
+    }
+}
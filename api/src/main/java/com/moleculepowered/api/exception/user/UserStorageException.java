@@ -0,0 +1,39 @@
+package com.moleculepowered.api.exception.user;
+
+import com.moleculepowered.api.localization.i18n;
+
+import static com.moleculepowered.api.localization.i18n.tl;
+
+/**
+ * Exception thrown when a {@link com.moleculepowered.api.user.storage.UserStorage} fails to read
+ * or write user data.
+ *
+ * <p>Please note that if the {@link i18n} class is properly configured to translate messages,
+ * this class will use it to automatically translate messages. If not configured, all messages
+ * will be output as they are provided.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class UserStorageException extends RuntimeException
+{
+    /**
+     * Constructs a {@link UserStorageException} with the specified detail message.
+     * The cause is not initialized, and may subsequently be initialized by a call to {@link #initCause}.
+     *
+     * @param message the detail message. The detail message is saved for later retrieval by the {@link #getMessage()} method.
+     * @param param   optional parameters that will be included inside the exception message
+     */
+    public UserStorageException(String message, Object... param) {
+        super(tl(message, param));
+    }
+
+    /**
+     * Constructs a {@link UserStorageException} with the specified detail message and cause.
+     *
+     * @param message the detail message. The detail message is saved for later retrieval by the {@link #getMessage()} method.
+     * @param cause   the cause, which is saved for later retrieval by the {@link #getCause()} method
+     */
+    public UserStorageException(String message, Throwable cause) {
+        super(tl(message), cause);
+    }
+}
@@ -1,5 +1,6 @@
 package com.moleculepowered.api.updater;
 
+import com.moleculepowered.api.updater.network.ProviderConnection;
 import com.moleculepowered.api.updater.provider.AbstractProvider;
 import com.moleculepowered.api.updater.provider.BukkitProvider;
 import com.moleculepowered.api.updater.provider.GithubProvider;
@@ -7,6 +8,10 @@ import com.moleculepowered.api.updater.provider.HangarProvider;
 import com.moleculepowered.api.updater.provider.PolymartProvider;
 import com.moleculepowered.api.updater.provider.SpigetProvider;
 import com.moleculepowered.api.updater.provider.SpigotProvider;
+import com.moleculepowered.api.updater.telemetry.CheckRecord;
+import com.moleculepowered.api.updater.telemetry.FetchScope;
+import com.moleculepowered.api.updater.telemetry.UpdaterTelemetry;
+import com.moleculepowered.api.updater.verify.JarVerifier;
 import com.moleculepowered.api.util.ComparableVersion;
 import com.moleculepowered.api.util.FileUtil;
 import com.moleculepowered.api.util.StringUtil;
@@ -18,9 +23,13 @@ import java.io.File;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * An abstract class used to handle the default behaviors for our platform updater.
@@ -44,12 +53,14 @@ import java.util.List;
 public abstract class Updater
 {
     protected final List<AbstractProvider> providers = new ArrayList<>();
+    private final List<UpdaterListener> listeners = new CopyOnWriteArrayList<>();
+    protected final UpdaterTelemetry telemetry = new UpdaterTelemetry();
     protected static ComparableVersion currentVersion;
     protected static ComparableVersion latestVersion;
     protected UpdateResult result;
-    protected long interval;
+    protected long interval, telemetryInterval;
     private final File updateDirectory;
-    private boolean enabledToggle, unstableToggle, attemptDownload;
+    private boolean enabledToggle, unstableToggle, attemptDownload, verifyDownload;
     private String permission;
 
     /*
@@ -83,6 +94,7 @@ public abstract class Updater
         this.interval = Time.parseInterval("3h");
         this.result = UpdateResult.LATEST;
         this.attemptDownload = true;
+        this.verifyDownload = true;
         this.enabledToggle = true;
         this.unstableToggle = false;
         Updater.currentVersion = currentVersion;
@@ -104,6 +116,30 @@ public abstract class Updater
         return this;
     }
 
+    /**
+     * Adds a listener notified when this updater completes or fails its update check. Listeners
+     * are invoked on the thread that ran the check and therefore must be thread-safe.
+     *
+     * @param listener Target listener
+     * @return an instance of the updater chain
+     * @see UpdaterListener
+     */
+    public @NotNull Updater addListener(@NotNull UpdaterListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Removes a listener previously added to this updater.
+     *
+     * @param listener Target listener
+     * @return an instance of the updater chain
+     */
+    public @NotNull Updater removeListener(@NotNull UpdaterListener listener) {
+        listeners.remove(listener);
+        return this;
+    }
+
     /**
      * Sets the main toggle for this updater, enabling or disabling the whole component.
      *
@@ -143,6 +179,21 @@ public abstract class Updater
         return this;
     }
 
+    /**
+     * Toggles whether downloaded updates should be verified before they are installed. When enabled,
+     * a download is only moved into the update folder once its checksum (when published by the provider),
+     * its zip structure and its plugin.yml have been verified.
+     *
+     * @param toggle Whether downloads should be verified
+     * @return An instance of this updater chain
+     * @see #isVerifyEnabled()
+     * @see JarVerifier
+     */
+    public @NotNull Updater setVerifyToggle(boolean toggle) {
+        this.verifyDownload = toggle;
+        return this;
+    }
+
     /**
      * Sets the interval that this updater will use to periodically check for updates.
      *
@@ -176,6 +227,20 @@ public abstract class Updater
         return this;
     }
 
+    /**
+     * Sets the interval at which this updater dumps its telemetry report to the console. Passing
+     * a null value disables periodic dumps, which is the default behavior. Please note that telemetry
+     * is always recorded and can be queried at any time using {@link #getTelemetry()}.
+     *
+     * @param input The target interval, or null to disable dumps
+     * @return An instance of this updater chain
+     * @see UpdaterTelemetry#dump()
+     */
+    public @NotNull Updater setTelemetryInterval(@Nullable String input) {
+        this.telemetryInterval = input != null ? Time.parseInterval(input) : 0;
+        return this;
+    }
+
     /**
      * Sets the permission required by audience members in order to receive update notifications.
      * This method accepts a null value, but by doing this, all audience members will receive
@@ -269,14 +334,75 @@ public abstract class Updater
     UTILITY METHODS
      */
 
+    /**
+     * A utility method that fetches the provided provider while recording its telemetry. Every
+     * request made by the provider through a {@link com.moleculepowered.api.updater.network.ProviderConnection}
+     * is attributed to it, as well as to the check being recorded, if any.
+     *
+     * @param provider the provider to fetch
+     * @param check    the check currently being recorded, or null
+     * @see #getTelemetry()
+     */
+    protected void fetch(@NotNull AbstractProvider provider, @Nullable CheckRecord.Builder check) {
+        try (FetchScope scope = telemetry.startFetch(provider.getName(), check)) {
+            boolean success = false;
+            try {
+                provider.fetch();
+                success = true;
+            } finally {
+                // ANY THROWABLE COUNTS AS A FAILURE, INCLUDING ERRORS AND SNEAKILY THROWN CHECKED EXCEPTIONS
+                if (!success) scope.fail();
+            }
+        }
+    }
+
+    /**
+     * A utility method that notifies every {@link UpdaterListener} that the update check completed.
+     * Listeners are invoked on the calling thread; an error thrown by one listener does not prevent
+     * the others from being notified.
+     *
+     * @param result the result of the check
+     */
+    protected void notifyComplete(@NotNull UpdateResult result) {
+        for (UpdaterListener listener : listeners) {
+            try {
+                listener.onComplete(this, result);
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * A utility method that notifies every {@link UpdaterListener} that the update check failed.
+     * Listeners are invoked on the calling thread; an error thrown by one listener does not prevent
+     * the others from being notified.
+     *
+     * @param thrown the error that occurred
+     */
+    protected void notifyFailure(@NotNull Throwable thrown) {
+        for (UpdaterListener listener : listeners) {
+            try {
+                listener.onFailure(this, thrown);
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
     /**
      * A utility method that attempts to download updates when available. It takes a string location
      * which represents the URL from which the download is located, and an output file. If
      * {@link #isDownloadEnabled()} returns false, this method will do nothing.
      *
+     * <p>The update is first downloaded next to the output file and, if {@link #isVerifyEnabled()}
+     * returns true, verified using a {@link JarVerifier}. Only a verified download is moved to the
+     * output file, so a corrupted download never reaches the update folder.</p>
+     *
      * @param location Download location (URL)
      * @param output   Output file to which an update will be copied
-     * @throws IOException when the update fails to download
+     * @throws com.moleculepowered.api.exception.updater.JarVerificationException when the download fails verification
+     * @throws IOException                                                        when the update fails to download
      */
     protected void attemptDownload(@Nullable String location, @NotNull File output) throws IOException {
 
@@ -285,14 +411,31 @@ public abstract class Updater
 
         // ATTEMPT TO DOWNLOAD AND UPDATE RESULT
         if (!output.exists()) {
-            HttpURLConnection downloadLink = (HttpURLConnection) new URL(location).openConnection();
+            HttpURLConnection downloadLink = (HttpURLConnection) new URL(ProviderConnection.resolve(location)).openConnection();
             downloadLink.setInstanceFollowRedirects(true);
 
+            long start = System.nanoTime();
             if (downloadLink.getResponseCode() == HttpURLConnection.HTTP_OK && !output.exists()) {
-                FileUtil.copy(downloadLink.getInputStream(), output);
-                if (output.exists()) {
+                File partial = new File(output.getParentFile(), output.getName() + ".part");
+                try {
+                    Files.deleteIfExists(partial.toPath());
+                    FileUtil.copy(downloadLink.getInputStream(), partial);
+
+                    AbstractProvider provider = getProvider();
+                    if (verifyDownload) {
+                        new JarVerifier()
+                                .setName(getPluginName())
+                                .setVersion(provider != null ? provider.getVersion() : null)
+                                .setChecksum(provider != null ? provider.getChecksum() : null)
+                                .verify(partial);
+                    }
+                    moveDownload(partial, output);
+
+                    if (provider != null) telemetry.recordDownload(provider.getName(), output.length(), System.nanoTime() - start);
                     result = UpdateResult.DOWNLOADED;
                     return;
+                } finally {
+                    Files.deleteIfExists(partial.toPath());
                 }
             }
         }
@@ -301,6 +444,21 @@ public abstract class Updater
         if (output.exists()) result = UpdateResult.EXISTS;
     }
 
+    /**
+     * Moves a verified download to its output file, atomically when the file system supports it.
+     *
+     * @param source the verified download
+     * @param output the output file
+     * @throws IOException when the download could not be moved
+     */
+    private static void moveDownload(@NotNull File source, @NotNull File output) throws IOException {
+        try {
+            Files.move(source.toPath(), output.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     /*
     GETTER METHODS
      */
@@ -329,6 +487,16 @@ public abstract class Updater
         return StringUtil.nonNull(permission);
     }
 
+    /**
+     * Returns the telemetry recorded by this updater, which includes the latency, traffic and
+     * response codes of every provider as well as the totals of the most recent update checks.
+     *
+     * @return the telemetry of this updater
+     */
+    public @NotNull UpdaterTelemetry getTelemetry() {
+        return telemetry;
+    }
+
     /**
      * Returns the final result configured by the updater.
      * By default, this method will return {@link UpdateResult#LATEST} if the updater
@@ -374,6 +542,26 @@ public abstract class Updater
         return attemptDownload;
     }
 
+    /**
+     * Returns true if downloaded updates are verified before they are installed.
+     *
+     * @return true if downloads are verified
+     * @see JarVerifier
+     */
+    public boolean isVerifyEnabled() {
+        return verifyDownload;
+    }
+
+    /**
+     * Returns the name the plugin.yml of a downloaded update must declare in order to pass
+     * verification. By default, this method returns null, meaning the name is not verified.
+     *
+     * @return the name of the updated plugin, or null
+     */
+    protected @Nullable String getPluginName() {
+        return null;
+    }
+
     /**
      * This enum allows you to define what audience type should receive update notifications.
      * The audience can be specified as the console, online players, or both.
@@ -0,0 +1,40 @@
+package com.moleculepowered.api.updater;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A listener notified when an {@link Updater} completes or fails its update check. Unlike platform
+ * events, these listeners are invoked directly on the thread that ran the check, which is usually
+ * an asynchronous thread. They are meant for handlers that do not need the server's main thread,
+ * such as logging or metrics, and must therefore be thread-safe.
+ *
+ * <pre>{@code
+ * updater.addListener(new UpdaterListener() {
+ *     public void onComplete(Updater updater, UpdateResult result) {
+ *         logger.info("Update check completed: " + result);
+ *     }
+ * });
+ * }</pre>
+ *
+ * @author OMGitzFROST
+ * @see Updater#addListener(UpdaterListener)
+ */
+public interface UpdaterListener
+{
+    /**
+     * Called when the updater completes its update check.
+     *
+     * @param updater the updater that ran the check
+     * @param result  the result of the check
+     */
+    default void onComplete(@NotNull Updater updater, @NotNull UpdateResult result) {}
+
+    /**
+     * Called when the updater fails to run its update check, or when a downloaded update
+     * was rejected.
+     *
+     * @param updater the updater that ran the check
+     * @param thrown  the error that occurred
+     */
+    default void onFailure(@NotNull Updater updater, @NotNull Throwable thrown) {}
+}
@@ -1,14 +1,24 @@
 package com.moleculepowered.api.updater.network;
 
+import com.moleculepowered.api.updater.telemetry.FetchScope;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
 
 import static com.moleculepowered.api.util.StringUtil.format;
 
@@ -19,13 +29,32 @@ import static com.moleculepowered.api.util.StringUtil.format;
  * this class is {@link AutoCloseable}, therefore it is recommended that you create new
  * objects using a try-catch block.
  * </p>
+ * <p>
+ * Responses carrying an {@code ETag} or {@code Last-Modified} header are remembered per URL,
+ * and the next request to the same URL is made conditional. When the provider answers with
+ * {@code 304 Not Modified}, {@link #getBufferedReader()} returns the remembered body, so
+ * providers do not need to handle conditional requests themselves.
+ * </p>
  *
  * @author OMGitzFROST
  * @see AutoCloseable
  */
 public class ProviderConnection implements AutoCloseable
 {
+    private static final int CACHE_SIZE = 64;
+    private static final Map<String, CachedResponse> CACHE = Collections.synchronizedMap(new LinkedHashMap<String, CachedResponse>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    });
+    private static volatile UnaryOperator<String> resolver = UnaryOperator.identity();
     private final HttpURLConnection connection;
+    private final FetchScope scope;
+    private final String url;
+    private final CachedResponse cached;
+    private final long connectNanos;
+    private int responseCode = -2;
 
     /**
      * The main constructor used to create a new {@link ProviderConnection}. Please note
@@ -37,16 +66,73 @@ public class ProviderConnection implements AutoCloseable
      * @throws IOException if an issue occurs while creating/connecting to the URL
      */
     public ProviderConnection(String url, Object... param) throws IOException {
-        URL targetURL = new URL(format(url, Arrays.stream(param).map(String::valueOf).toArray()));
-        HttpURLConnection conn = (HttpURLConnection) targetURL.openConnection();
+        this.url = resolve(format(url, Arrays.stream(param).map(String::valueOf).toArray()));
+        HttpURLConnection conn = (HttpURLConnection) new URL(this.url).openConnection();
         conn.addRequestProperty("User-Agent", "MoleculeAPI/ProviderConnection");
         conn.setInstanceFollowRedirects(true);
         conn.setReadTimeout(30000);
         conn.setDoOutput(true);
+
+        // MAKE THE REQUEST CONDITIONAL WHEN A PREVIOUS RESPONSE CAN BE REUSED
+        this.cached = CACHE.get(this.url);
+        if (cached != null && cached.etag != null) conn.addRequestProperty("If-None-Match", cached.etag);
+        if (cached != null && cached.lastModified != null) conn.addRequestProperty("If-Modified-Since", cached.lastModified);
+
+        this.scope = FetchScope.current();
+        long start = System.nanoTime();
         conn.connect();
+        this.connectNanos = System.nanoTime() - start;
         this.connection = conn;
     }
 
+    /*
+    REDIRECT METHODS
+     */
+
+    /**
+     * Sets the resolver used to rewrite every provider URL before a connection is opened. This
+     * allows all provider traffic (including update downloads) to be redirected to a different host,
+     * such as a local server replaying captured responses in tests, without modifying the providers
+     * themselves.
+     *
+     * <p>Passing a null value restores the default behavior, where URLs are used as provided.</p>
+     *
+     * @param resolver the URL resolver, or null to reset it
+     */
+    public static synchronized void setResolver(@Nullable UnaryOperator<String> resolver) {
+        ProviderConnection.resolver = resolver != null ? resolver : UnaryOperator.identity();
+    }
+
+    /**
+     * Restores the default resolver, but only if the provided resolver is still the active one, so a
+     * resolver installed meanwhile by someone else is left in place.
+     *
+     * @param expected the resolver expected to be active
+     * @return true if the resolver was reset
+     */
+    static synchronized boolean resetResolver(@NotNull UnaryOperator<String> expected) {
+        if (resolver != expected) return false;
+
+        resolver = UnaryOperator.identity();
+        return true;
+    }
+
+    /**
+     * Resolves the provided URL using the active resolver. If no resolver was set, the URL
+     * is returned as provided.
+     *
+     * @param url the target URL
+     * @return the resolved URL
+     * @see #setResolver(UnaryOperator)
+     */
+    public static @NotNull String resolve(@NotNull String url) {
+        return resolver.apply(url);
+    }
+
+    /*
+    CONNECTION METHODS
+     */
+
     /**
      * Returns a buffered reader that reads the content returned after the provider connects.
      *
@@ -54,7 +140,24 @@ public class ProviderConnection implements AutoCloseable
      * @throws IOException when the connection's input stream is null
      */
     public @NotNull BufferedReader getBufferedReader() throws IOException {
-        return new BufferedReader(new InputStreamReader(connection.getInputStream()));
+        int code = getResponseCode();
+        if (code == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) return reader(cached.body);
+
+        InputStream in = connection.getInputStream();
+        if (scope != null) in = new MeasuredInputStream(in, scope);
+
+        // REMEMBER BODIES THAT CAN BE VALIDATED, SO THE NEXT REQUEST CAN BE ANSWERED WITH A 304
+        String etag = connection.getHeaderField("ETag"), lastModified = connection.getHeaderField("Last-Modified");
+        if (code != HttpURLConnection.HTTP_OK || (etag == null && lastModified == null)) return new BufferedReader(new InputStreamReader(in));
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InputStream stream = in) {
+            for (int read; (read = stream.read(buffer)) != -1; ) body.write(buffer, 0, read);
+        }
+        CachedResponse response = new CachedResponse(etag, lastModified, body.toByteArray());
+        CACHE.put(url, response);
+        return reader(response.body);
     }
 
     /**
@@ -72,7 +175,20 @@ public class ProviderConnection implements AutoCloseable
      * @throws IOException if an error occurs while connecting to the server
      */
     public int getResponseCode() throws IOException {
-        return connection.getResponseCode();
+        if (responseCode != -2) return responseCode;
+
+        // THE REQUEST IS SENT HERE, SO THE TIME UNTIL THE RESPONSE HEADERS ARRIVE IS MEASURED ON FIRST USE
+        long start = System.nanoTime();
+        responseCode = connection.getResponseCode();
+        if (scope != null) scope.recordResponse(responseCode, connectNanos + System.nanoTime() - start);
+        return responseCode;
+    }
+
+    /**
+     * Forgets every remembered response, so the next request to each URL is made unconditionally.
+     */
+    public static void clearCache() {
+        CACHE.clear();
     }
 
     /**
@@ -123,4 +239,69 @@ public class ProviderConnection implements AutoCloseable
     public void close() {
         connection.disconnect();
     }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    private static @NotNull BufferedReader reader(byte[] body) {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body)));
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * A response body remembered along with the validators it was served with.
+     */
+    private static final class CachedResponse
+    {
+        private final String etag, lastModified;
+        private final byte[] body;
+
+        private CachedResponse(@Nullable String etag, @Nullable String lastModified, byte[] body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+    }
+
+    /**
+     * An input stream that reports the bytes read, and the time spent reading them,
+     * to the fetch being measured.
+     *
+     * @author OMGitzFROST
+     */
+    private static final class MeasuredInputStream extends FilterInputStream
+    {
+        private final FetchScope scope;
+
+        /**
+         * Wraps the provided input stream.
+         *
+         * @param in    the response body
+         * @param scope the fetch being measured
+         */
+        private MeasuredInputStream(@NotNull InputStream in, @NotNull FetchScope scope) {
+            super(in);
+            this.scope = scope;
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int value = super.read();
+            scope.recordRead(value != -1 ? 1 : 0, System.nanoTime() - start);
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            int read = super.read(buffer, offset, length);
+            scope.recordRead(Math.max(0, read), System.nanoTime() - start);
+            return read;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package com.moleculepowered.api.updater.provider;
 
 import com.moleculepowered.api.updater.Updater;
+import com.moleculepowered.api.updater.verify.Checksum;
 import com.moleculepowered.api.util.ComparableVersion;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -31,6 +32,7 @@ public abstract class AbstractProvider
     private Set<String> contributors = new HashSet<>();
     private String downloadLink, changelogLink, donationLink;
     private ComparableVersion latestVersion;
+    private Checksum checksum;
 
     /*
     SETTINGS REQUIRED BY ALL PROVIDERS
@@ -125,6 +127,17 @@ public abstract class AbstractProvider
         return contributors;
     }
 
+    /**
+     * Returns the checksum published for the download of the latest release. The updater uses it to
+     * verify downloads before installing them. Please note that most providers do not publish checksums
+     * and therefore this method could return a null value.
+     *
+     * @return The published checksum, or null
+     */
+    public @Nullable Checksum getChecksum() {
+        return checksum;
+    }
+
     /*
     SETTINGS FOR PREMIUM SUPPORTED PLUGINS
      */
@@ -250,4 +263,24 @@ public abstract class AbstractProvider
     protected final void setLatestVersion(@Nullable String version) {
         this.latestVersion = new ComparableVersion(version);
     }
-}
\ No newline at end of file
+
+    /**
+     * A utility method used to set the checksum published for the download of the latest release.
+     * Passing a null or empty hash clears the checksum.
+     *
+     * @param algorithm The digest algorithm, for example "SHA-256"
+     * @param hash      The published hash, encoded as hexadecimal
+     */
+    protected final void setChecksum(@NotNull String algorithm, @Nullable String hash) {
+        this.checksum = hash != null && !hash.isEmpty() ? new Checksum(algorithm, hash) : null;
+    }
+
+    /**
+     * A utility method used to set the checksum published for the download of the latest release.
+     *
+     * @param checksum The published checksum, or null
+     */
+    protected final void setChecksum(@Nullable Checksum checksum) {
+        this.checksum = checksum;
+    }
+}
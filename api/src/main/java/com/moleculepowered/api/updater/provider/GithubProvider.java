@@ -6,6 +6,7 @@ import com.google.gson.JsonObject;
 import com.moleculepowered.api.exception.updater.ProviderUnreachableException;
 import com.moleculepowered.api.updater.Updater;
 import com.moleculepowered.api.updater.network.ProviderConnection;
+import com.moleculepowered.api.updater.verify.Checksum;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.FileNotFoundException;
@@ -65,11 +66,14 @@ public class GithubProvider extends AbstractProvider {
             setLatestVersion(resource.get("tag_name").getAsString());
             setChangelogLink(resource.get("html_url").getAsString());
 
-            // ACCESS THE REPOSITORIES ASSETS AND SET THE DOWNLOAD URL IF ONE EXISTS
+            // ACCESS THE REPOSITORIES ASSETS AND SET THE DOWNLOAD URL IF ONE EXISTS, A CHECKSUM OF A PREVIOUS RELEASE IS NEVER KEPT
+            Checksum checksum = null;
             if (assets.size() > 0) {
                 JsonObject latestResource = assets.get(0).getAsJsonObject();
                 setDownloadLink(latestResource.get("browser_download_url").getAsString());
+                if (latestResource.has("digest") && !latestResource.get("digest").isJsonNull()) checksum = Checksum.parse(latestResource.get("digest").getAsString());
             }
+            setChecksum(checksum);
 
             // SET CONTRIBUTORS LIST
             JsonArray contributorArray = new Gson().fromJson(contributors.getBufferedReader(), JsonArray.class);
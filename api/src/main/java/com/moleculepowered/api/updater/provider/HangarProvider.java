@@ -88,6 +88,10 @@ public class HangarProvider extends AbstractProvider
                 setChangelogLink(!platform.get("externalUrl").isJsonNull() ? platform.get("externalUrl").getAsString() : null);
                 setDownloadLink(!platform.get("downloadUrl").isJsonNull() ? platform.get("downloadUrl").getAsString() : null);
 
+                // PUBLISHED CHECKSUM, ONLY PRESENT FOR FILES HOSTED BY HANGAR
+                JsonObject fileInfo = platform.has("fileInfo") && platform.get("fileInfo").isJsonObject() ? platform.getAsJsonObject("fileInfo") : null;
+                setChecksum("SHA-256", fileInfo != null && fileInfo.has("sha256Hash") && !fileInfo.get("sha256Hash").isJsonNull() ? fileInfo.get("sha256Hash").getAsString() : null);
+
                 // ADD AUTHOR
                 addContributor(result.get("author").getAsString());
             }
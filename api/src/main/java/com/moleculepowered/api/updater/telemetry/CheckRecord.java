@@ -0,0 +1,208 @@
+package com.moleculepowered.api.updater.telemetry;
+
+import com.moleculepowered.api.updater.UpdateResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An immutable summary of a single update check, containing the totals of every provider
+ * fetched during that check.
+ *
+ * @author OMGitzFROST
+ * @see UpdaterTelemetry#getChecks()
+ */
+public final class CheckRecord
+{
+    private final Instant startedAt;
+    private final long duration, requests, bytes;
+    private final int fetches, failures;
+    private final UpdateResult result;
+    private final Throwable error;
+
+    /**
+     * Creates a new record from a completed builder.
+     *
+     * @param builder the completed builder
+     * @param result  the result of the check
+     * @param error   the error that ended the check, if any
+     */
+    private CheckRecord(@NotNull Builder builder, @Nullable UpdateResult result, @Nullable Throwable error) {
+        this.startedAt = builder.startedAt;
+        this.duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - builder.start);
+        this.requests = builder.requests.sum();
+        this.bytes = builder.bytes.sum();
+        this.fetches = builder.fetches.intValue();
+        this.failures = builder.failures.intValue();
+        this.result = result;
+        this.error = error;
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the moment this check started.
+     *
+     * @return the start time
+     */
+    public @NotNull Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Returns how long this check took, in milliseconds.
+     *
+     * @return the check duration
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the number of providers fetched during this check.
+     *
+     * @return the fetch count
+     */
+    public int getFetchCount() {
+        return fetches;
+    }
+
+    /**
+     * Returns the number of provider fetches that failed during this check.
+     *
+     * @return the failure count
+     */
+    public int getFailureCount() {
+        return failures;
+    }
+
+    /**
+     * Returns the number of requests made during this check.
+     *
+     * @return the request count
+     */
+    public long getRequestCount() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of response bytes read during this check.
+     *
+     * @return the bytes transferred
+     */
+    public long getBytesRead() {
+        return bytes;
+    }
+
+    /**
+     * Returns the result of this check, or null if the check failed.
+     *
+     * @return the update result
+     */
+    public @Nullable UpdateResult getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the error that ended this check, if any.
+     *
+     * @return the thrown error, or null
+     */
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Returns a single line summary of this check.
+     *
+     * @return a summary of this check
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: %dms fetches=%d failures=%d requests=%d bytes=%d result=%s",
+                startedAt, duration, fetches, failures, requests, bytes, error != null ? error.getClass().getSimpleName() : result);
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * Accumulates the totals of an update check while it is running.
+     *
+     * @author OMGitzFROST
+     * @see UpdaterTelemetry#startCheck()
+     */
+    public static final class Builder
+    {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder fetches = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final UpdaterTelemetry telemetry;
+        private final Instant startedAt;
+        private final long start;
+
+        /**
+         * Creates a new builder for a check that starts now.
+         *
+         * @param telemetry the telemetry the finished record is added to
+         */
+        Builder(@NotNull UpdaterTelemetry telemetry) {
+            this.telemetry = telemetry;
+            this.startedAt = Instant.now();
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Records a request made during this check.
+         */
+        void recordRequest() {
+            requests.increment();
+        }
+
+        /**
+         * Records response bytes read during this check.
+         *
+         * @param amount the number of bytes read
+         */
+        void recordBytes(long amount) {
+            bytes.add(amount);
+        }
+
+        /**
+         * Records a provider fetch completed during this check.
+         *
+         * @param failed whether the fetch failed
+         */
+        void recordFetch(boolean failed) {
+            fetches.increment();
+            if (failed) failures.increment();
+        }
+
+        /**
+         * Completes this check and adds its record to the telemetry.
+         *
+         * @param result the result of the check
+         * @return the completed record
+         */
+        public @NotNull CheckRecord complete(@Nullable UpdateResult result) {
+            return telemetry.addCheck(new CheckRecord(this, result, null));
+        }
+
+        /**
+         * Completes this check as failed and adds its record to the telemetry.
+         *
+         * @param error the error that ended the check
+         * @return the completed record
+         */
+        public @NotNull CheckRecord fail(@NotNull Throwable error) {
+            return telemetry.addCheck(new CheckRecord(this, null, error));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.moleculepowered.api.updater.telemetry;
+
+import com.moleculepowered.api.updater.network.ProviderConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a single provider fetch that is currently being measured. A scope is bound to the
+ * thread performing the fetch, allowing the {@link ProviderConnection} objects created by the
+ * provider to report their traffic without the provider having to know about telemetry.
+ *
+ * <p>Scopes are {@link AutoCloseable} and are meant to be used within a try-with-resources
+ * block. Closing a scope records the fetch and unbinds it from the current thread.</p>
+ *
+ * @author OMGitzFROST
+ * @see UpdaterTelemetry#startFetch(String, CheckRecord.Builder)
+ */
+public final class FetchScope implements AutoCloseable
+{
+    private static final ThreadLocal<FetchScope> CURRENT = new ThreadLocal<>();
+    private final ProviderMetrics metrics;
+    private final CheckRecord.Builder check;
+    private final FetchScope previous;
+    private final long start;
+    private long networkNanos;
+    private boolean failed;
+
+    /**
+     * Creates a new scope and binds it to the current thread.
+     *
+     * @param metrics the metrics of the provider being fetched
+     * @param check   the check this fetch belongs to, if any
+     */
+    FetchScope(@NotNull ProviderMetrics metrics, @Nullable CheckRecord.Builder check) {
+        this.metrics = metrics;
+        this.check = check;
+        this.previous = CURRENT.get();
+        this.start = System.nanoTime();
+        CURRENT.set(this);
+    }
+
+    /**
+     * Returns the scope bound to the current thread, or null if the current thread is
+     * not performing a measured fetch.
+     *
+     * @return the current scope
+     */
+    public static @Nullable FetchScope current() {
+        return CURRENT.get();
+    }
+
+    /*
+    RECORDING METHODS
+     */
+
+    /**
+     * Records the response of a request made during this fetch.
+     *
+     * @param code  the HTTP status code
+     * @param nanos the time until the response headers were received
+     */
+    public void recordResponse(int code, long nanos) {
+        networkNanos += nanos;
+        metrics.recordResponse(code, nanos);
+        if (check != null) check.recordRequest();
+    }
+
+    /**
+     * Records bytes read from a response body during this fetch.
+     *
+     * @param bytes the number of bytes read
+     * @param nanos the time spent reading them
+     */
+    public void recordRead(long bytes, long nanos) {
+        networkNanos += nanos;
+        metrics.recordRead(bytes);
+        if (check != null) check.recordBytes(bytes);
+    }
+
+    /**
+     * Marks this fetch as failed.
+     */
+    public void fail() {
+        this.failed = true;
+    }
+
+    /**
+     * Records this fetch and unbinds the scope from the current thread.
+     */
+    @Override
+    public void close() {
+        metrics.recordFetch(System.nanoTime() - start, networkNanos, failed);
+        if (check != null) check.recordFetch(failed);
+
+        if (previous != null) CURRENT.set(previous);
+        else CURRENT.remove();
+    }
+}
@@ -0,0 +1,119 @@
+package com.moleculepowered.api.updater.telemetry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram using fixed, roughly exponential bucket boundaries. Recording a
+ * value never allocates, making it safe to use on every provider request.
+ *
+ * <p>Percentiles returned by this histogram are approximations, they represent the upper bound
+ * of the bucket that contains the requested percentile.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class LatencyHistogram
+{
+    private static final long[] BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, Long.MAX_VALUE};
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length);
+    private final AtomicLong max = new AtomicLong();
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Records a single latency sample.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanos));
+        int index = 0;
+        while (millis > BOUNDS[index]) index++;
+
+        buckets.incrementAndGet(index);
+        count.increment();
+        sum.add(millis);
+        max.accumulateAndGet(millis, Math::max);
+    }
+
+    /**
+     * Returns the number of samples recorded by this histogram.
+     *
+     * @return the sample count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the average latency in milliseconds, or 0 if no samples were recorded.
+     *
+     * @return the average latency
+     */
+    public double getMean() {
+        long samples = getCount();
+        return samples != 0 ? (double) sum.sum() / samples : 0;
+    }
+
+    /**
+     * Returns the highest latency recorded in milliseconds.
+     *
+     * @return the highest latency
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the approximate latency in milliseconds below which the provided percentage
+     * of samples fall, for example {@code getPercentile(0.95)} returns the 95th percentile.
+     *
+     * @param percentile a value between 0 and 1
+     * @return the approximate latency at the provided percentile
+     */
+    public long getPercentile(double percentile) {
+        long samples = getCount();
+        if (samples == 0) return 0;
+
+        long target = (long) Math.ceil(Math.min(1, Math.max(0, percentile)) * samples);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS.length; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) return Math.min(BOUNDS[i], getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns a copy of the bucket counts, indexed the same way as {@link #getBounds()}.
+     *
+     * @return the bucket counts
+     */
+    public long[] getBuckets() {
+        long[] copy = new long[BOUNDS.length];
+        for (int i = 0; i < copy.length; i++) copy[i] = buckets.get(i);
+        return copy;
+    }
+
+    /**
+     * Returns the inclusive upper bound, in milliseconds, of each bucket in this histogram.
+     *
+     * @return the bucket bounds
+     */
+    public static long[] getBounds() {
+        return BOUNDS.clone();
+    }
+
+    /**
+     * Returns a short summary of this histogram, for example
+     * {@code n=12 mean=84.3ms p50=100ms p95=250ms max=212ms}.
+     *
+     * @return a summary of this histogram
+     */
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1fms p50=%dms p95=%dms max=%dms", getCount(), getMean(), getPercentile(0.5), getPercentile(0.95), getMax());
+    }
+}
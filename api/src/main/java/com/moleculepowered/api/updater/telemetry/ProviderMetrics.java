@@ -0,0 +1,240 @@
+package com.moleculepowered.api.updater.telemetry;
+
+import com.moleculepowered.api.updater.provider.AbstractProvider;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Holds the counters recorded for a single {@link AbstractProvider}, accumulated across every
+ * update check performed by the updater. All counters are lock-free and can be read at any
+ * time from any thread.
+ *
+ * @author OMGitzFROST
+ * @see UpdaterTelemetry
+ */
+public final class ProviderMetrics
+{
+    private final Map<Integer, LongAdder> responseCodes = new ConcurrentHashMap<>();
+    private final LatencyHistogram fetchLatency = new LatencyHistogram();
+    private final LatencyHistogram requestLatency = new LatencyHistogram();
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder downloads = new LongAdder();
+    private final LongAdder downloadBytes = new LongAdder();
+    private final LongAdder downloadNanos = new LongAdder();
+    private final String name;
+
+    /**
+     * Creates a new set of metrics for the provider with the provided name.
+     *
+     * @param name the provider name
+     */
+    ProviderMetrics(@NotNull String name) {
+        this.name = name;
+    }
+
+    /*
+    RECORDING METHODS
+     */
+
+    /**
+     * Records a completed {@link AbstractProvider#fetch()} call.
+     *
+     * @param totalNanos   the total time spent inside the fetch
+     * @param networkNanos the part of that time spent waiting on the network
+     * @param failed       whether the fetch threw an exception
+     */
+    void recordFetch(long totalNanos, long networkNanos, boolean failed) {
+        fetches.increment();
+        fetchLatency.record(totalNanos);
+        parseNanos.add(Math.max(0, totalNanos - networkNanos));
+        if (failed) failures.increment();
+    }
+
+    /**
+     * Records the response of a single request made by the provider.
+     *
+     * @param code  the HTTP status code
+     * @param nanos the time until the response headers were received
+     */
+    void recordResponse(int code, long nanos) {
+        requests.increment();
+        requestLatency.record(nanos);
+        responseCodes.computeIfAbsent(code, c -> new LongAdder()).increment();
+        if (code == HttpURLConnection.HTTP_NOT_MODIFIED) notModified.increment();
+    }
+
+    /**
+     * Records the bytes read from a response body.
+     *
+     * @param bytes the number of bytes read
+     */
+    void recordRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    /**
+     * Records a completed update download.
+     *
+     * @param bytes the size of the download
+     * @param nanos the time spent downloading
+     */
+    void recordDownload(long bytes, long nanos) {
+        downloads.increment();
+        downloadBytes.add(bytes);
+        downloadNanos.add(nanos);
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the name of the provider these metrics belong to.
+     *
+     * @return the provider name
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the histogram of complete fetch durations, including parsing.
+     *
+     * @return the fetch latency histogram
+     */
+    public @NotNull LatencyHistogram getFetchLatency() {
+        return fetchLatency;
+    }
+
+    /**
+     * Returns the histogram of individual request durations, measured until the response
+     * headers were received.
+     *
+     * @return the request latency histogram
+     */
+    public @NotNull LatencyHistogram getRequestLatency() {
+        return requestLatency;
+    }
+
+    /**
+     * Returns the number of times this provider was fetched.
+     *
+     * @return the fetch count
+     */
+    public long getFetchCount() {
+        return fetches.sum();
+    }
+
+    /**
+     * Returns the number of fetches that ended with an exception.
+     *
+     * @return the failure count
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the number of requests made by this provider.
+     *
+     * @return the request count
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Returns the number of response bytes read by this provider.
+     *
+     * @return the bytes transferred
+     */
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Returns the total time, in milliseconds, this provider spent outside the network,
+     * which is mostly spent parsing responses.
+     *
+     * @return the time spent parsing
+     */
+    public long getParseTime() {
+        return TimeUnit.NANOSECONDS.toMillis(parseNanos.sum());
+    }
+
+    /**
+     * Returns how many times each HTTP status code was received by this provider.
+     *
+     * @return the status codes and their occurrences
+     */
+    public @Unmodifiable @NotNull Map<Integer, Long> getResponseCodes() {
+        Map<Integer, Long> codes = new TreeMap<>();
+        responseCodes.forEach((code, count) -> codes.put(code, count.sum()));
+        return Collections.unmodifiableMap(codes);
+    }
+
+    /**
+     * Returns the share of requests answered with {@code 304 Not Modified}, meaning the cached
+     * copy of the response could be reused.
+     *
+     * @return a value between 0 and 1
+     */
+    public double getCacheHitRatio() {
+        long total = getRequestCount();
+        return total != 0 ? (double) notModified.sum() / total : 0;
+    }
+
+    /**
+     * Returns the number of updates downloaded from this provider.
+     *
+     * @return the download count
+     */
+    public long getDownloadCount() {
+        return downloads.sum();
+    }
+
+    /**
+     * Returns the number of bytes downloaded from this provider.
+     *
+     * @return the bytes downloaded
+     */
+    public long getDownloadBytes() {
+        return downloadBytes.sum();
+    }
+
+    /**
+     * Returns the average download throughput in bytes per second, or 0 if nothing
+     * was downloaded.
+     *
+     * @return the download throughput
+     */
+    public double getDownloadThroughput() {
+        long nanos = downloadNanos.sum();
+        return nanos != 0 ? getDownloadBytes() / (nanos / 1_000_000_000D) : 0;
+    }
+
+    /**
+     * Returns a single line summary of these metrics.
+     *
+     * @return a summary of these metrics
+     */
+    @Override
+    public String toString() {
+        return String.format("%s: fetches=%d failures=%d latency[%s] requests=%d codes=%s bytes=%d parse=%dms cache=%.0f%% downloads=%d (%.1f KiB/s)",
+                name, getFetchCount(), getFailureCount(), fetchLatency, getRequestCount(), getResponseCodes(), getBytesRead(),
+                getParseTime(), getCacheHitRatio() * 100, getDownloadCount(), getDownloadThroughput() / 1024);
+    }
+}
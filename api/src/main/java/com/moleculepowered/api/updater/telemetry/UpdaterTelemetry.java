@@ -0,0 +1,162 @@
+package com.moleculepowered.api.updater.telemetry;
+
+import com.moleculepowered.api.updater.Updater;
+import com.moleculepowered.api.updater.provider.AbstractProvider;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the telemetry recorded by an {@link Updater}. It keeps a set of {@link ProviderMetrics}
+ * for every provider that was fetched, as well as a short history of the most recent update
+ * checks and their totals.
+ *
+ * <p>All values are recorded while the updater runs; this class only needs to be queried
+ * when you wish to find out which marketplace is slow or failing.</p>
+ *
+ * <pre>{@code
+ * ProviderMetrics github = updater.getTelemetry().getProvider("Github");
+ * long p95 = github.getFetchLatency().getPercentile(0.95);
+ * }</pre>
+ *
+ * @author OMGitzFROST
+ * @see Updater#getTelemetry()
+ */
+public final class UpdaterTelemetry
+{
+    private static final int HISTORY_SIZE = 32;
+    private final Map<String, ProviderMetrics> providers = new ConcurrentHashMap<>();
+    private final Deque<CheckRecord> checks = new ArrayDeque<>();
+
+    /*
+    RECORDING METHODS
+     */
+
+    /**
+     * Starts recording a new update check. The returned builder must be completed once
+     * the check ends, using either {@link CheckRecord.Builder#complete} or {@link CheckRecord.Builder#fail}.
+     *
+     * @return the builder for the new check
+     */
+    public @NotNull CheckRecord.Builder startCheck() {
+        return new CheckRecord.Builder(this);
+    }
+
+    /**
+     * Starts measuring a provider fetch on the current thread.
+     *
+     * @param provider the name of the provider being fetched
+     * @param check    the check the fetch belongs to, if any
+     * @return the scope that must be closed once the fetch ends
+     */
+    public @NotNull FetchScope startFetch(@NotNull String provider, @Nullable CheckRecord.Builder check) {
+        return new FetchScope(getProvider(provider), check);
+    }
+
+    /**
+     * Records a completed update download for the provided provider.
+     *
+     * @param provider the name of the provider the update was downloaded from
+     * @param bytes    the size of the download
+     * @param nanos    the time spent downloading
+     */
+    public void recordDownload(@NotNull String provider, long bytes, long nanos) {
+        getProvider(provider).recordDownload(bytes, nanos);
+    }
+
+    /**
+     * Adds a completed check to the history, discarding the oldest check when the history is full.
+     *
+     * @param record the completed check
+     * @return the completed check
+     */
+    @NotNull CheckRecord addCheck(@NotNull CheckRecord record) {
+        synchronized (checks) {
+            if (checks.size() == HISTORY_SIZE) checks.removeFirst();
+            checks.addLast(record);
+        }
+        return record;
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the metrics of the provider with the provided name, as returned by
+     * {@link AbstractProvider#getName()}. If the provider was never fetched, an empty
+     * set of metrics is returned.
+     *
+     * @param name the provider name
+     * @return the metrics of the provider
+     */
+    public @NotNull ProviderMetrics getProvider(@NotNull String name) {
+        return providers.computeIfAbsent(name, ProviderMetrics::new);
+    }
+
+    /**
+     * Returns the metrics of every provider recorded by this telemetry.
+     *
+     * @return the provider metrics
+     */
+    public @Unmodifiable @NotNull Collection<ProviderMetrics> getProviders() {
+        return Collections.unmodifiableCollection(providers.values());
+    }
+
+    /**
+     * Returns the most recent update checks, ordered from oldest to newest.
+     *
+     * @return the recent checks
+     */
+    public @Unmodifiable @NotNull List<CheckRecord> getChecks() {
+        synchronized (checks) {
+            return Collections.unmodifiableList(new ArrayList<>(checks));
+        }
+    }
+
+    /**
+     * Returns the most recent update check, or null if no check completed yet.
+     *
+     * @return the most recent check
+     */
+    public @Nullable CheckRecord getLastCheck() {
+        synchronized (checks) {
+            return checks.peekLast();
+        }
+    }
+
+    /**
+     * Returns a human-readable report of every provider and the most recent check, one
+     * entry per line. This is the report printed when periodic dumps are enabled.
+     *
+     * @return the telemetry report
+     * @see Updater#setTelemetryInterval(String)
+     */
+    public @NotNull List<String> dump() {
+        List<String> lines = new ArrayList<>();
+        providers.values().forEach(metrics -> lines.add(metrics.toString()));
+
+        CheckRecord last = getLastCheck();
+        if (last != null) lines.add("Last check " + last);
+        return lines;
+    }
+
+    /**
+     * Clears every metric and check recorded by this telemetry.
+     */
+    public void reset() {
+        providers.clear();
+        synchronized (checks) {
+            checks.clear();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.moleculepowered.api.updater.verify;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Represents a checksum published by a provider for its latest release, such as the SHA-256
+ * hash Hangar publishes for each download.
+ *
+ * @author OMGitzFROST
+ * @see JarVerifier
+ */
+public final class Checksum
+{
+    private final String algorithm;
+    private final String hash;
+
+    /**
+     * Creates a new checksum using the provided algorithm and hexadecimal hash.
+     *
+     * @param algorithm the digest algorithm, for example "SHA-256"
+     * @param hash      the expected hash, encoded as hexadecimal
+     * @throws IllegalArgumentException when the algorithm is not supported by this JVM
+     */
+    public Checksum(@NotNull String algorithm, @NotNull String hash) {
+        this.algorithm = algorithm.toUpperCase(Locale.ROOT);
+        this.hash = hash.trim().toLowerCase(Locale.ROOT);
+        newDigest();
+    }
+
+    /**
+     * Parses a checksum written in the {@code "algorithm:hash"} form used by GitHub, for example
+     * {@code "sha256:9f86d08..."}. Returns null if the input is null or not in that form.
+     *
+     * @param input the prefixed checksum
+     * @return the parsed checksum, or null
+     */
+    public static @Nullable Checksum parse(@Nullable String input) {
+        if (input == null || !input.contains(":")) return null;
+
+        String algorithm = input.substring(0, input.indexOf(':')).toUpperCase(Locale.ROOT);
+        if (algorithm.startsWith("SHA") && !algorithm.contains("-")) algorithm = "SHA-" + algorithm.substring(3);
+
+        try {
+            return new Checksum(algorithm, input.substring(input.indexOf(':') + 1));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a new digest for the algorithm of this checksum.
+     *
+     * @return a new message digest
+     * @throws IllegalArgumentException when the algorithm is not supported by this JVM
+     */
+    public @NotNull MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalArgumentException("Unsupported checksum algorithm: " + algorithm, ex);
+        }
+    }
+
+    /**
+     * Returns true if the provided digest matches the hash of this checksum.
+     *
+     * @param digest the computed digest
+     * @return true if the digest matches
+     */
+    public boolean matches(byte[] digest) {
+        return hash.equals(toHex(digest));
+    }
+
+    /**
+     * Returns the digest algorithm of this checksum.
+     *
+     * @return the algorithm
+     */
+    public @NotNull String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Returns the expected hash, encoded as lowercase hexadecimal.
+     *
+     * @return the expected hash
+     */
+    public @NotNull String getHash() {
+        return hash;
+    }
+
+    /**
+     * Encodes the provided bytes as lowercase hexadecimal.
+     *
+     * @param bytes the target bytes
+     * @return the encoded bytes
+     */
+    static @NotNull String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return builder.toString();
+    }
+
+    /**
+     * Returns this checksum in the {@code "algorithm:hash"} form.
+     *
+     * @return a string representation of this checksum
+     */
+    @Override
+    public String toString() {
+        return algorithm + ":" + hash;
+    }
+}
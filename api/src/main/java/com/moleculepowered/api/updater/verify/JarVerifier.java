@@ -0,0 +1,309 @@
+package com.moleculepowered.api.updater.verify;
+
+import com.moleculepowered.api.exception.updater.JarVerificationException;
+import com.moleculepowered.api.util.ComparableVersion;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Verifies a downloaded update before it is installed into the update folder. The verifier maps
+ * the file into memory once and, without extracting anything:
+ * <ul>
+ *     <li>digests the whole file and compares it to the published checksum, when one is provided</li>
+ *     <li>walks the zip central directory, validating the local header of every entry</li>
+ *     <li>reads {@code plugin.yml} and checks its name and version</li>
+ * </ul>
+ *
+ * <p>The checksum is the only check reading every byte of the file. The directory walk is a second,
+ * much cheaper pass that only reads entry headers and the content of {@code plugin.yml}.</p>
+ *
+ * <p>Any failure is reported as a {@link JarVerificationException}, which typically means the
+ * download was corrupted or was not a jar at all (for example an HTML error page).</p>
+ *
+ * <pre>{@code
+ * new JarVerifier().setName("MyPlugin").setVersion("1.2.0").verify(file);
+ * }</pre>
+ *
+ * @author OMGitzFROST
+ * @see Checksum
+ */
+public final class JarVerifier
+{
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final String DESCRIPTION = "plugin.yml";
+    private static final int MAX_DESCRIPTION = 1 << 20;
+    private ComparableVersion version;
+    private Checksum checksum;
+    private String name;
+
+    /*
+    CHAIN METHODS
+     */
+
+    /**
+     * Sets the name the plugin.yml of the verified jar must declare. If null, the name is not checked.
+     *
+     * @param name the expected plugin name
+     * @return an instance of this verifier chain
+     */
+    public @NotNull JarVerifier setName(@Nullable String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Sets the version the plugin.yml of the verified jar must declare. If null, the version is not checked.
+     *
+     * @param version the expected version
+     * @return an instance of this verifier chain
+     */
+    public @NotNull JarVerifier setVersion(@Nullable ComparableVersion version) {
+        this.version = version;
+        return this;
+    }
+
+    /**
+     * Sets the version the plugin.yml of the verified jar must declare. If null, the version is not checked.
+     *
+     * @param version the expected version
+     * @return an instance of this verifier chain
+     */
+    public @NotNull JarVerifier setVersion(@Nullable String version) {
+        return setVersion(version != null ? new ComparableVersion(version) : null);
+    }
+
+    /**
+     * Sets the checksum the verified file must match. If null, no checksum is computed.
+     *
+     * @param checksum the expected checksum
+     * @return an instance of this verifier chain
+     */
+    public @NotNull JarVerifier setChecksum(@Nullable Checksum checksum) {
+        this.checksum = checksum;
+        return this;
+    }
+
+    /*
+    VERIFICATION
+     */
+
+    /**
+     * Verifies the provided file against every check configured on this verifier.
+     *
+     * @param file the downloaded jar
+     * @throws JarVerificationException if the file fails any check
+     * @throws IOException              if the file could not be read
+     */
+    public void verify(@NotNull File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < END_SIZE) throw new JarVerificationException("{0} is too small to be a jar ({1} bytes)", file.getName(), size);
+            if (size > Integer.MAX_VALUE) throw new JarVerificationException("{0} is too large to be verified", file.getName());
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer buffer = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+
+            // COMPUTE THE CHECKSUM FIRST, IT IS THE ONLY CHECK THAT READS EVERY BYTE
+            if (checksum != null) {
+                MessageDigest digest = checksum.newDigest();
+                digest.update(mapped.duplicate());
+                if (!checksum.matches(digest.digest())) {
+                    throw new JarVerificationException("{0} does not match its published {1} checksum", file.getName(), checksum.getAlgorithm());
+                }
+            }
+
+            String description = readDescription(file, buffer, (int) size);
+            if (description == null) throw new JarVerificationException("{0} does not contain a plugin.yml", file.getName());
+
+            // CHECK THE DESCRIPTION AGAINST THE RUNNING PLUGIN AND THE ADVERTISED RELEASE
+            String declaredName = readValue(description, "name");
+            String declaredVersion = readValue(description, "version");
+
+            if (name != null && !name.equals(declaredName)) {
+                throw new JarVerificationException("{0} belongs to \"{1}\" instead of \"{2}\"", file.getName(), declaredName, name);
+            }
+            if (version != null && (declaredVersion == null || !version.isEqualTo(new ComparableVersion(declaredVersion)))) {
+                throw new JarVerificationException("{0} declares version {1} instead of {2}", file.getName(), declaredVersion, version);
+            }
+        }
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Validates the central directory of the mapped file and returns the content of its
+     * plugin.yml, or null if the jar does not contain one.
+     *
+     * @param file   the verified file, used in error messages
+     * @param buffer the mapped file
+     * @param size   the size of the file
+     * @return the content of the plugin.yml, or null
+     * @throws JarVerificationException if the zip structure is invalid
+     */
+    private static @Nullable String readDescription(@NotNull File file, @NotNull ByteBuffer buffer, int size) throws JarVerificationException {
+        int end = findEndRecord(buffer, size);
+        if (end == -1) throw new JarVerificationException("{0} is not a valid jar, its central directory could not be found", file.getName());
+
+        int entries = Short.toUnsignedInt(buffer.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(buffer.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+        if (directoryOffset + directorySize > end) throw new JarVerificationException("{0} has a truncated central directory", file.getName());
+
+        String description = null;
+        int position = (int) directoryOffset;
+
+        for (int i = 0; i < entries; i++) {
+            if (position + 46 > end || buffer.getInt(position) != CENTRAL_HEADER) {
+                throw new JarVerificationException("{0} has a corrupted central directory (entry {1})", file.getName(), i);
+            }
+
+            int method = Short.toUnsignedInt(buffer.getShort(position + 10));
+            int crc = buffer.getInt(position + 16);
+            long compressedSize = Integer.toUnsignedLong(buffer.getInt(position + 20));
+            long uncompressedSize = Integer.toUnsignedLong(buffer.getInt(position + 24));
+            int nameLength = Short.toUnsignedInt(buffer.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(buffer.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(buffer.getShort(position + 32));
+            long localOffset = Integer.toUnsignedLong(buffer.getInt(position + 42));
+
+            // EVERY ENTRY MUST POINT TO A LOCAL HEADER WHOSE DATA LIES INSIDE THE FILE
+            if (localOffset + 30 > directoryOffset || buffer.getInt((int) localOffset) != LOCAL_HEADER) {
+                throw new JarVerificationException("{0} has a corrupted entry header (entry {1})", file.getName(), i);
+            }
+            int dataOffset = (int) localOffset + 30 + Short.toUnsignedInt(buffer.getShort((int) localOffset + 26)) + Short.toUnsignedInt(buffer.getShort((int) localOffset + 28));
+            if (dataOffset + compressedSize > directoryOffset) {
+                throw new JarVerificationException("{0} has a truncated entry (entry {1})", file.getName(), i);
+            }
+
+            if (description == null && nameLength == DESCRIPTION.length() && DESCRIPTION.equals(readString(buffer, position + 46, nameLength))) {
+                // THE SIZE IS ONLY DECLARED, NEVER ALLOCATE MORE THAN A PLUGIN.YML COULD REASONABLY NEED
+                if (uncompressedSize > MAX_DESCRIPTION) {
+                    throw new JarVerificationException("{0} declares an oversized plugin.yml ({1} bytes)", file.getName(), uncompressedSize);
+                }
+                byte[] content = readEntry(file, buffer, dataOffset, method, (int) compressedSize, (int) uncompressedSize);
+                CRC32 checksum = new CRC32();
+                checksum.update(content);
+                if ((int) checksum.getValue() != crc) throw new JarVerificationException("{0} has a corrupted plugin.yml", file.getName());
+                description = new String(content, StandardCharsets.UTF_8);
+            }
+            position += 46 + nameLength + extraLength + commentLength;
+        }
+        return description;
+    }
+
+    /**
+     * Locates the end of central directory record by scanning backwards from the end of the file,
+     * skipping over a possible archive comment.
+     *
+     * @param buffer the mapped file
+     * @param size   the size of the file
+     * @return the position of the record, or -1 if it could not be found
+     */
+    private static int findEndRecord(@NotNull ByteBuffer buffer, int size) {
+        int limit = Math.max(0, size - END_SIZE - 0xFFFF);
+        for (int position = size - END_SIZE; position >= limit; position--) {
+            if (buffer.getInt(position) == END_HEADER) return position;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the content of a stored or deflated entry directly from the mapped file. The declared
+     * sizes must already be bounded by the caller.
+     *
+     * @param file             the verified file, used in error messages
+     * @param buffer           the mapped file
+     * @param offset           the offset of the entry data
+     * @param method           the compression method
+     * @param compressedSize   the size of the entry data
+     * @param uncompressedSize the size of the entry once inflated
+     * @return the content of the entry
+     * @throws JarVerificationException if the entry could not be read
+     */
+    private static byte[] readEntry(@NotNull File file, @NotNull ByteBuffer buffer, int offset, int method, int compressedSize, int uncompressedSize) throws JarVerificationException {
+        byte[] raw = new byte[compressedSize];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        slice.get(raw);
+
+        if (method == 0) {
+            if (compressedSize != uncompressedSize) throw new JarVerificationException("{0} has a truncated plugin.yml", file.getName());
+            return raw;
+        }
+        if (method != 8) throw new JarVerificationException("{0} uses an unsupported compression method ({1})", file.getName(), method);
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(raw);
+            byte[] content = new byte[uncompressedSize];
+            int read = 0;
+            while (read < content.length && !inflater.finished()) {
+                int inflated = inflater.inflate(content, read, content.length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                read += inflated;
+            }
+            if (read != content.length) throw new JarVerificationException("{0} has a truncated plugin.yml", file.getName());
+            return content;
+        } catch (DataFormatException ex) {
+            throw new JarVerificationException("Failed to read plugin.yml", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Reads a UTF-8 string from the mapped file.
+     *
+     * @param buffer the mapped file
+     * @param offset the offset of the string
+     * @param length the length of the string in bytes
+     * @return the string
+     */
+    private static @NotNull String readString(@NotNull ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a top-level scalar value from a plugin.yml, removing quotes and trailing comments.
+     *
+     * @param description the content of the plugin.yml
+     * @param key         the target key
+     * @return the value assigned to the key, or null if the key is not declared
+     */
+    private static @Nullable String readValue(@NotNull String description, @NotNull String key) {
+        for (String line : description.split("\r?\n")) {
+            if (!line.startsWith(key + ":")) continue;
+
+            String value = line.substring(key.length() + 1).trim();
+            if (value.startsWith("\"") || value.startsWith("'")) {
+                int close = value.indexOf(value.charAt(0), 1);
+                return close != -1 ? value.substring(1, close) : value.substring(1);
+            }
+            int comment = value.indexOf(" #");
+            return (comment != -1 ? value.substring(0, comment) : value).trim();
+        }
+        return null;
+    }
+}
@@ -30,6 +30,17 @@ public interface User extends UserData {
     @NotNull
     String getName();
 
+    /**
+     * Returns true if the name of this user is known. Users whose name is not known, for example users
+     * only known from a storage that never recorded it, are named after their unique ID instead and are
+     * never indexed by that name.
+     *
+     * @return true if the name of this user is known
+     */
+    default boolean hasName() {
+        return true;
+    }
+
     /**
      * Retrieve the display name assigned to this user object.
      * Please note that this value may be different from the name listed.
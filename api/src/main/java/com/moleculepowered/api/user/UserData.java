@@ -2,14 +2,22 @@ package com.moleculepowered.api.user;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.moleculepowered.api.concurrent.IOExecutor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * The core storage system for our {@link User} objects. This interface is designed
  * to provide the required methods needed to handle user data across different platforms.
+ *
+ * <p>Methods that may touch the disk have asynchronous counterparts, such as {@link #createAsync()},
+ * which run on the {@link #getExecutor() executor} of this user and return a {@link CompletableFuture}.
+ * Asynchronous operations of the same user always run in the order they were requested.</p>
  */
 public interface UserData
 {
@@ -35,12 +43,41 @@ public interface UserData
      */
     <T> void update(T player);
 
+    /**
+     * Returns true if this user has changes that were not yet written to its data file.
+     *
+     * @return true if this user has unsaved changes
+     * @see #save()
+     */
+    default boolean isDirty() {
+        return false;
+    }
+
+    /**
+     * Starts writing every pending change of this user to its data file without waiting
+     * for the write to complete. If this user has no pending changes, this method does nothing.
+     *
+     * @see #save()
+     */
+    default void flush() {
+    }
+
+    /**
+     * Writes every pending change of this user to its data file, blocking until the
+     * changes are written. If this user has no pending changes, this method does nothing.
+     *
+     * @see #flush()
+     */
+    default void save() {
+    }
+
     /**
      * Used to add or update existing data with a new value.
      * <p>
      * NOTE: The value you provide must be one of the following data types:
      * {@link String}, {@link Number}, {@link Boolean}, {@link Character},
      * or {@link JsonElement}, otherwise this method will throw an exception.
+     * Numbers and booleans are stored as native JSON values.
      *
      * @param key   the target key
      * @param value the target value
@@ -69,14 +106,210 @@ public interface UserData
         return getData(key, null);
     }
 
+    /*
+    TYPED METHODS
+     */
+
+    /**
+     * Returns the value of the provided field, or its default value if the field is not set.
+     *
+     * @param field the target field
+     * @param <T>   the type of the value
+     * @return the value of the field
+     */
+    default <T> T get(@NotNull UserField<T> field) {
+        return field.read(getData().get(field.getKey()));
+    }
+
+    /**
+     * Sets the value of the provided field, storing it as the field's native type.
+     *
+     * @param field the target field
+     * @param value the new value, or null to clear the field
+     * @param <T>   the type of the value
+     */
+    default <T> void set(@NotNull UserField<T> field, @Nullable T value) {
+        setData(field.getKey(), field.write(value));
+    }
+
+    /**
+     * Returns the integer assigned to the provided key, or the default value if the key is not set
+     * or is not a number.
+     *
+     * @param key the data key
+     * @param def the default value
+     * @return the integer assigned to the key
+     */
+    default int getInt(@NotNull String key, int def) {
+        JsonElement element = getData().get(key);
+        if (element == null || !element.isJsonPrimitive()) return def;
+        try {
+            return element.getAsInt();
+        } catch (RuntimeException ex) {
+            return def;
+        }
+    }
+
+    /**
+     * Returns the long assigned to the provided key, or the default value if the key is not set
+     * or is not a number.
+     *
+     * @param key the data key
+     * @param def the default value
+     * @return the long assigned to the key
+     */
+    default long getLong(@NotNull String key, long def) {
+        JsonElement element = getData().get(key);
+        if (element == null || !element.isJsonPrimitive()) return def;
+        try {
+            return element.getAsLong();
+        } catch (RuntimeException ex) {
+            return def;
+        }
+    }
+
+    /**
+     * Returns the double assigned to the provided key, or the default value if the key is not set
+     * or is not a number.
+     *
+     * @param key the data key
+     * @param def the default value
+     * @return the double assigned to the key
+     */
+    default double getDouble(@NotNull String key, double def) {
+        JsonElement element = getData().get(key);
+        if (element == null || !element.isJsonPrimitive()) return def;
+        try {
+            return element.getAsDouble();
+        } catch (RuntimeException ex) {
+            return def;
+        }
+    }
+
+    /**
+     * Returns the boolean assigned to the provided key, or the default value if the key is not set.
+     *
+     * @param key the data key
+     * @param def the default value
+     * @return the boolean assigned to the key
+     */
+    default boolean getBoolean(@NotNull String key, boolean def) {
+        Boolean value = UserField.ofBoolean(key, def).parse(getData().get(key));
+        return value != null ? value : def;
+    }
+
+    /**
+     * Assigns an integer to the provided key.
+     *
+     * @param key   the data key
+     * @param value the new value
+     */
+    default void setInt(@NotNull String key, int value) {
+        setData(key, value);
+    }
+
+    /**
+     * Assigns a long to the provided key.
+     *
+     * @param key   the data key
+     * @param value the new value
+     */
+    default void setLong(@NotNull String key, long value) {
+        setData(key, value);
+    }
+
+    /**
+     * Assigns a double to the provided key.
+     *
+     * @param key   the data key
+     * @param value the new value
+     */
+    default void setDouble(@NotNull String key, double value) {
+        setData(key, value);
+    }
+
+    /**
+     * Assigns a boolean to the provided key.
+     *
+     * @param key   the data key
+     * @param value the new value
+     */
+    default void setBoolean(@NotNull String key, boolean value) {
+        setData(key, value);
+    }
+
+    /**
+     * Adds the provided delta to the counter stored under the provided key. Counters are meant for
+     * statistics updated at a high rate, such as kills or mined blocks; implementations may keep
+     * updates in memory and write them in batches. Setting the key using {@link #setData(String, Object)}
+     * replaces the counter's value.
+     *
+     * <p>By default, this method reads, updates and writes the stored value while holding this user's lock.</p>
+     *
+     * @param key   the counter key
+     * @param delta the amount to add
+     * @see #getCounter(String)
+     */
+    default void increment(@NotNull String key, long delta) {
+        synchronized (this) {
+            setLong(key, getLong(key, 0) + delta);
+        }
+    }
+
+    /**
+     * Returns the current value of the counter stored under the provided key, including updates
+     * that were not yet written.
+     *
+     * @param key the counter key
+     * @return the value of the counter, or 0 if not set
+     * @see #increment(String, long)
+     */
+    default long getCounter(@NotNull String key) {
+        return getLong(key, 0);
+    }
+
+    /**
+     * Sets the listener notified whenever the data of this user changes, replacing the previous one.
+     * {@link UserManager} uses this listener to keep its indexes up to date; implementations that do not
+     * support listeners ignore it, in which case their changes only reach indexes when they are loaded.
+     *
+     * @param listener the listener, or null to remove it
+     */
+    default void setDataListener(@Nullable UserDataListener listener) {
+    }
+
     /**
      * Returns the configuration assigned to this user. The behavior of this method, including autoload
-     * features, may vary between platforms.
+     * features, may vary between platforms. Implementations backed by a {@link UserDocument} return a
+     * copy of it, in which case changing the returned object does not change this user; use
+     * {@link #setData(String, Object)} instead.
      *
      * @return The user's configuration as a {@link JsonObject}.
      */
     @NotNull JsonObject getData();
 
+    /**
+     * Returns an immutable snapshot of this user's data, which can be read from any thread without
+     * locking and is not affected by later changes. By default, this method copies {@link #getData()}.
+     *
+     * @return the current data of this user
+     */
+    default @NotNull UserDocument getDocument() {
+        return UserDocument.of(getData());
+    }
+
+    /**
+     * Applies changes made to this user by another server, as shipped by
+     * {@link com.moleculepowered.api.user.sync.UserSync}. Unlike {@link #setData(String, Object)}, the
+     * changes are not written to the storage, since the server that made them owns the user and writes
+     * them itself. By default, this method sets every changed key.
+     *
+     * @param changes the changed keys and their new values
+     */
+    default void applyRemote(@NotNull Map<String, JsonElement> changes) {
+        changes.forEach(this::setData);
+    }
+
     /**
      * Returns the data file associated with this user.
      *
@@ -92,4 +325,86 @@ public interface UserData
     default @NotNull File getDataFolder() {
         return getFile().getParentFile();
     }
-}
\ No newline at end of file
+
+    /*
+    ASYNCHRONOUS METHODS
+     */
+
+    /**
+     * Returns the executor asynchronous operations of this user run on. Implementations should
+     * return an executor running tasks one at a time, so operations of the same user stay ordered.
+     * By default, this method returns the shared {@link IOExecutor}, which does not guarantee ordering.
+     *
+     * @return the executor of this user
+     */
+    default @NotNull Executor getExecutor() {
+        return IOExecutor.get();
+    }
+
+    /**
+     * Asynchronously creates this user's data file.
+     *
+     * @return a future completed once the data file was created
+     * @see #create()
+     */
+    default @NotNull CompletableFuture<Void> createAsync() {
+        return CompletableFuture.runAsync(this::create, getExecutor());
+    }
+
+    /**
+     * Asynchronously deletes this user's data file.
+     *
+     * @return a future completed once the data file was deleted
+     * @see #delete()
+     */
+    default @NotNull CompletableFuture<Void> deleteAsync() {
+        return CompletableFuture.runAsync(this::delete, getExecutor());
+    }
+
+    /**
+     * Asynchronously updates this user's data file using the provided player.
+     *
+     * @param player the originating player
+     * @return a future completed once the data was updated
+     * @see #update(Object)
+     */
+    default <T> @NotNull CompletableFuture<Void> updateAsync(T player) {
+        return CompletableFuture.runAsync(() -> update(player), getExecutor());
+    }
+
+    /**
+     * Asynchronously adds or updates existing data with a new value.
+     *
+     * @param key   the target key
+     * @param value the target value
+     * @return a future completed once the value was set
+     * @see #setData(String, Object)
+     */
+    default @NotNull CompletableFuture<Void> setDataAsync(@NotNull String key, Object value) {
+        return CompletableFuture.runAsync(() -> setData(key, value), getExecutor());
+    }
+
+    /**
+     * Asynchronously loads this user's configuration, completing with it once loaded.
+     *
+     * @return a future completed with the user's configuration
+     * @see #getData()
+     */
+    default @NotNull CompletableFuture<JsonObject> loadAsync() {
+        return CompletableFuture.supplyAsync(this::getData, getExecutor());
+    }
+
+    /**
+     * Asynchronously writes every pending change of this user to its data file. By default, this
+     * method runs {@link #save()} on this user's executor. Implementations whose {@link #save()} waits
+     * for writes running on the shared {@link IOExecutor} must override this method, returning a future
+     * chained onto those writes instead, since a pool thread waiting for another pool task can
+     * exhaust the pool and deadlock it.
+     *
+     * @return a future completed once the changes were written
+     * @see #save()
+     */
+    default @NotNull CompletableFuture<Void> saveAsync() {
+        return CompletableFuture.runAsync(this::save, getExecutor());
+    }
+}
@@ -0,0 +1,58 @@
+package com.moleculepowered.api.user;
+
+import com.google.gson.JsonElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A listener notified whenever the data of a user changes. A {@link UserManager} attaches a listener
+ * to every user it loads in order to keep its indexes up to date, so listeners must be fast and must
+ * not modify the user they are notified about.
+ *
+ * @author OMGitzFROST
+ * @see UserData#setDataListener(UserDataListener)
+ */
+@FunctionalInterface
+public interface UserDataListener
+{
+    /**
+     * Called after the value of a key changed.
+     *
+     * @param key   the changed key
+     * @param value the new value, or null if the key was removed
+     */
+    void onChange(@NotNull String key, @Nullable JsonElement value);
+
+    /**
+     * Called after the value of a key changed, with the value it replaced and the
+     * {@link UserDocument#getVersion() version} of the document holding the new value. Implementations
+     * able to provide the previous value call this method instead of {@link #onChange(String, JsonElement)},
+     * which it calls by default.
+     *
+     * @param key      the changed key
+     * @param previous the previous value, or null if the key was not set
+     * @param value    the new value, or null if the key was removed
+     * @param version  the version of the user's document after the change
+     */
+    default void onChange(@NotNull String key, @Nullable JsonElement previous, @Nullable JsonElement value, long version) {
+        onChange(key, value);
+    }
+
+    /**
+     * Called after a counter was incremented, with its value including the increments not yet folded
+     * into the user's document. The counter is reported through {@link #onChange(String, JsonElement)}
+     * once it is folded. Concurrent increments may report their values out of order, but the last
+     * report always carries the latest value. By default, this method does nothing.
+     *
+     * @param key   the counter key
+     * @param value the current value of the counter
+     */
+    default void onCount(@NotNull String key, long value) {
+    }
+
+    /**
+     * Called after the user's data was deleted. By default, this method does nothing.
+     */
+    default void onDelete() {
+    }
+}
@@ -0,0 +1,266 @@
+package com.moleculepowered.api.user;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * An immutable snapshot of a user's data. Changing a document creates a new document, leaving the
+ * original untouched, so a document can be read from any thread without locking and always shows a
+ * consistent state of the user, even while the user is being changed.
+ *
+ * <p>Users hold their current document in an atomic reference and replace it using compare-and-set
+ * on every change; see {@link UserData#getDocument()}. Documents hold a handful of top-level keys, so a
+ * change copies the top-level map while sharing every unchanged value with the previous document.
+ * Values are copied when they enter or leave a document, so nested objects and arrays can never be
+ * modified through it.</p>
+ *
+ * @author OMGitzFROST
+ * @see UserData#getDocument()
+ */
+public final class UserDocument
+{
+    /**
+     * A document without any key.
+     */
+    public static final UserDocument EMPTY = new UserDocument(Collections.emptyMap(), 0);
+
+    private final Map<String, JsonElement> entries;
+    private final Map<String, Object> values = new ConcurrentHashMap<>();
+    private final long version;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    private UserDocument(@NotNull Map<String, JsonElement> entries, long version) {
+        this.entries = entries;
+        this.version = version;
+    }
+
+    /**
+     * Creates a document containing a copy of the provided data.
+     *
+     * @param data the data of the user
+     * @return the document
+     */
+    public static @NotNull UserDocument of(@NotNull JsonObject data) {
+        if (data.size() == 0) return EMPTY;
+
+        Map<String, JsonElement> entries = new LinkedHashMap<>(capacity(data.size()));
+        for (Map.Entry<String, JsonElement> entry : data.entrySet()) entries.put(entry.getKey(), copy(entry.getValue()));
+        return new UserDocument(Collections.unmodifiableMap(entries), 0);
+    }
+
+    /*
+    CHANGE METHODS
+     */
+
+    /**
+     * Returns a document assigning the provided value to the provided key, and every other key the
+     * value it has in this document. A null value is stored as a JSON null.
+     *
+     * @param key   the changed key
+     * @param value the new value
+     * @return the changed document
+     */
+    public @NotNull UserDocument with(@NotNull String key, @Nullable JsonElement value) {
+        return with(Collections.singletonMap(key, value));
+    }
+
+    /**
+     * Returns a document assigning every provided value to its key, and every other key the value it
+     * has in this document. Null values are stored as JSON nulls.
+     *
+     * @param changes the changed keys and their new values
+     * @return the changed document
+     */
+    public @NotNull UserDocument with(@NotNull Map<String, ? extends JsonElement> changes) {
+        if (changes.isEmpty()) return this;
+
+        Map<String, JsonElement> entries = new LinkedHashMap<>(capacity(this.entries.size() + changes.size()));
+        entries.putAll(this.entries);
+        changes.forEach((key, value) -> entries.put(key, value != null ? copy(value) : JsonNull.INSTANCE));
+        UserDocument document = new UserDocument(Collections.unmodifiableMap(entries), version + 1);
+
+        // VALUES READ FROM UNCHANGED KEYS ARE STILL VALID IN THE NEW DOCUMENT
+        values.forEach((key, value) -> {
+            if (!changes.containsKey(key)) document.values.put(key, value);
+        });
+        return document;
+    }
+
+    /**
+     * Returns a document without the provided key.
+     *
+     * @param key the removed key
+     * @return the changed document, or this document if it does not contain the key
+     */
+    public @NotNull UserDocument without(@NotNull String key) {
+        if (!entries.containsKey(key)) return this;
+
+        Map<String, JsonElement> entries = new LinkedHashMap<>(this.entries);
+        entries.remove(key);
+        UserDocument document = new UserDocument(Collections.unmodifiableMap(entries), version + 1);
+        values.forEach((memo, value) -> {
+            if (!memo.equals(key)) document.values.put(memo, value);
+        });
+        return document;
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the value assigned to the provided key. Objects and arrays are copied, so changing them
+     * does not change this document.
+     *
+     * @param key the data key
+     * @return the value, or null if the key is not set
+     */
+    public @Nullable JsonElement get(@NotNull String key) {
+        JsonElement value = entries.get(key);
+        return value != null && (value.isJsonObject() || value.isJsonArray()) ? value.deepCopy() : value;
+    }
+
+    /**
+     * Returns true if the provided key is set to a value other than null.
+     *
+     * @param key the data key
+     * @return true if the key is set
+     */
+    public boolean has(@NotNull String key) {
+        JsonElement value = entries.get(key);
+        return value != null && !value.isJsonNull();
+    }
+
+    /**
+     * Returns the version of this document, counting the changes made since the user was loaded. Every
+     * change creates a document with a version one higher than the document it was made to.
+     *
+     * @return the version of this document
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the keys contained in this document.
+     *
+     * @return the contained keys
+     */
+    public @NotNull Set<String> keys() {
+        return entries.keySet();
+    }
+
+    /**
+     * Returns the number of keys contained in this document.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the value assigned to the provided key converted by the provided reader. Since this document
+     * never changes, a converted value is kept and returned by later reads of the same key and type
+     * without converting it again.
+     *
+     * @param key    the data key
+     * @param type   the type of the value
+     * @param reader converts the stored element into the value, returning null or throwing if it cannot
+     * @param <T>    the type of the value
+     * @return the value, or null if the key is not set or cannot be converted
+     */
+    public <T> @Nullable T read(@NotNull String key, @NotNull Class<T> type, @NotNull Function<JsonElement, T> reader) {
+        Object value = values.get(key);
+        if (type.isInstance(value)) return type.cast(value);
+
+        JsonElement element = entries.get(key);
+        if (element == null || element.isJsonNull()) return null;
+        try {
+            T read = reader.apply(copy(element));
+            if (read != null) values.put(key, read);
+            return read;
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns a copy of this document as JSON, which may be changed freely.
+     *
+     * @return the data of this document
+     */
+    public @NotNull JsonObject toJson() {
+        return toJson(null);
+    }
+
+    /**
+     * Returns a copy of the provided keys of this document as JSON, which may be changed freely.
+     *
+     * @param keys the copied keys, or null to copy every key
+     * @return the data of this document
+     */
+    public @NotNull JsonObject toJson(@Nullable Set<String> keys) {
+        JsonObject json = new JsonObject();
+        if (keys == null) entries.forEach((key, value) -> json.add(key, copy(value)));
+        else {
+            for (String key : keys) {
+                JsonElement value = entries.get(key);
+                if (value != null) json.add(key, copy(value));
+            }
+        }
+        return json;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other == this || (other instanceof UserDocument && entries.equals(((UserDocument) other).entries));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return entries.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String toString() {
+        return toJson().toString();
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Copies an element unless it is a primitive or null, which cannot be changed.
+     */
+    private static @NotNull JsonElement copy(@NotNull JsonElement value) {
+        return value.isJsonObject() || value.isJsonArray() ? value.deepCopy() : value;
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+}
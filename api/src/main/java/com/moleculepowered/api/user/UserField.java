@@ -0,0 +1,243 @@
+package com.moleculepowered.api.user;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * A typed key of a user's data. A field declares the key its value is stored under, the type of
+ * that value and the value returned while the key is not set, allowing values to be read and written
+ * without converting them from and to strings.
+ *
+ * <p>Numbers and booleans are stored as native JSON values. Unique IDs are stored as strings and instants
+ * as ISO-8601 strings. Fields are usually declared once as constants and shared by every user:</p>
+ *
+ * <pre>{@code
+ * public static final UserField<Long> KILLS = UserField.ofLong("kills", 0);
+ *
+ * long kills = user.get(KILLS);
+ * user.set(KILLS, kills + 1);
+ * }</pre>
+ *
+ * <p>Values that cannot be read as the type of the field, for example a string stored under a
+ * numeric field, are treated as missing and return the default value.</p>
+ *
+ * @param <T> the type of the value
+ * @author OMGitzFROST
+ * @see UserData#get(UserField)
+ * @see UserData#set(UserField, Object)
+ */
+public final class UserField<T>
+{
+    private final String key;
+    private final Class<T> type;
+    private final T def;
+    private final Function<JsonElement, T> reader;
+    private final Function<T, JsonElement> writer;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    private UserField(@NotNull String key, @NotNull Class<T> type, @Nullable T def,
+                      @NotNull Function<JsonElement, T> reader, @NotNull Function<T, JsonElement> writer) {
+        this.key = Objects.requireNonNull(key, "The key of a user field cannot be null");
+        this.type = type;
+        this.def = def;
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    /**
+     * Declares a field storing an integer.
+     *
+     * @param key the key of the field
+     * @param def the default value
+     * @return the declared field
+     */
+    public static @NotNull UserField<Integer> ofInt(@NotNull String key, int def) {
+        return new UserField<>(key, Integer.class, def, JsonElement::getAsInt, JsonPrimitive::new);
+    }
+
+    /**
+     * Declares a field storing a long.
+     *
+     * @param key the key of the field
+     * @param def the default value
+     * @return the declared field
+     */
+    public static @NotNull UserField<Long> ofLong(@NotNull String key, long def) {
+        return new UserField<>(key, Long.class, def, JsonElement::getAsLong, JsonPrimitive::new);
+    }
+
+    /**
+     * Declares a field storing a double.
+     *
+     * @param key the key of the field
+     * @param def the default value
+     * @return the declared field
+     */
+    public static @NotNull UserField<Double> ofDouble(@NotNull String key, double def) {
+        return new UserField<>(key, Double.class, def, JsonElement::getAsDouble, JsonPrimitive::new);
+    }
+
+    /**
+     * Declares a field storing a boolean. Booleans previously stored as strings are read as well.
+     *
+     * @param key the key of the field
+     * @param def the default value
+     * @return the declared field
+     */
+    public static @NotNull UserField<Boolean> ofBoolean(@NotNull String key, boolean def) {
+        return new UserField<>(key, Boolean.class, def, UserField::readBoolean, JsonPrimitive::new);
+    }
+
+    /**
+     * Declares a field storing a string.
+     *
+     * @param key the key of the field
+     * @param def the default value
+     * @return the declared field
+     */
+    public static @NotNull UserField<String> ofString(@NotNull String key, @Nullable String def) {
+        return new UserField<>(key, String.class, def, JsonElement::getAsString, JsonPrimitive::new);
+    }
+
+    /**
+     * Declares a field storing a unique ID.
+     *
+     * @param key the key of the field
+     * @param def the default value
+     * @return the declared field
+     */
+    public static @NotNull UserField<UUID> ofUUID(@NotNull String key, @Nullable UUID def) {
+        return new UserField<>(key, UUID.class, def, element -> UUID.fromString(element.getAsString()),
+                uuid -> new JsonPrimitive(uuid.toString()));
+    }
+
+    /**
+     * Declares a field storing an instant. Instants stored as epoch milliseconds are read as well.
+     *
+     * @param key the key of the field
+     * @param def the default value
+     * @return the declared field
+     */
+    public static @NotNull UserField<Instant> ofInstant(@NotNull String key, @Nullable Instant def) {
+        return new UserField<>(key, Instant.class, def, UserField::readInstant,
+                instant -> new JsonPrimitive(instant.toString()));
+    }
+
+    /*
+    CONVERSION METHODS
+     */
+
+    /**
+     * Reads the value of this field from the provided element, returning the default value if the
+     * element is missing or cannot be read as the type of this field.
+     *
+     * @param element the stored element
+     * @return the value of this field
+     */
+    public T read(@Nullable JsonElement element) {
+        T value = parse(element);
+        return value != null ? value : def;
+    }
+
+    /**
+     * Reads the value of this field from the provided element, returning null if the element is
+     * missing or cannot be read as the type of this field.
+     *
+     * @param element the stored element
+     * @return the value of this field, or null if not set
+     */
+    public @Nullable T parse(@Nullable JsonElement element) {
+        if (element == null || !element.isJsonPrimitive()) return null;
+        try {
+            return reader.apply(element);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts the provided value into the element it is stored as.
+     *
+     * @param value the value of this field, or null to clear it
+     * @return the stored element
+     */
+    public @NotNull JsonElement write(@Nullable T value) {
+        return value != null ? writer.apply(value) : JsonNull.INSTANCE;
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the key this field is stored under.
+     *
+     * @return the key of this field
+     */
+    public @NotNull String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the type of the value of this field.
+     *
+     * @return the value type
+     */
+    public @NotNull Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the value of this field while it is not set.
+     *
+     * @return the default value
+     */
+    public @Nullable T getDefault() {
+        return def;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String toString() {
+        return "UserField{" + key + ": " + type.getSimpleName() + "}";
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    private static boolean readBoolean(@NotNull JsonElement element) {
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) return primitive.getAsBoolean();
+
+        String value = primitive.getAsString();
+        if (value.equalsIgnoreCase("true")) return true;
+        if (value.equalsIgnoreCase("false")) return false;
+        throw new IllegalArgumentException("Not a boolean: " + value);
+    }
+
+    private static @NotNull Instant readInstant(@NotNull JsonElement element) {
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isNumber()) return Instant.ofEpochMilli(primitive.getAsLong());
+
+        try {
+            return Instant.parse(primitive.getAsString());
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+}
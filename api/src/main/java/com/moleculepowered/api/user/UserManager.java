@@ -1,23 +1,96 @@
 package com.moleculepowered.api.user;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.moleculepowered.api.concurrent.IOExecutor;
+import com.moleculepowered.api.concurrent.WriteBehind;
+import com.moleculepowered.api.exception.user.UserStorageException;
 import com.moleculepowered.api.model.Manager;
+import com.moleculepowered.api.user.cache.UserCache;
+import com.moleculepowered.api.user.feed.ChangeFeed;
+import com.moleculepowered.api.user.index.BloomFilter;
+import com.moleculepowered.api.user.index.KeyIndex;
+import com.moleculepowered.api.user.index.NameIndex;
+import com.moleculepowered.api.user.index.RankIndex;
+import com.moleculepowered.api.user.storage.UserStorage;
+import com.moleculepowered.api.user.sync.SyncTransport;
+import com.moleculepowered.api.user.sync.UserSync;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A service manager designed to handle all tasks related to user management, allowing developers
  * to retrieve, add, and remove users from the user collection.
  *
+ * <p>Users are indexed by their UUID and by their case-folded name when they are added, so looking
+ * a user up by either of them does not scan the user collection. Subclasses must therefore add and
+ * remove users using {@link #addUser(User)} and {@link #removeUser(User)}.</p>
+ *
+ * <p>Managers may load users on demand by overriding {@link #loadUser(UUID)} and {@link #resolveName(String)},
+ * and bound the number of loaded users using a {@link UserCache}. Evicted users are saved in the
+ * background and removed once their changes were written, and are loaded again the next time they are
+ * requested. Users that are {@link #isPinned(UUID) pinned}, such as users with pending writes, are never evicted.</p>
+ *
+ * <p>Numeric keys of every user can be ranked using {@link #declareIndex(String)}. Ranked indexes are
+ * kept up to date as users change, including users that are not loaded. Any key can additionally be
+ * indexed by value using {@link #declareKeyIndex(String, KeyIndex.Type)} and queried using
+ * {@link #query(String, Object)}.</p>
+ *
+ * <p>Users that are not loaded can be found by name using a persistent name index, declared using
+ * {@link #declareNameIndex()}, and lookups of users that do not exist are rejected in constant time
+ * once a filter over every known user is declared using {@link #declareFilter()}.</p>
+ *
+ * <p>Every change made to a loaded user is recorded into the {@link #getChangeFeed() change feed} of the
+ * manager, which other systems can subscribe to or replay instead of polling users.</p>
+ *
+ * <p>Managers of several servers sharing the same storage can keep their loaded users consistent with
+ * each other using {@link #enableSync(SyncTransport, String)}.</p>
+ *
  * @author OMGitzFROST
  */
 public abstract class UserManager implements Manager
 {
-    protected final Set<User> users = new HashSet<>();
+    protected final Set<User> users = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, User> byId = new ConcurrentHashMap<>();
+    private final Map<String, User> byName = new ConcurrentHashMap<>();
+    private final Map<String, RankIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, KeyIndex> keyIndexes = new ConcurrentHashMap<>();
+    private final ChangeFeed feed = new ChangeFeed(ChangeFeed.DEFAULT_CAPACITY);
+    private final WriteBehind writeBehind = new WriteBehind();
+    private final Map<UUID, CompletableFuture<User>> loading = new ConcurrentHashMap<>();
+    private final ReadWriteLock storageLock = new ReentrantReadWriteLock();
+    private volatile UserCache cache;
+    private volatile UserStorage storage;
+    private volatile NameIndex nameIndex;
+    private NameIndex declaredNameIndex;
+    private volatile UserSync sync;
+    private volatile BloomFilter filter, pendingFilter;
+    private final AtomicBoolean rebuildingFilter = new AtomicBoolean();
+    private volatile CompletableFuture<Void> indexBuilds = CompletableFuture.completedFuture(null);
 
     /**
      * Adds a new user to the user collection. This method returns true if the user was added
@@ -27,7 +100,23 @@ public abstract class UserManager implements Manager
      * @return true if the user was added without fail
      */
     public boolean addUser(@NotNull User user) {
-        return users.add(user);
+        if (!users.add(user)) return false;
+
+        String name = nameOf(user);
+        byId.put(user.getUniqueId(), user);
+        if (name != null) byName.put(foldName(name), user);
+        user.setDataListener(new ChangeListener(user.getUniqueId()));
+        indexes.forEach((key, index) -> index.update(user.getUniqueId(), user.getDocument().get(key)));
+        keyIndexes.forEach((key, index) -> index.update(user.getUniqueId(), user.getDocument().get(key)));
+
+        NameIndex nameIndex = this.nameIndex;
+        if (nameIndex != null && name != null) nameIndex.put(user.getUniqueId(), name);
+        remember(user.getUniqueId(), name);
+        touch(user.getUniqueId());
+
+        UserSync sync = this.sync;
+        if (sync != null) sync.onLoad(user);
+        return true;
     }
 
     /**
@@ -38,53 +127,670 @@ public abstract class UserManager implements Manager
      * @return true if the user was removed without fail
      */
     public boolean removeUser(@NotNull User user) {
-        return users.remove(user);
+        if (!users.remove(user)) return false;
+
+        byId.remove(user.getUniqueId(), user);
+        if (!byName.remove(foldName(user.getName()), user)) byName.values().remove(user);
+
+        UserCache cache = this.cache;
+        if (cache != null) cache.remove(user.getUniqueId());
+
+        UserSync sync = this.sync;
+        if (sync != null) sync.onUnload(user.getUniqueId());
+        return true;
+    }
+
+    /**
+     * Sets the cache policy bounding the users kept loaded by this manager. Passing a null value
+     * removes the bound, keeping every loaded user until it is removed. Users already loaded are
+     * tracked by the new cache from their next access.
+     *
+     * @param cache the cache policy, or null
+     */
+    public void setCache(@Nullable UserCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cache policy bounding the users kept loaded by this manager, or null if unbounded.
+     *
+     * @return the cache policy, or null
+     */
+    public @Nullable UserCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets the storage backend users of this manager are read from and written to. This method should be
+     * called before any user is loaded; to switch the storage of a running manager, use
+     * {@link #migrateStorage(UserStorage)} instead.
+     *
+     * @param storage the storage backend
+     */
+    public void setStorage(@NotNull UserStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Returns the storage backend users of this manager are read from and written to, or null if this
+     * manager does not use one.
+     *
+     * @return the storage backend, or null
+     */
+    public @Nullable UserStorage getStorage() {
+        return storage;
     }
 
     /**
-     * Returns a collection of users handled by this manager. Note that users are NOT
-     * loaded into this collection by default but should typically be loaded using the
-     * {@link #onEnable()} method.
+     * Copies every user from the current storage into the provided storage and switches this manager
+     * over to it. Pending changes are flushed before copying, and loaded users are unloaded so they are
+     * loaded again from the new storage. The previous storage is closed but its data is kept.
      *
-     * @return a collection of users
+     * @param target the new storage backend
+     * @return the number of users copied
+     * @throws IllegalStateException when this manager does not use a storage
+     */
+    public int migrateStorage(@NotNull UserStorage target) {
+        UserStorage source = this.storage;
+        if (source == null) throw new IllegalStateException("This manager does not use a storage backend");
+
+        // LOADS HOLD THE READ LOCK, SO NO USER IS LOADED FROM THE SOURCE WHILE IT IS MIGRATED
+        storageLock.writeLock().lock();
+        try {
+            flushAll();
+            int copied = UserStorage.migrate(source, target);
+            users.forEach(this::removeUser);
+            this.storage = target;
+            source.close();
+            return copied;
+        } finally {
+            storageLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a collection of the users currently loaded by this manager. Note that users are NOT
+     * loaded into this collection by default; they are either loaded using the {@link #onEnable()}
+     * method or, for managers that load users on demand, the first time they are requested.
+     *
+     * @return a collection of loaded users
+     * @see #getUniqueIds()
      */
     public @NotNull Collection<User> getUsers() {
         return users;
     }
 
+    /**
+     * Returns the unique IDs of every user known to this manager, whether loaded or not. By default,
+     * this method returns the unique IDs of the loaded users.
+     *
+     * @return the unique IDs of every known user
+     */
+    public @NotNull Collection<UUID> getUniqueIds() {
+        return byId.keySet();
+    }
+
+    /**
+     * Returns the feed every change made to the users loaded by this manager is recorded into, including
+     * the deletion of users. Changes made to users that are not loaded, for example directly in the
+     * storage, are not recorded.
+     *
+     * @return the change feed of this manager
+     * @see ChangeFeed
+     */
+    public @NotNull ChangeFeed getChangeFeed() {
+        return feed;
+    }
+
+    /**
+     * Returns the write-behind deferring the writes of the users loaded by this manager. Its flush window
+     * and bound only apply to this manager. Writes are not deferred until a flush window is set, and a
+     * manager that sets one must {@link #flushAll() flush} its users before it is disabled.
+     *
+     * @return the write-behind of this manager
+     * @see WriteBehind
+     */
+    public @NotNull WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Starts synchronizing the users of this manager with the managers of other servers connected to
+     * the provided transport, returning the existing synchronization if one was already enabled. Every
+     * server must use the same storage and a unique identifier.
+     *
+     * @param transport the transport connecting the servers
+     * @param server    an identifier of this server, unique within the network
+     * @return the synchronization of this manager
+     * @see UserSync
+     */
+    public synchronized @NotNull UserSync enableSync(@NotNull SyncTransport transport, @NotNull String server) {
+        UserSync sync = this.sync;
+        if (sync != null) return sync;
+
+        this.sync = sync = new UserSync(this, transport, server);
+        return sync;
+    }
+
+    /**
+     * Returns the synchronization of this manager with other servers, if enabled.
+     *
+     * @return the synchronization, or null if not enabled
+     */
+    public @Nullable UserSync getSync() {
+        return sync;
+    }
+
+    /*
+    INDEX METHODS
+     */
+
+    /**
+     * Declares a ranked index over the provided numeric key, returning the existing index if one was
+     * already declared. A new index is populated with the loaded users and every stored user, scanning
+     * only the ranked key of the storage; afterwards, it is updated whenever a loaded user changes.
+     *
+     * <p>The index is populated on the shared {@link IOExecutor}, so declaring it never waits for the
+     * storage. Until {@link #awaitIndexes()} completes, the index may miss users that are not loaded.</p>
+     *
+     * @param key the ranked key
+     * @return the index of the key, which may not be populated yet
+     * @see RankIndex
+     */
+    public @NotNull RankIndex declareIndex(@NotNull String key) {
+        RankIndex index = indexes.get(key);
+        if (index != null) return index;
+
+        // REGISTER BEFORE POPULATING SO CHANGES MADE MEANWHILE ARE NOT MISSED
+        RankIndex created = new RankIndex(key);
+        index = indexes.putIfAbsent(key, created);
+        if (index != null) return index;
+
+        build(() -> populate(key, created::update));
+        return created;
+    }
+
+    /**
+     * Declares a ranked index over the provided numeric field.
+     *
+     * @param field the ranked field
+     * @return the index of the field
+     * @see #declareIndex(String)
+     */
+    public @NotNull RankIndex declareIndex(@NotNull UserField<? extends Number> field) {
+        return declareIndex(field.getKey());
+    }
+
+    /**
+     * Returns the ranked index declared over the provided key.
+     *
+     * @param key the ranked key
+     * @return the index of the key, or null if none was declared
+     */
+    public @Nullable RankIndex getIndex(@NotNull String key) {
+        return indexes.get(key);
+    }
+
+    /**
+     * Removes the ranked index declared over the provided key, which is no longer updated afterwards.
+     *
+     * @param key the ranked key
+     * @return true if an index was declared
+     */
+    public boolean dropIndex(@NotNull String key) {
+        return indexes.remove(key) != null;
+    }
+
+    /**
+     * Declares a secondary index over the provided key, returning the existing index if one was already
+     * declared. If the index was saved by {@link #saveIndexes()} when this manager was last disabled, it
+     * is read from the {@link #getIndexFolder() index folder} instead of being rebuilt; otherwise it is
+     * populated with the loaded users and every stored user, scanning only the indexed key of the storage.
+     *
+     * <p>The index is read or populated on the shared {@link IOExecutor}, so declaring it never waits for
+     * the storage. Until {@link #awaitIndexes()} completes, queries may miss users that are not loaded.</p>
+     *
+     * @param key  the indexed key
+     * @param type the type of lookups the index supports
+     * @return the index of the key, which may not be populated yet
+     * @see KeyIndex
+     */
+    public @NotNull KeyIndex declareKeyIndex(@NotNull String key, @NotNull KeyIndex.Type type) {
+        KeyIndex index = keyIndexes.get(key);
+        if (index != null) return index;
+
+        // REGISTER BEFORE POPULATING SO CHANGES MADE MEANWHILE ARE NOT MISSED
+        KeyIndex created = new KeyIndex(key, type);
+        index = keyIndexes.putIfAbsent(key, created);
+        if (index != null) return index;
+
+        build(() -> {
+
+            // A SAVED INDEX IS CONSUMED, SO AN INDEX THAT WAS NOT SAVED AGAIN BEFORE A CRASH IS REBUILT
+            File file = getIndexFile(key);
+            try {
+                if (file != null && created.load(file)) {
+                    Files.deleteIfExists(file.toPath());
+                    users.forEach(user -> created.update(user.getUniqueId(), user.getDocument().get(key)));
+                    return;
+                }
+            } catch (IOException | UserStorageException ex) {
+                ex.printStackTrace();
+            }
+            populate(key, created::update);
+        });
+        return created;
+    }
+
+    /**
+     * Returns the secondary index declared over the provided key.
+     *
+     * @param key the indexed key
+     * @return the index of the key, or null if none was declared
+     */
+    public @Nullable KeyIndex getKeyIndex(@NotNull String key) {
+        return keyIndexes.get(key);
+    }
+
+    /**
+     * Removes the secondary index declared over the provided key, which is no longer updated or saved afterwards.
+     *
+     * @param key the indexed key
+     * @return true if an index was declared
+     */
+    public boolean dropKeyIndex(@NotNull String key) {
+        return keyIndexes.remove(key) != null;
+    }
+
+    /**
+     * Returns a future completed once every index declared so far was populated.
+     *
+     * @return a future completed once the declared indexes are populated
+     */
+    public @NotNull CompletableFuture<Void> awaitIndexes() {
+        return indexBuilds;
+    }
+
+    /**
+     * Declares the name index of this manager, returning the existing index if one was already declared.
+     * Once declared, {@link #getUser(String)} finds users that are not loaded with a single lookup, loading
+     * only the matching user.
+     *
+     * <p>If this manager has an {@link #getIndexFolder() index folder}, the index is persisted there and
+     * read back when declared again, so it is only built once; changes are journaled as they happen.
+     * Otherwise, or if no index was persisted yet, it is built by scanning the name of every stored user.</p>
+     *
+     * <p>The index is read or built on the shared {@link IOExecutor}, so declaring it never waits for the
+     * storage. Until it is ready, users are found by name using {@link #resolveName(String)} as if no
+     * index was declared, and {@link #getNameIndex()} returns null.</p>
+     *
+     * @return the name index, which may not be ready yet
+     * @see NameIndex
+     */
+    public @NotNull NameIndex declareNameIndex() {
+        NameIndex index;
+        synchronized (indexes) {
+            if (declaredNameIndex != null) return declaredNameIndex;
+
+            File folder = getIndexFolder();
+            index = new NameIndex(folder != null ? new File(folder, "names.idx") : null);
+            declaredNameIndex = index;
+        }
+
+        IOExecutor.execute(() -> {
+            try {
+                buildNameIndex(index);
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        });
+        return index;
+    }
+
+    /**
+     * Returns the name index of this manager.
+     *
+     * @return the name index, or null if none was declared or it is not ready yet
+     */
+    public @Nullable NameIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    /**
+     * Declares a filter over the unique IDs and names of every user known to this manager, returning the
+     * existing filter if one was already declared. Once declared, {@link #findUser(UUID)} and
+     * {@link #findUser(String)} reject users that definitely do not exist without loading anything, and
+     * the filter is rebuilt larger in the background as users are added beyond its capacity.
+     *
+     * <p>The filter is built from {@link #forEachKnown(BiConsumer)}. Managers loading users on demand must
+     * therefore report every user they learn about afterwards using {@link #remember(UUID, String)}, since
+     * a user missing from the filter can no longer be found.</p>
+     *
+     * @return the filter of known users
+     * @see BloomFilter
+     */
+    public @NotNull BloomFilter declareFilter() {
+        synchronized (indexes) {
+            BloomFilter filter = this.filter;
+            return filter != null ? filter : buildFilter();
+        }
+    }
+
+    /**
+     * Returns the filter of known users of this manager.
+     *
+     * @return the filter, or null if none was declared
+     */
+    public @Nullable BloomFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Saves every secondary index into the {@link #getIndexFolder() index folder}, so they are not rebuilt
+     * when declared again, and compacts the name index. This method should be called when the manager is
+     * disabled, after every user was flushed; if this manager has no index folder, it does nothing. Indexes
+     * still being populated are waited for, so an index is never saved partially.
+     */
+    public void saveIndexes() {
+        awaitIndexes().join();
+
+        NameIndex nameIndex = this.nameIndex;
+        try {
+            if (nameIndex != null) nameIndex.compact();
+        } catch (UserStorageException ex) {
+            ex.printStackTrace();
+        }
+
+        keyIndexes.forEach((key, index) -> {
+            File file = getIndexFile(key);
+            try {
+                if (file != null) index.save(file);
+            } catch (UserStorageException ex) {
+                ex.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Reports a user known to this manager to the {@link #declareFilter() filter of known users}, if
+     * declared. Users are reported automatically when they are added or change their name; managers
+     * loading users on demand must call this method for every user they learn about otherwise.
+     *
+     * @param uuid the unique ID of the user
+     * @param name the name of the user, if known
+     */
+    protected void remember(@NotNull UUID uuid, @Nullable String name) {
+        for (BloomFilter filter : new BloomFilter[]{this.filter, pendingFilter}) {
+            if (filter == null) continue;
+
+            filter.put(uuid);
+            if (name != null && !name.isEmpty()) filter.put(foldName(name));
+            if (filter == this.filter && filter.isSaturated() && rebuildingFilter.compareAndSet(false, true)) {
+                IOExecutor.execute(() -> {
+                    try {
+                        synchronized (indexes) {
+                            buildFilter();
+                        }
+                    } finally {
+                        rebuildingFilter.set(false);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Called by the {@link #getSync() synchronization} once another server claimed or changed the provided
+     * user, which may have joined that server first and therefore be unknown to this manager. By default,
+     * the user is reported to the {@link #declareFilter() filter of known users} and its name, if provided,
+     * to the name index, so the user can be found once it is stored.
+     *
+     * @param uuid the unique ID of the user
+     * @param name the name of the user, if known
+     */
+    public void onRemoteUser(@NotNull UUID uuid, @Nullable String name) {
+        NameIndex nameIndex = this.nameIndex;
+        if (nameIndex != null && name != null && !name.isEmpty()) nameIndex.put(uuid, name);
+        remember(uuid, name);
+    }
+
+    /**
+     * Passes the unique ID and, if known, the name of every user known to this manager to the provided
+     * action, used to build the {@link #declareFilter() filter of known users}. By default, this method
+     * reports the {@link #getUniqueIds() known unique IDs}, the loaded users and the users of the name
+     * index; managers knowing users by other means should report them as well.
+     *
+     * @param action receives the unique ID and name of every known user
+     */
+    protected void forEachKnown(@NotNull BiConsumer<UUID, String> action) {
+        for (UUID uuid : getUniqueIds()) action.accept(uuid, null);
+        for (User user : users) action.accept(user.getUniqueId(), nameOf(user));
+
+        NameIndex nameIndex = this.nameIndex;
+        if (nameIndex != null) nameIndex.forEach(action);
+    }
+
+    /**
+     * Returns the folder secondary indexes are saved in. By default, this method returns null, meaning
+     * indexes are rebuilt every time they are declared.
+     *
+     * @return the index folder, or null
+     */
+    protected @Nullable File getIndexFolder() {
+        return null;
+    }
+
+    /*
+    QUERY METHODS
+     */
+
+    /**
+     * Lazily streams every user holding the provided value for the provided key, using the key's
+     * secondary index. Users that are not loaded are loaded as the stream reaches them.
+     *
+     * @param key   the indexed key
+     * @param value the target value
+     * @return the matching users
+     * @throws IllegalStateException when no index was declared over the key
+     */
+    public @NotNull Stream<User> query(@NotNull String key, @Nullable Object value) {
+        return resolve(requireKeyIndex(key).lookup(value).stream());
+    }
+
+    /**
+     * Lazily streams every user holding a value within the provided range for the provided key, ordered
+     * by value. A null bound leaves that side of the range open.
+     *
+     * @param key  the indexed key
+     * @param from the lower bound, inclusive, or null
+     * @param to   the upper bound, exclusive, or null
+     * @return the matching users
+     * @throws IllegalStateException when no range index was declared over the key
+     */
+    public @NotNull Stream<User> queryRange(@NotNull String key, @Nullable Object from, @Nullable Object to) {
+        return resolve(requireKeyIndex(key).range(from, to));
+    }
+
+    /**
+     * Lazily streams every user holding any value for the provided key.
+     *
+     * @param key the indexed key
+     * @return the users holding a value
+     * @throws IllegalStateException when no index was declared over the key
+     */
+    public @NotNull Stream<User> queryPresent(@NotNull String key) {
+        return resolve(requireKeyIndex(key).present());
+    }
+
+    /**
+     * Lazily streams a read-only view of every stored user, without loading any user into this manager.
+     * Users are read from the storage in parallel, and only the provided keys are read; passing no key
+     * reads every key. Loaded users are viewed from memory instead, so their unflushed changes are included.
+     *
+     * <p>The returned stream is parallel and must be closed once consumed, for example using a
+     * try-with-resources statement.</p>
+     *
+     * <pre>{@code
+     * try (Stream<UserView> views = manager.scan("locale", "kills")) {
+     *     long german = views.filter(view -> "de_de".equals(view.getString("locale", null))).count();
+     * }
+     * }</pre>
+     *
+     * @param keys the keys to read
+     * @return a parallel stream of user views
+     * @throws IllegalStateException when this manager does not use a storage
+     */
+    public @NotNull Stream<UserView> scan(@NotNull String... keys) {
+        UserStorage storage = this.storage;
+        if (storage == null) throw new IllegalStateException("This manager does not use a storage backend");
+
+        Set<String> projection = keys.length > 0 ? new HashSet<>(Arrays.asList(keys)) : null;
+        return storage.scan(projection).map(view -> {
+            User user = byId.get(view.getUniqueId());
+            return user != null ? UserView.wrap(view.getUniqueId(), user.getDocument().toJson(projection)) : view;
+        });
+    }
+
     /*
     DEFAULT METHODS
      */
 
     /**
-     * Returns a user based on the name provided, using a filter system. This method attempts to locate a
-     * user with the matching name. If a user is not found, it throws an exception.
+     * Returns a user based on the name provided. This method attempts to locate a user with the
+     * matching name using the name index. If a user is not found, it throws an exception.
      * <p>
-     * This method is case-insensitive, so any input could return a user.
+     * This method is case-insensitive, so any input could return a user. Users that are not loaded
+     * are found using the {@link #declareNameIndex() name index} if declared, then using
+     * {@link #resolveName(String)}. If a user changed their name since they were indexed, the user
+     * collection is scanned once and the index is corrected.
      *
      * @param name the target name
      * @return a user based on the name provided
-     * @throws NullPointerException when a user cannot be found with the provided filter.
+     * @throws NullPointerException when a user cannot be found with the provided name.
      */
     public @NotNull User getUser(String name) {
-        return getUser(user -> user.getName().equalsIgnoreCase(name));
+        if (name == null) throw new NullPointerException();
+        return findUser(name).orElseThrow(NullPointerException::new);
     }
 
     /**
-     * Returns a user based on the UUID provided, using a filter system. This method attempts to locate a
-     * user with the matching UUID. If a user is not found, it throws an exception.
+     * Returns the user with the provided name, like {@link #getUser(String)}, without using an exception
+     * when no user is found. If a {@link #declareFilter() filter of known users} is declared, names no user
+     * ever had are rejected before any index is consulted or any user is loaded.
+     *
+     * @param name the target name
+     * @return the user with the provided name, or an empty optional if none was found
+     */
+    public @NotNull Optional<User> findUser(@NotNull String name) {
+        String key = foldName(name);
+        User user = byName.get(key);
+        if (user != null && user.getName().equalsIgnoreCase(name)) {
+            touch(user.getUniqueId());
+            return Optional.of(user);
+        }
+
+        // DEFINITE MISSES NEVER REACH THE INDEXES, THE DISK OR THE SCAN BELOW
+        BloomFilter filter = this.filter;
+        if (user == null && filter != null && !filter.mightContain(key)) return Optional.empty();
+
+        // THE INDEX IS MISSING OR STALE, RESOLVE AN UNLOADED USER BEFORE SCANNING
+        if (user != null) byName.remove(key, user);
+        UUID uuid = lookupName(name);
+        Optional<User> found = uuid != null ? findUser(uuid)
+                : users.stream().filter(u -> u.hasName() && u.getName().equalsIgnoreCase(name)).findFirst();
+        found.filter(u -> u.hasName() && u.getName().equalsIgnoreCase(name)).ifPresent(u -> byName.put(key, u));
+        return found;
+    }
+
+    /**
+     * Returns a user based on the UUID provided. This method attempts to locate a user with the
+     * matching UUID using the UUID index, loading it if it is known but not loaded. If a user is
+     * not found, it throws an exception.
      *
      * @param uuid the target UUID
      * @return a user based on the UUID provided
-     * @throws NullPointerException when a user cannot be found with the provided filter.
+     * @throws NullPointerException when a user cannot be found with the provided UUID.
      */
     public @NotNull User getUser(UUID uuid) {
-        return getUser(user -> user.getUniqueId().equals(uuid));
+        if (uuid == null) throw new NullPointerException();
+        return findUser(uuid).orElseThrow(NullPointerException::new);
+    }
+
+    /**
+     * Returns the user with the provided UUID, like {@link #getUser(UUID)}, without using an exception
+     * when no user is found. If a {@link #declareFilter() filter of known users} is declared, unique IDs
+     * no user ever had are rejected without attempting to load them.
+     *
+     * @param uuid the target UUID
+     * @return the user with the provided UUID, or an empty optional if none was found
+     */
+    public @NotNull Optional<User> findUser(@NotNull UUID uuid) {
+        User user = byId.get(uuid);
+        if (user != null) {
+            touch(uuid);
+            return Optional.of(user);
+        }
+
+        BloomFilter filter = this.filter;
+        if (filter != null && !filter.mightContain(uuid)) return Optional.empty();
+
+        return Optional.ofNullable(load(uuid));
+    }
+
+    /**
+     * Returns the user with the provided UUID if it is currently loaded, without loading it and
+     * without counting as an access.
+     *
+     * @param uuid the target UUID
+     * @return the loaded user, or null if the user is not loaded
+     */
+    public @Nullable User getLoadedUser(@NotNull UUID uuid) {
+        return byId.get(uuid);
+    }
+
+    /**
+     * Asynchronously returns a user based on the UUID provided. If the user is already loaded, the
+     * returned future is already complete; otherwise the user is loaded on the shared {@link IOExecutor},
+     * so the calling thread never touches the disk. The future completes exceptionally with a
+     * {@link NullPointerException} if the user cannot be found.
+     *
+     * @param uuid the target UUID
+     * @return a future completed with the user
+     * @see #getUser(UUID)
+     */
+    public @NotNull CompletableFuture<User> getUserAsync(@NotNull UUID uuid) {
+        User user = byId.get(uuid);
+        if (user != null) {
+            touch(uuid);
+            return CompletableFuture.completedFuture(user);
+        }
+        return IOExecutor.supply(() -> getUser(uuid));
+    }
+
+    /**
+     * Asynchronously returns a user based on the name provided, loading it on the shared
+     * {@link IOExecutor} if necessary. The future completes exceptionally with a
+     * {@link NullPointerException} if the user cannot be found.
+     *
+     * @param name the target name
+     * @return a future completed with the user
+     * @see #getUser(String)
+     */
+    public @NotNull CompletableFuture<User> getUserAsync(@NotNull String name) {
+        User user = byName.get(foldName(name));
+        if (user != null && user.getName().equalsIgnoreCase(name)) {
+            touch(user.getUniqueId());
+            return CompletableFuture.completedFuture(user);
+        }
+        return IOExecutor.supply(() -> getUser(name));
     }
 
     /**
      * Returns a user based on a specific filter. If a user cannot be found using the provided filter,
      * this method throws an exception.
+     * <p>
+     * Please note that this method scans every user handled by this manager, prefer
+     * {@link #getUser(UUID)} or {@link #getUser(String)} whenever possible.
      *
      * @param filter the user filter
      * @return a user based on the provided filter
@@ -93,4 +799,384 @@ public abstract class UserManager implements Manager
     public @NotNull User getUser(Predicate<User> filter) {
         return getUsers().stream().filter(filter).findFirst().orElseThrow(NullPointerException::new);
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes every pending change of the provided user to its data file, blocking until the
+     * changes are written.
+     *
+     * @param user the target user
+     */
+    public void flush(@NotNull User user) {
+        user.save();
+    }
+
+    /**
+     * Writes every pending change of every loaded user, blocking until all changes are written. Writes
+     * of all users are started before waiting for any of them, so they are applied concurrently. This
+     * method should be called when the manager is disabled, and can be called periodically as a checkpoint.
+     */
+    public void flushAll() {
+        users.forEach(User::flush);
+        users.forEach(User::save);
+    }
+
+    /*
+    LOADING METHODS
+     */
+
+    /**
+     * Loads the user with the provided UUID when it is requested but not loaded. By default, this method
+     * returns null, meaning every user must be added using {@link #addUser(User)}.
+     *
+     * @param uuid the target UUID
+     * @return the loaded user, or null if no user exists with the provided UUID
+     */
+    protected @Nullable User loadUser(@NotNull UUID uuid) {
+        return null;
+    }
+
+    /**
+     * Resolves the UUID of an unloaded user from its name. By default, this method returns null,
+     * meaning only loaded users can be found by name.
+     *
+     * @param name the target name
+     * @return the UUID of the user, or null if unknown
+     */
+    protected @Nullable UUID resolveName(@NotNull String name) {
+        return null;
+    }
+
+    /**
+     * Saves and removes every loaded user that exceeded the idle timeout of the cache, if any.
+     * Eviction also happens whenever users are accessed, so calling this method is only necessary
+     * to release idle users when the manager is not being used.
+     */
+    public void evictIdle() {
+        UserCache cache = this.cache;
+        if (cache != null) evict(cache.expire(this::isPinned));
+    }
+
+    /**
+     * Returns true if the provided user must stay loaded regardless of the cache, because removing it
+     * could lose changes or create a second instance of it. By default, users with unsaved changes and
+     * users whose {@link UserSync ownership lease} this server holds are pinned; platforms typically also
+     * pin the users of online players.
+     *
+     * @param uuid the target user
+     * @return true if the user must not be evicted
+     */
+    protected boolean isPinned(@NotNull UUID uuid) {
+        User user = byId.get(uuid);
+        if (user == null) return false;
+
+        UserSync sync = this.sync;
+        return user.isDirty() || (sync != null && sync.isOwner(uuid));
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Loads the user with the provided UUID. A user is only loaded by one thread at a time: concurrent
+     * requests for the same user wait for the load in progress, while different users load in parallel.
+     *
+     * @param uuid the target UUID
+     * @return the loaded user, or null if no user exists with the provided UUID
+     */
+    private @Nullable User load(@NotNull UUID uuid) {
+        CompletableFuture<User> load = new CompletableFuture<>();
+        CompletableFuture<User> pending = loading.putIfAbsent(uuid, load);
+        if (pending != null) {
+            try {
+                return pending.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException ? (RuntimeException) ex.getCause() : ex;
+            }
+        }
+
+        storageLock.readLock().lock();
+        try {
+            User user = byId.get(uuid);
+            if (user == null && (user = loadUser(uuid)) != null) addUser(user);
+            load.complete(user);
+            return user;
+        } catch (RuntimeException | Error ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            storageLock.readLock().unlock();
+            loading.remove(uuid, load);
+        }
+    }
+
+    /**
+     * Records an access to the provided user and evicts the users the cache no longer keeps.
+     *
+     * @param uuid the accessed user
+     */
+    private void touch(@NotNull UUID uuid) {
+        UserCache cache = this.cache;
+        if (cache != null) evict(cache.access(uuid, this::isPinned));
+    }
+
+    /**
+     * Saves the provided users on the shared {@link IOExecutor} and removes them from this manager once
+     * their changes were written. Users stay loaded while they are saved, so a request made meanwhile
+     * returns the same instance instead of reading an outdated file.
+     *
+     * @param evicted the unique IDs of the evicted users
+     */
+    private void evict(@NotNull List<UUID> evicted) {
+        for (UUID uuid : evicted) {
+            User user = byId.get(uuid);
+            if (user != null) user.saveAsync().whenComplete((ignored, ex) -> unload(user));
+        }
+    }
+
+    /**
+     * Removes an evicted user once it was saved, unless it was accessed or pinned again meanwhile. A user
+     * that must stay loaded is tracked by the cache again, so it can be evicted later.
+     *
+     * @param user the evicted user
+     */
+    private void unload(@NotNull User user) {
+        UUID uuid = user.getUniqueId();
+        UserCache cache = this.cache;
+        if (byId.get(uuid) != user || (cache != null && cache.contains(uuid))) return;
+
+        if (isPinned(uuid)) {
+            if (cache != null) cache.restore(uuid);
+            return;
+        }
+        removeUser(user);
+    }
+
+    /**
+     * Runs the provided index build on the shared {@link IOExecutor}, tracking it until it completed.
+     *
+     * @param build the index build
+     */
+    private void build(@NotNull Runnable build) {
+        CompletableFuture<Void> built = CompletableFuture.runAsync(() -> {
+            try {
+                build.run();
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }, IOExecutor.get());
+
+        synchronized (indexes) {
+            indexBuilds = CompletableFuture.allOf(indexBuilds, built);
+        }
+    }
+
+    /**
+     * Passes the current value of the provided key of every stored and every loaded user to the provided
+     * consumer, which must be thread-safe. Only the provided key of the storage is scanned, in parallel,
+     * and users that are not stored are only passed if they are loaded.
+     *
+     * @param key  the target key
+     * @param sink receives the unique ID and value of every user
+     */
+    private void populate(@NotNull String key, @NotNull BiConsumer<UUID, JsonElement> sink) {
+        UserStorage storage = this.storage;
+        if (storage != null) {
+            try (Stream<UserView> views = storage.scan(Collections.singleton(key))) {
+                views.forEach(view -> {
+                    if (!byId.containsKey(view.getUniqueId())) sink.accept(view.getUniqueId(), view.toJson().get(key));
+                });
+            } catch (UserStorageException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        // LOADED USERS MAY HAVE CHANGED SINCE THEY WERE LAST STORED, INCLUDING WHILE SCANNING
+        for (User user : users) sink.accept(user.getUniqueId(), user.getDocument().get(key));
+    }
+
+    /**
+     * Resolves the UUID of a user from its name using the name index, then {@link #resolveName(String)}.
+     * An indexed user whose stored name no longer matches is corrected in the index and skipped.
+     *
+     * @param name the target name
+     * @return the UUID of the user, or null if unknown
+     */
+    private @Nullable UUID lookupName(@NotNull String name) {
+        NameIndex index = this.nameIndex;
+        UUID uuid = index != null ? index.lookup(name) : null;
+        if (uuid != null) {
+            User user = findUser(uuid).orElse(null);
+            if (user == null) index.remove(uuid);
+            else if (user.getName().equalsIgnoreCase(name)) return uuid;
+            else index.put(uuid, nameOf(user));
+        }
+        return resolveName(name);
+    }
+
+    /**
+     * Builds a new filter of known users and publishes it. Users reported while the filter is being built
+     * are added to it as well, so none is missed. Must be called while holding the index lock.
+     *
+     * @return the new filter
+     */
+    private @NotNull BloomFilter buildFilter() {
+        BloomFilter current = filter;
+        int known = Math.max(getUniqueIds().size(), current != null ? current.count() : 0);
+        BloomFilter built = new BloomFilter(Math.max(1024, known * 4), 0.01);
+
+        pendingFilter = built;
+        forEachKnown((uuid, name) -> {
+            built.put(uuid);
+            if (name != null && !name.isEmpty()) built.put(foldName(name));
+        });
+
+        // THE PREVIOUS FILTER MAY HOLD USERS THE NEW ONE NEVER HEARD OF, KEEP BOTH UNTIL SWAPPED
+        filter = built;
+        pendingFilter = null;
+        return built;
+    }
+
+    /**
+     * Reads the provided name index from its file, or builds it by scanning the name of every stored
+     * user, then publishes it. Runs on the shared {@link IOExecutor} without holding the index lock.
+     *
+     * @param index the declared name index
+     */
+    private void buildNameIndex(@NotNull NameIndex index) {
+        boolean opened = false;
+        try {
+            opened = index.open();
+        } catch (UserStorageException ex) {
+            ex.printStackTrace();
+        }
+
+        if (!opened) {
+            Map<UUID, String> names = new ConcurrentHashMap<>();
+            UserStorage storage = this.storage;
+            if (storage != null) {
+                try (Stream<UserView> views = storage.scan(Collections.singleton("name"))) {
+                    views.forEach(view -> {
+                        String name = view.getString("name", null);
+                        if (name != null) names.put(view.getUniqueId(), name);
+                    });
+                } catch (UserStorageException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            index.rebuild(names);
+        }
+
+        // LOADED USERS MAY HAVE CHANGED THEIR NAME SINCE THEY WERE LAST STORED, INCLUDING WHILE BUILDING
+        for (User user : users) {
+            if (user.hasName()) index.put(user.getUniqueId(), user.getName());
+        }
+        nameIndex = index;
+        for (User user : users) {
+            if (user.hasName()) index.put(user.getUniqueId(), user.getName());
+        }
+
+        // USERS ONLY KNOWN TO THE STORAGE MAY NOT HAVE BEEN KNOWN BY NAME BEFORE
+        index.forEach(this::remember);
+    }
+
+    private @NotNull KeyIndex requireKeyIndex(@NotNull String key) {
+        KeyIndex index = keyIndexes.get(key);
+        if (index == null) throw new IllegalStateException("No index was declared over " + key);
+        return index;
+    }
+
+    private @Nullable File getIndexFile(@NotNull String key) {
+        File folder = getIndexFolder();
+        return folder != null ? new File(folder, key.replaceAll("[^A-Za-z0-9._-]", "_") + ".idx") : null;
+    }
+
+    /**
+     * Maps a stream of unique IDs to their users, loading them when reached and skipping unknown users.
+     *
+     * @param uuids the unique IDs
+     * @return the users
+     */
+    private @NotNull Stream<User> resolve(@NotNull Stream<UUID> uuids) {
+        return uuids.map(this::findUser).filter(Optional::isPresent).map(Optional::get);
+    }
+
+    /**
+     * Returns the name the provided user is indexed by.
+     *
+     * @param user the target user
+     * @return the name of the user, or null if its name is not known
+     */
+    private static @Nullable String nameOf(@NotNull User user) {
+        return user.hasName() ? user.getName() : null;
+    }
+
+    /**
+     * Folds the provided name into the form used as its index key.
+     *
+     * @param name the target name
+     * @return the folded name
+     */
+    private static @NotNull String foldName(@NotNull String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * Updates the declared indexes and records into the change feed whenever the data of a user changes.
+     */
+    private final class ChangeListener implements UserDataListener
+    {
+        private final UUID uuid;
+
+        private ChangeListener(@NotNull UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        @Override
+        public void onChange(@NotNull String key, @Nullable JsonElement value) {
+            onChange(key, null, value, 0);
+        }
+
+        @Override
+        public void onChange(@NotNull String key, @Nullable JsonElement previous, @Nullable JsonElement value, long version) {
+            RankIndex index = indexes.get(key);
+            if (index != null) index.update(uuid, value);
+
+            KeyIndex keyIndex = keyIndexes.get(key);
+            if (keyIndex != null) keyIndex.update(uuid, value);
+
+            if (key.equals("name")) {
+                String name = value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+                NameIndex nameIndex = UserManager.this.nameIndex;
+                if (nameIndex != null) nameIndex.put(uuid, name);
+                remember(uuid, name);
+            }
+            feed.record(uuid, key, previous, value, version);
+        }
+
+        @Override
+        public void onCount(@NotNull String key, long value) {
+
+            // ONLY INDEXES FOLLOW EVERY INCREMENT, THE FEED RECORDS THE COUNTER ONCE IT IS FOLDED
+            RankIndex index = indexes.get(key);
+            if (index != null) index.update(uuid, new JsonPrimitive(value));
+
+            KeyIndex keyIndex = keyIndexes.get(key);
+            if (keyIndex != null) keyIndex.update(uuid, new JsonPrimitive(value));
+        }
+
+        @Override
+        public void onDelete() {
+            indexes.values().forEach(index -> index.remove(uuid));
+            keyIndexes.values().forEach(index -> index.remove(uuid));
+
+            NameIndex nameIndex = UserManager.this.nameIndex;
+            if (nameIndex != null) nameIndex.remove(uuid);
+            feed.recordDeletion(uuid);
+        }
+    }
+}
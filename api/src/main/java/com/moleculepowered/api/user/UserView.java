@@ -0,0 +1,180 @@
+package com.moleculepowered.api.user;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A lightweight, read-only view of a user's stored data, as returned by bulk scans such as
+ * {@link UserManager#scan(String...)}. Unlike a {@link User}, a view is never loaded into a manager,
+ * never written and fires no events, making it suitable for jobs reading every user at once.
+ *
+ * <p>A view only contains the keys requested by the scan's projection; reading any other key returns
+ * the provided default value.</p>
+ *
+ * @author OMGitzFROST
+ * @see UserManager#scan(String...)
+ */
+public final class UserView
+{
+    private final UUID uuid;
+    private final JsonObject data;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    private UserView(@NotNull UUID uuid, @NotNull JsonObject data) {
+        this.uuid = uuid;
+        this.data = data;
+    }
+
+    /**
+     * Creates a view of the provided data. The data is owned by the view afterwards and must not be
+     * modified by the caller.
+     *
+     * @param uuid the unique ID of the user
+     * @param data the data of the user
+     * @return the view
+     */
+    public static @NotNull UserView wrap(@NotNull UUID uuid, @NotNull JsonObject data) {
+        return new UserView(uuid, data);
+    }
+
+    /**
+     * Creates a view containing a copy of the provided keys of the provided data.
+     *
+     * @param uuid       the unique ID of the user
+     * @param data       the data of the user
+     * @param projection the copied keys, or null to copy every key
+     * @return the view
+     */
+    public static @NotNull UserView copy(@NotNull UUID uuid, @NotNull JsonObject data, @Nullable Set<String> projection) {
+        if (projection == null) return new UserView(uuid, data.deepCopy());
+
+        JsonObject copy = new JsonObject();
+        for (String key : projection) {
+            JsonElement value = data.get(key);
+            if (value != null) copy.add(key, value.deepCopy());
+        }
+        return new UserView(uuid, copy);
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the unique ID of the viewed user.
+     *
+     * @return the unique ID of the user
+     */
+    public @NotNull UUID getUniqueId() {
+        return uuid;
+    }
+
+    /**
+     * Returns true if the provided key is set in this view.
+     *
+     * @param key the data key
+     * @return true if the key is set
+     */
+    public boolean has(@NotNull String key) {
+        JsonElement value = data.get(key);
+        return value != null && !value.isJsonNull();
+    }
+
+    /**
+     * Returns the keys contained in this view.
+     *
+     * @return the contained keys
+     */
+    public @NotNull Set<String> keys() {
+        return Collections.unmodifiableSet(data.keySet());
+    }
+
+    /**
+     * Returns the value assigned to the provided key as a string.
+     *
+     * @param key the data key
+     * @param def the default value
+     * @return the value, or the default value if the key is not set
+     */
+    public @Nullable String getString(@NotNull String key, @Nullable String def) {
+        JsonElement value = data.get(key);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : def;
+    }
+
+    /**
+     * Returns the value assigned to the provided key as a long.
+     *
+     * @param key the data key
+     * @param def the default value
+     * @return the value, or the default value if the key is not set or is not a number
+     */
+    public long getLong(@NotNull String key, long def) {
+        Long value = UserField.ofLong(key, def).parse(data.get(key));
+        return value != null ? value : def;
+    }
+
+    /**
+     * Returns the value assigned to the provided key as a double.
+     *
+     * @param key the data key
+     * @param def the default value
+     * @return the value, or the default value if the key is not set or is not a number
+     */
+    public double getDouble(@NotNull String key, double def) {
+        Double value = UserField.ofDouble(key, def).parse(data.get(key));
+        return value != null ? value : def;
+    }
+
+    /**
+     * Returns the value assigned to the provided key as a boolean.
+     *
+     * @param key the data key
+     * @param def the default value
+     * @return the value, or the default value if the key is not set or is not a boolean
+     */
+    public boolean getBoolean(@NotNull String key, boolean def) {
+        Boolean value = UserField.ofBoolean(key, def).parse(data.get(key));
+        return value != null ? value : def;
+    }
+
+    /**
+     * Returns the value of the provided field.
+     *
+     * @param field the target field
+     * @param <T>   the type of the value
+     * @return the value, or the field's default value if not set
+     */
+    public <T> T get(@NotNull UserField<T> field) {
+        return field.read(data.get(field.getKey()));
+    }
+
+    /**
+     * Returns a copy of the data contained in this view.
+     *
+     * @return the viewed data
+     */
+    public @NotNull JsonObject toJson() {
+        return data.deepCopy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String toString() {
+        StringBuilder builder = new StringBuilder("UserView{").append(uuid);
+        for (Map.Entry<String, JsonElement> entry : data.entrySet())
+            builder.append(", ").append(entry.getKey()).append('=').append(entry.getValue());
+        return builder.append('}').toString();
+    }
+}
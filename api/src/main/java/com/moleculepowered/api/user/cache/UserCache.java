@@ -0,0 +1,222 @@
+package com.moleculepowered.api.user.cache;
+
+import com.moleculepowered.api.user.UserManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * The eviction policy used by a {@link UserManager} to bound the number of users it keeps loaded.
+ * The cache only tracks the unique ID and last access time of every loaded user, ordered from least
+ * to most recently used; the users themselves stay in the manager.
+ *
+ * <p>A user is evicted once the cache holds more users than its maximum size, or once the user was
+ * not accessed for longer than the idle timeout. Eviction is checked whenever the cache is accessed,
+ * so the cache does not require a scheduled task.</p>
+ *
+ * <p>Users can be pinned, for example while their player is online. Pinned users are never evicted
+ * and do not count towards the maximum size; the cache treats them as accessed whenever it would
+ * have evicted them, so they are not checked again on every access.</p>
+ *
+ * <pre>{@code
+ * manager.setCache(new UserCache(500, Duration.ofMinutes(10)));
+ * }</pre>
+ *
+ * @author OMGitzFROST
+ * @see UserManager#setCache(UserCache)
+ */
+public final class UserCache
+{
+    private final Map<UUID, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maximumSize;
+    private final long idleTimeout;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Creates a new cache policy bounded by the provided size and idle timeout.
+     *
+     * @param maximumSize the maximum number of users kept loaded
+     * @param idleTimeout how long a user is kept loaded without being accessed, or null to disable
+     * @throws IllegalArgumentException when the maximum size is less than one
+     */
+    public UserCache(int maximumSize, @Nullable Duration idleTimeout) {
+        if (maximumSize < 1) throw new IllegalArgumentException("The maximum size of a user cache must be at least 1");
+        this.maximumSize = maximumSize;
+        this.idleTimeout = idleTimeout != null ? idleTimeout.toNanos() : 0;
+    }
+
+    /**
+     * Creates a new cache policy bounded by the provided size, without an idle timeout.
+     *
+     * @param maximumSize the maximum number of users kept loaded
+     */
+    public UserCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /*
+    CACHE METHODS
+     */
+
+    /**
+     * Records an access to the provided user, marking it as the most recently used. Returns the
+     * unique IDs of every user that must be evicted as a result, which never includes the accessed user.
+     *
+     * @param uuid the accessed user
+     * @return the users to evict, usually empty
+     */
+    public @NotNull List<UUID> access(@NotNull UUID uuid) {
+        return access(uuid, pinned -> false);
+    }
+
+    /**
+     * Records an access to the provided user, marking it as the most recently used. Returns the
+     * unique IDs of every user that must be evicted as a result, which never includes the accessed user
+     * nor the users matching the provided pin.
+     *
+     * @param uuid   the accessed user
+     * @param pinned tests whether a user must be kept loaded
+     * @return the users to evict, usually empty
+     */
+    public synchronized @NotNull List<UUID> access(@NotNull UUID uuid, @NotNull Predicate<UUID> pinned) {
+        long now = System.nanoTime();
+        entries.put(uuid, now);
+        return collect(now, uuid, pinned);
+    }
+
+    /**
+     * Returns the unique IDs of every user that exceeded the idle timeout, removing them from this cache.
+     *
+     * @return the users to evict, usually empty
+     */
+    public @NotNull List<UUID> expire() {
+        return expire(pinned -> false);
+    }
+
+    /**
+     * Returns the unique IDs of every user that exceeded the idle timeout and does not match the
+     * provided pin, removing them from this cache.
+     *
+     * @param pinned tests whether a user must be kept loaded
+     * @return the users to evict, usually empty
+     */
+    public synchronized @NotNull List<UUID> expire(@NotNull Predicate<UUID> pinned) {
+        return collect(System.nanoTime(), null, pinned);
+    }
+
+    /**
+     * Tracks the provided user again without evicting any other user, typically because its eviction
+     * was abandoned. Users already tracked are left untouched.
+     *
+     * @param uuid the target user
+     */
+    public synchronized void restore(@NotNull UUID uuid) {
+        entries.putIfAbsent(uuid, System.nanoTime());
+    }
+
+    /**
+     * Stops tracking the provided user, typically because it was removed from its manager.
+     *
+     * @param uuid the target user
+     */
+    public synchronized void remove(@NotNull UUID uuid) {
+        entries.remove(uuid);
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns true if the provided user is tracked by this cache, meaning it was not evicted since it
+     * was last accessed.
+     *
+     * @param uuid the target user
+     * @return true if the user is tracked
+     */
+    public synchronized boolean contains(@NotNull UUID uuid) {
+        return entries.containsKey(uuid);
+    }
+
+    /**
+     * Returns the number of users currently tracked by this cache.
+     *
+     * @return the number of tracked users
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the maximum number of users kept loaded.
+     *
+     * @return the maximum size
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns how long a user is kept loaded without being accessed, or null if users never expire.
+     *
+     * @return the idle timeout, or null
+     */
+    public @Nullable Duration getIdleTimeout() {
+        return idleTimeout > 0 ? Duration.ofNanos(idleTimeout) : null;
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Removes and returns the least recently used users that are either idle or over the maximum size.
+     * Since entries are ordered by access, the scan stops at the first entry that is kept. Pinned users
+     * are skipped, do not count towards the maximum size, and are marked as accessed once the scan ends.
+     *
+     * @param now     the current time, in nanoseconds
+     * @param exclude a user that must not be evicted, or null
+     * @param pinned  tests whether a user must be kept loaded
+     * @return the removed users
+     */
+    private @NotNull List<UUID> collect(long now, @Nullable UUID exclude, @NotNull Predicate<UUID> pinned) {
+        List<UUID> evicted = null, kept = null;
+        Iterator<Map.Entry<UUID, Long>> iterator = entries.entrySet().iterator();
+
+        // PINNED USERS ARE ONLY COUNTED ONCE THE CACHE EXCEEDS ITS MAXIMUM SIZE
+        int pins = entries.size() > maximumSize ? (int) entries.keySet().stream().filter(pinned).count() : 0;
+
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Long> entry = iterator.next();
+            boolean oversized = entries.size() - pins > maximumSize;
+            boolean idle = idleTimeout > 0 && now - entry.getValue() > idleTimeout;
+            if ((!oversized && !idle) || entry.getKey().equals(exclude)) break;
+
+            if (pinned.test(entry.getKey())) {
+                if (kept == null) kept = new ArrayList<>();
+                kept.add(entry.getKey());
+                continue;
+            }
+
+            if (evicted == null) evicted = new ArrayList<>();
+            evicted.add(entry.getKey());
+            iterator.remove();
+        }
+
+        // PINNED USERS MOVE BEHIND THE OTHERS, SO THE NEXT SCANS DO NOT CHECK THEM AGAIN
+        if (kept != null) kept.forEach(uuid -> entries.put(uuid, now));
+        return evicted != null ? evicted : Collections.emptyList();
+    }
+}
@@ -0,0 +1,286 @@
+package com.moleculepowered.api.user.feed;
+
+import com.google.gson.JsonElement;
+import com.moleculepowered.api.concurrent.IOExecutor;
+import com.moleculepowered.api.user.UserManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A feed of every change made to the data of users, allowing caches, indexes and replicas to follow
+ * users incrementally instead of polling or scanning them. Every change is recorded as a
+ * {@link ChangeRecord} holding the user, the key, its previous and new value, and a sequence number.
+ *
+ * <p>The most recent records are retained in a ring buffer of fixed capacity, so records can be
+ * {@link #read(long, int) read} or replayed from any retained sequence number, for example by a replica
+ * resuming where it stopped. Subscribers receive records asynchronously and in batches; see
+ * {@link ChangeSubscriber}. Recording a change never blocks on subscribers.</p>
+ *
+ * <p>Every {@link UserManager} records the changes of the users it has loaded into its own feed,
+ * returned by {@link UserManager#getChangeFeed()}.</p>
+ *
+ * <pre>{@code
+ * manager.getChangeFeed().subscribe(records -> records.forEach(record -> replica.apply(record)));
+ * }</pre>
+ *
+ * @author OMGitzFROST
+ * @see UserManager#getChangeFeed()
+ */
+public final class ChangeFeed
+{
+    /**
+     * The number of records retained by a feed unless another capacity is provided.
+     */
+    public static final int DEFAULT_CAPACITY = 16384;
+    private static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ChangeRecord[] ring;
+    private long latest;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Creates a new empty feed retaining the provided number of records.
+     *
+     * @param capacity the number of retained records
+     * @throws IllegalArgumentException when the capacity is not positive
+     */
+    public ChangeFeed(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("The capacity of a feed must be positive");
+        this.ring = new ChangeRecord[capacity];
+    }
+
+    /*
+    RECORD METHODS
+     */
+
+    /**
+     * Records a change of the provided key and notifies every subscriber.
+     *
+     * @param uuid     the changed user
+     * @param key      the changed key
+     * @param previous the previous value, or null if the key was not set
+     * @param value    the new value, or null if the key was removed
+     * @param version  the version of the user's document after the change
+     * @return the recorded change
+     */
+    public @NotNull ChangeRecord record(@NotNull UUID uuid, @NotNull String key, @Nullable JsonElement previous,
+                                        @Nullable JsonElement value, long version) {
+        return append(uuid, key, previous, value, version);
+    }
+
+    /**
+     * Records the deletion of the provided user's data and notifies every subscriber.
+     *
+     * @param uuid the deleted user
+     * @return the recorded deletion
+     */
+    public @NotNull ChangeRecord recordDeletion(@NotNull UUID uuid) {
+        return append(uuid, null, null, null, 0);
+    }
+
+    /*
+    QUERY METHODS
+     */
+
+    /**
+     * Returns the retained records starting at the provided sequence number, in order. If the provided
+     * sequence number is no longer retained, the records start at the oldest retained record instead;
+     * callers detect this by comparing the sequence number of the first record.
+     *
+     * @param from  the sequence number of the first record
+     * @param limit the maximum number of records returned
+     * @return the records, empty if none was recorded from the provided sequence number
+     */
+    public synchronized @NotNull List<ChangeRecord> read(long from, int limit) {
+        long start = Math.max(from, getOldestSequence());
+        int count = (int) Math.max(0, Math.min(limit, latest - start + 1));
+
+        List<ChangeRecord> records = new ArrayList<>(count);
+        for (long sequence = start; sequence < start + count; sequence++) records.add(ring[slot(sequence)]);
+        return records;
+    }
+
+    /**
+     * Returns the sequence number of the most recent record.
+     *
+     * @return the latest sequence number, or 0 if nothing was recorded
+     */
+    public synchronized long getLatestSequence() {
+        return latest;
+    }
+
+    /**
+     * Returns the sequence number of the oldest retained record. Records from this sequence number on
+     * can be read and replayed.
+     *
+     * @return the oldest retained sequence number, or 1 if nothing was recorded
+     */
+    public synchronized long getOldestSequence() {
+        return Math.max(1, latest - ring.length + 1);
+    }
+
+    /**
+     * Returns the number of records this feed retains.
+     *
+     * @return the capacity of this feed
+     */
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /*
+    SUBSCRIPTION METHODS
+     */
+
+    /**
+     * Subscribes to the records made from now on, delivered in batches of at most 256 records.
+     *
+     * @param subscriber the subscriber
+     * @return the subscription, used to cancel it
+     */
+    public @NotNull Subscription subscribe(@NotNull ChangeSubscriber subscriber) {
+        return subscribe(getLatestSequence() + 1, DEFAULT_BATCH_SIZE, subscriber);
+    }
+
+    /**
+     * Subscribes to the records made from the provided sequence number on, replaying the retained records
+     * made before this call first. If the sequence number is no longer retained, the subscriber is told
+     * using {@link ChangeSubscriber#onGap(long, long)} before the replay starts.
+     *
+     * @param from       the sequence number of the first delivered record
+     * @param batchSize  the maximum number of records per batch
+     * @param subscriber the subscriber
+     * @return the subscription, used to cancel it
+     * @throws IllegalArgumentException when the batch size is not positive
+     */
+    public @NotNull Subscription subscribe(long from, int batchSize, @NotNull ChangeSubscriber subscriber) {
+        if (batchSize < 1) throw new IllegalArgumentException("The batch size of a subscription must be positive");
+
+        Subscription subscription = new Subscription(subscriber, Math.max(1, from), batchSize);
+        subscriptions.add(subscription);
+        subscription.signal();
+        return subscription;
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    private @NotNull ChangeRecord append(@NotNull UUID uuid, @Nullable String key, @Nullable JsonElement previous,
+                                         @Nullable JsonElement value, long version) {
+        ChangeRecord record;
+        synchronized (this) {
+            record = new ChangeRecord(++latest, uuid, key, previous, value, version);
+            ring[slot(record.getSequence())] = record;
+        }
+        for (Subscription subscription : subscriptions) subscription.signal();
+        return record;
+    }
+
+    private int slot(long sequence) {
+        return (int) ((sequence - 1) % ring.length);
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * A subscription to a {@link ChangeFeed}, delivering records to its subscriber from a cursor that
+     * advances as batches are delivered.
+     */
+    public final class Subscription
+    {
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final ChangeSubscriber subscriber;
+        private final int batchSize;
+        private volatile boolean cancelled;
+        private volatile long next;
+
+        private Subscription(@NotNull ChangeSubscriber subscriber, long next, int batchSize) {
+            this.subscriber = subscriber;
+            this.next = next;
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Returns the sequence number of the next record delivered to the subscriber.
+         *
+         * @return the position of this subscription
+         */
+        public long getPosition() {
+            return next;
+        }
+
+        /**
+         * Stops delivering records to the subscriber. A batch being delivered is not interrupted.
+         */
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+        }
+
+        /**
+         * Returns true if this subscription was cancelled.
+         *
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Schedules a delivery unless one is already scheduled or running.
+         */
+        private void signal() {
+            if (!cancelled && scheduled.compareAndSet(false, true)) IOExecutor.execute(this::deliver);
+        }
+
+        /**
+         * Delivers batches until the subscriber caught up with the feed.
+         */
+        private void deliver() {
+            try {
+                while (!cancelled) {
+                    long gap = -1, oldest;
+                    List<ChangeRecord> batch;
+                    synchronized (ChangeFeed.this) {
+                        oldest = getOldestSequence();
+                        if (next < oldest) {
+                            gap = next;
+                            next = oldest;
+                        }
+                        batch = read(next, batchSize);
+                    }
+
+                    if (gap != -1) subscriber.onGap(gap, oldest - 1);
+                    if (batch.isEmpty()) break;
+
+                    next = batch.get(batch.size() - 1).getSequence() + 1;
+                    try {
+                        subscriber.onBatch(Collections.unmodifiableList(batch));
+                    } catch (RuntimeException ex) {
+                        ex.printStackTrace();
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+
+                // A RECORD MADE AFTER THE LAST READ BUT BEFORE THE FLAG WAS CLEARED DID NOT SCHEDULE A DELIVERY
+                if (!cancelled && next <= getLatestSequence()) signal();
+            }
+        }
+    }
+}
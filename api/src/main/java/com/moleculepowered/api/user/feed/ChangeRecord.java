@@ -0,0 +1,119 @@
+package com.moleculepowered.api.user.feed;
+
+import com.google.gson.JsonElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A single change recorded by a {@link ChangeFeed}: either a key of a user that changed value, or a
+ * user whose data was deleted. Records are immutable; their values are copied when read, so they can
+ * be shared by every subscriber of the feed.
+ *
+ * @author OMGitzFROST
+ * @see ChangeFeed
+ */
+public final class ChangeRecord
+{
+    private final long sequence, version;
+    private final UUID uuid;
+    private final String key;
+    private final JsonElement previous, value;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    ChangeRecord(long sequence, @NotNull UUID uuid, @Nullable String key, @Nullable JsonElement previous,
+                 @Nullable JsonElement value, long version) {
+        this.sequence = sequence;
+        this.uuid = uuid;
+        this.key = key;
+        this.previous = previous;
+        this.value = value;
+        this.version = version;
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the position of this record in its feed. Sequence numbers start at 1 and increase by one
+     * with every record, so a gap between two records means records were missed.
+     *
+     * @return the sequence number of this record
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the unique ID of the changed user.
+     *
+     * @return the unique ID of the user
+     */
+    public @NotNull UUID getUniqueId() {
+        return uuid;
+    }
+
+    /**
+     * Returns true if this record reports the deletion of the user's data rather than a changed key.
+     *
+     * @return true if the user was deleted
+     */
+    public boolean isDeletion() {
+        return key == null;
+    }
+
+    /**
+     * Returns the changed key.
+     *
+     * @return the changed key, or null if the user was deleted
+     */
+    public @Nullable String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the value the key had before the change.
+     *
+     * @return the previous value, or null if the key was not set
+     */
+    public @Nullable JsonElement getPrevious() {
+        return copy(previous);
+    }
+
+    /**
+     * Returns the value the key has after the change.
+     *
+     * @return the new value, or null if the key was removed or the user was deleted
+     */
+    public @Nullable JsonElement getValue() {
+        return copy(value);
+    }
+
+    /**
+     * Returns the version of the user's document after the change, which orders the changes of a
+     * single user since it was loaded.
+     *
+     * @return the version of the user's document
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String toString() {
+        if (isDeletion()) return "#" + sequence + " " + uuid + " deleted";
+        return "#" + sequence + " " + uuid + " " + key + ": " + previous + " -> " + value + " (v" + version + ")";
+    }
+
+    private static @Nullable JsonElement copy(@Nullable JsonElement value) {
+        return value != null && (value.isJsonObject() || value.isJsonArray()) ? value.deepCopy() : value;
+    }
+}
@@ -0,0 +1,39 @@
+package com.moleculepowered.api.user.feed;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Receives the records of a {@link ChangeFeed} in batches, in the order they were recorded.
+ *
+ * <p>Batches are delivered on the shared {@link com.moleculepowered.api.concurrent.IOExecutor}, one at
+ * a time: the next batch is only delivered once {@link #onBatch(List)} returned, so a slow subscriber
+ * receives larger batches rather than piling up work. The feed never waits for its subscribers; a
+ * subscriber falling further behind than the feed retains is told which records it missed using
+ * {@link #onGap(long, long)} and continues from the oldest retained record.</p>
+ *
+ * @author OMGitzFROST
+ * @see ChangeFeed#subscribe(long, int, ChangeSubscriber)
+ */
+@FunctionalInterface
+public interface ChangeSubscriber
+{
+    /**
+     * Called with the next records of the feed.
+     *
+     * @param records the records, never empty
+     */
+    void onBatch(@NotNull List<ChangeRecord> records);
+
+    /**
+     * Called when records were discarded by the feed before they could be delivered, for example
+     * because this subscriber fell too far behind. Subscribers mirroring users should rebuild their
+     * state, for example using a scan, since changes were lost. By default, this method does nothing.
+     *
+     * @param from the sequence number of the first missed record
+     * @param to   the sequence number of the last missed record
+     */
+    default void onGap(long from, long to) {
+    }
+}
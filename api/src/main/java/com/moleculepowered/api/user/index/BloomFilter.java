@@ -0,0 +1,202 @@
+package com.moleculepowered.api.user.index;
+
+import com.moleculepowered.api.user.UserManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A probabilistic set of unique IDs and names, answering whether a value might have been added in
+ * constant time and constant memory. A value that was added is always reported as possibly present;
+ * a value that was not added is reported as absent, except for a small rate of false positives chosen
+ * when the filter is created. Values cannot be removed.
+ *
+ * <p>{@link UserManager#declareFilter()} maintains a filter over every known user, so lookups of users
+ * that do not exist, such as mistyped names, are rejected without touching any index or the disk.</p>
+ *
+ * <p>Adding and testing values never block and may happen concurrently.</p>
+ *
+ * @author OMGitzFROST
+ * @see UserManager#declareFilter()
+ */
+public final class BloomFilter
+{
+    private final AtomicLongArray bits;
+    private final AtomicInteger count = new AtomicInteger();
+    private final int size, hashes, capacity;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Creates a new empty filter sized to hold the provided number of values with the provided rate of
+     * false positives. Adding more values than expected keeps the filter correct, but raises its rate of
+     * false positives; see {@link #isSaturated()}.
+     *
+     * @param capacity the expected number of values
+     * @param rate     the rate of false positives, between 0 and 1 exclusive
+     * @throws IllegalArgumentException when the capacity is not positive or the rate is out of bounds
+     */
+    public BloomFilter(int capacity, double rate) {
+        if (capacity < 1) throw new IllegalArgumentException("The capacity of a filter must be positive");
+        if (!(rate > 0 && rate < 1)) throw new IllegalArgumentException("The rate of false positives must be between 0 and 1");
+
+        // OPTIMAL NUMBER OF BITS AND HASH FUNCTIONS FOR THE REQUESTED RATE
+        long optimal = (long) Math.ceil(-capacity * Math.log(rate) / (Math.log(2) * Math.log(2)));
+        this.size = (int) Math.max(64, Math.min(optimal, Integer.MAX_VALUE - 63L));
+        this.hashes = Math.max(1, (int) Math.round((double) size / capacity * Math.log(2)));
+        this.capacity = capacity;
+        this.bits = new AtomicLongArray((size + 63) / 64);
+    }
+
+    /*
+    UPDATE METHODS
+     */
+
+    /**
+     * Adds the provided unique ID to this filter.
+     *
+     * @param uuid the added unique ID
+     * @return true if the filter changed, false if the unique ID might have been added before
+     */
+    public boolean put(@NotNull UUID uuid) {
+        return put(hash(uuid));
+    }
+
+    /**
+     * Adds the provided name to this filter. Names are case-sensitive, callers fold them if necessary.
+     *
+     * @param name the added name
+     * @return true if the filter changed, false if the name might have been added before
+     */
+    public boolean put(@NotNull String name) {
+        return put(hash(name));
+    }
+
+    /*
+    QUERY METHODS
+     */
+
+    /**
+     * Returns true if the provided unique ID might have been added to this filter, or false if it was
+     * definitely not added.
+     *
+     * @param uuid the target unique ID
+     * @return false if the unique ID was never added
+     */
+    public boolean mightContain(@NotNull UUID uuid) {
+        return mightContain(hash(uuid));
+    }
+
+    /**
+     * Returns true if the provided name might have been added to this filter, or false if it was
+     * definitely not added.
+     *
+     * @param name the target name
+     * @return false if the name was never added
+     */
+    public boolean mightContain(@NotNull String name) {
+        return mightContain(hash(name));
+    }
+
+    /**
+     * Returns the number of distinct values added to this filter. Values added more than once are only
+     * counted once, as are values that were falsely reported as present when added.
+     *
+     * @return the number of added values
+     */
+    public int count() {
+        return count.get();
+    }
+
+    /**
+     * Returns the number of values this filter was sized for.
+     *
+     * @return the expected number of values
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns true once more values were added than this filter was sized for, meaning its rate of
+     * false positives exceeds the rate it was created with and it should be rebuilt larger.
+     *
+     * @return true if the filter exceeded its capacity
+     */
+    public boolean isSaturated() {
+        return count.get() > capacity;
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Derives every bit position of a value from two halves of its hash, using double hashing.
+     */
+    private boolean put(long hash) {
+        int first = (int) hash, second = (int) (hash >>> 32);
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(first + i * second);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+
+            // ONLY WRITE WHEN THE BIT IS NOT SET YET, SO RE-ADDING KNOWN VALUES DOES NOT CONTEND
+            long current;
+            while (((current = bits.get(word)) & mask) == 0) {
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    changed = true;
+                    break;
+                }
+            }
+        }
+        if (changed) count.incrementAndGet();
+        return changed;
+    }
+
+    private boolean mightContain(long hash) {
+        int first = (int) hash, second = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(first + i * second);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % size;
+    }
+
+    private static long hash(@NotNull UUID uuid) {
+        return mix(uuid.getMostSignificantBits() ^ mix(uuid.getLeastSignificantBits()));
+    }
+
+    /**
+     * Hashes the UTF-8 bytes of a string using 64-bit FNV-1a, finalized by {@link #mix(long)}.
+     */
+    private static long hash(@NotNull String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+
+        // KEEP NAMES AND UNIQUE IDS APART EVEN IF THEIR HASHES COLLIDE
+        return mix(hash ^ 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * The finalizer of SplitMix64, spreading every input bit over every output bit.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+}
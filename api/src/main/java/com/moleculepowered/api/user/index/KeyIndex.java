@@ -0,0 +1,307 @@
+package com.moleculepowered.api.user.index;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import com.moleculepowered.api.user.UserManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * A secondary index mapping the values of a user data key to the users holding them, answering
+ * questions such as "every user with the locale de_de" without scanning every user.
+ *
+ * <p>A {@link Type#HASH hash} index answers exact lookups in constant time, while a {@link Type#RANGE range}
+ * index keeps its values ordered, additionally answering range lookups in logarithmic time. Numbers,
+ * booleans and strings are indexed; numbers are compared by value regardless of their type, so
+ * {@code 5} and {@code 5.0} are the same value. Missing and null values are not indexed.</p>
+ *
+ * <p>Indexes are declared using {@link UserManager#declareKeyIndex(String, Type)} and queried using
+ * {@link UserManager#query(String, Object)}, which keeps them up to date as users change. Reads never
+ * block; updates are serialized per index.</p>
+ *
+ * @author OMGitzFROST
+ * @see UserManager#declareKeyIndex(String, Type)
+ */
+public final class KeyIndex
+{
+    private static final Gson GSON = new Gson();
+    private static final Comparator<Object> ORDER = KeyIndex::compare;
+    private final Map<UUID, Object> values = new ConcurrentHashMap<>();
+    private final Map<Object, Set<UUID>> entries;
+    private final String key;
+    private final Type type;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Creates a new empty index over the provided key.
+     *
+     * @param key  the indexed key
+     * @param type the type of lookups supported by this index
+     */
+    public KeyIndex(@NotNull String key, @NotNull Type type) {
+        this.key = key;
+        this.type = type;
+        this.entries = type == Type.RANGE ? new ConcurrentSkipListMap<>(ORDER) : new ConcurrentHashMap<>();
+    }
+
+    /*
+    UPDATE METHODS
+     */
+
+    /**
+     * Sets the value of the provided user. Values that are missing or cannot be indexed remove the
+     * user from this index.
+     *
+     * @param uuid  the target user
+     * @param value the stored value
+     */
+    public synchronized void update(@NotNull UUID uuid, @Nullable JsonElement value) {
+        Object normalized = normalize(value);
+        Object previous = normalized != null ? values.put(uuid, normalized) : values.remove(uuid);
+        if (normalized != null && normalized.equals(previous)) return;
+
+        if (previous != null) {
+            Set<UUID> users = entries.get(previous);
+            if (users != null && users.remove(uuid) && users.isEmpty()) entries.remove(previous);
+        }
+        if (normalized != null) entries.computeIfAbsent(normalized, v -> ConcurrentHashMap.newKeySet()).add(uuid);
+    }
+
+    /**
+     * Removes the provided user from this index.
+     *
+     * @param uuid the target user
+     */
+    public void remove(@NotNull UUID uuid) {
+        update(uuid, null);
+    }
+
+    /*
+    QUERY METHODS
+     */
+
+    /**
+     * Returns the unique IDs of every user holding the provided value.
+     *
+     * @param value the target value
+     * @return the matching users, empty if none
+     */
+    public @NotNull Set<UUID> lookup(@Nullable Object value) {
+        Object normalized = normalize(value);
+        Set<UUID> users = normalized != null ? entries.get(normalized) : null;
+        return users != null ? Collections.unmodifiableSet(users) : Collections.emptySet();
+    }
+
+    /**
+     * Lazily streams the unique IDs of every user holding a value within the provided range, ordered
+     * by value. A null bound leaves that side of the range open.
+     *
+     * @param from the lower bound, inclusive, or null
+     * @param to   the upper bound, exclusive, or null
+     * @return the matching users
+     * @throws IllegalStateException when this is not a {@link Type#RANGE range} index
+     */
+    public @NotNull Stream<UUID> range(@Nullable Object from, @Nullable Object to) {
+        if (type != Type.RANGE) throw new IllegalStateException("The index of " + key + " does not support range lookups");
+
+        NavigableMap<Object, Set<UUID>> sorted = (NavigableMap<Object, Set<UUID>>) entries;
+        Object lower = normalize(from), upper = normalize(to);
+        if (lower != null && upper != null) sorted = sorted.subMap(lower, true, upper, false);
+        else if (lower != null) sorted = sorted.tailMap(lower, true);
+        else if (upper != null) sorted = sorted.headMap(upper, false);
+        return sorted.values().stream().flatMap(Set::stream);
+    }
+
+    /**
+     * Lazily streams the unique IDs of every user holding a value for the indexed key.
+     *
+     * @return the indexed users
+     */
+    public @NotNull Stream<UUID> present() {
+        return values.keySet().stream();
+    }
+
+    /**
+     * Returns the value indexed for the provided user.
+     *
+     * @param uuid the target user
+     * @return the indexed value, or null if the user is not indexed
+     */
+    public @Nullable Object getValue(@NotNull UUID uuid) {
+        return values.get(uuid);
+    }
+
+    /**
+     * Returns the number of users indexed.
+     *
+     * @return the number of indexed users
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Returns the key this index is built over.
+     *
+     * @return the indexed key
+     */
+    public @NotNull String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the type of lookups supported by this index.
+     *
+     * @return the index type
+     */
+    public @NotNull Type getType() {
+        return type;
+    }
+
+    /*
+    PERSISTENCE METHODS
+     */
+
+    /**
+     * Writes the indexed values into the provided file, replacing it atomically.
+     *
+     * @param file the target file
+     * @throws UserStorageException when the file could not be written
+     */
+    public synchronized void save(@NotNull File file) {
+        JsonObject json = new JsonObject();
+        values.forEach((uuid, value) -> json.add(uuid.toString(), value instanceof Boolean ? new JsonPrimitive((Boolean) value)
+                : value instanceof Number ? new JsonPrimitive((Number) value) : new JsonPrimitive(value.toString())));
+
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            if (file.getParentFile() != null && !file.getParentFile().exists() && !file.getParentFile().mkdirs())
+                throw new IOException("Unable to create " + file.getParent());
+
+            try (Writer writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                GSON.toJson(json, writer);
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to write the index of " + key, ex);
+        }
+    }
+
+    /**
+     * Replaces the indexed values with those previously saved into the provided file.
+     *
+     * @param file the source file
+     * @return true if the file existed and was read
+     * @throws UserStorageException when the file could not be read
+     */
+    public synchronized boolean load(@NotNull File file) {
+        if (!file.exists()) return false;
+
+        JsonObject json;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            json = GSON.fromJson(reader, JsonObject.class);
+        } catch (IOException | JsonParseException ex) {
+            throw new UserStorageException("Failed to read the index of " + key, ex);
+        }
+
+        values.clear();
+        entries.clear();
+        if (json == null) return true;
+
+        for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+            try {
+                update(UUID.fromString(entry.getKey()), entry.getValue());
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return true;
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Converts a value into the form it is indexed as: a {@link Double} for numbers, a {@link Boolean}
+     * or a {@link String}. Returns null for values that are not indexed.
+     */
+    private static @Nullable Object normalize(@Nullable Object value) {
+        if (value instanceof JsonElement) {
+            JsonElement element = (JsonElement) value;
+            if (!element.isJsonPrimitive()) return null;
+
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isNumber()) return primitive.getAsDouble();
+            if (primitive.isBoolean()) return primitive.getAsBoolean();
+            return primitive.getAsString();
+        }
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        if (value instanceof Boolean || value instanceof String) return value;
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Orders normalized values, placing numbers before booleans and booleans before strings.
+     */
+    private static int compare(@NotNull Object a, @NotNull Object b) {
+        int rank = Integer.compare(rank(a), rank(b));
+        if (rank != 0) return rank;
+
+        if (a instanceof Double) return Double.compare((Double) a, (Double) b);
+        if (a instanceof Boolean) return Boolean.compare((Boolean) a, (Boolean) b);
+        return ((String) a).compareTo((String) b);
+    }
+
+    private static int rank(@NotNull Object value) {
+        return value instanceof Double ? 0 : value instanceof Boolean ? 1 : 2;
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * The lookups supported by a {@link KeyIndex}.
+     */
+    public enum Type
+    {
+        /**
+         * Supports exact lookups only.
+         */
+        HASH,
+
+        /**
+         * Supports exact and range lookups, keeping values ordered.
+         */
+        RANGE
+    }
+}
@@ -0,0 +1,372 @@
+package com.moleculepowered.api.user.index;
+
+import com.moleculepowered.api.concurrent.SerialExecutor;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import com.moleculepowered.api.user.UserManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * A persistent index mapping the case-folded names of users to their unique IDs, so users that are not
+ * loaded can be found by name without reading any user file.
+ *
+ * <p>The index is held in memory as a hash map and backed by two files: a snapshot listing every entry
+ * sorted by name, and a journal every change is appended to as it happens. Opening the index reads the
+ * snapshot and replays the journal, so changes are not lost when the server stops without saving; the
+ * journal is folded back into the snapshot by {@link #compact()} once it grows.</p>
+ *
+ * <p>Indexes are declared using {@link UserManager#declareNameIndex()}, which keeps them up to date as
+ * users are loaded and change their name. Reads never block; updates are serialized and only change the
+ * in-memory maps, while the journal is written on the shared
+ * {@link com.moleculepowered.api.concurrent.IOExecutor IOExecutor}, so an update never waits for the disk.</p>
+ *
+ * @author OMGitzFROST
+ * @see UserManager#declareNameIndex()
+ */
+public final class NameIndex
+{
+    private static final int COMPACT_THRESHOLD = 1024;
+    private final Map<String, UUID> byName = new ConcurrentHashMap<>();
+    private final Map<UUID, String> byId = new ConcurrentHashMap<>();
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final SerialExecutor io = new SerialExecutor();
+    private final Object files = new Object();
+    private final File file, journal;
+    private Writer writer;
+    private int journaled;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Creates a new empty index backed by the provided snapshot file. The journal is kept next to it,
+     * using the same name followed by {@code .log}. Passing a null file keeps the index in memory only.
+     *
+     * @param file the snapshot file, or null
+     */
+    public NameIndex(@Nullable File file) {
+        this.file = file;
+        this.journal = file != null ? new File(file.getPath() + ".log") : null;
+    }
+
+    /*
+    UPDATE METHODS
+     */
+
+    /**
+     * Sets the name of the provided user, replacing the name it was previously indexed with. Blank names
+     * remove the user from this index.
+     *
+     * @param uuid the target user
+     * @param name the name of the user
+     * @return true if the index changed
+     */
+    public synchronized boolean put(@NotNull UUID uuid, @Nullable String name) {
+        if (!apply(uuid, name)) return false;
+        if (journal == null) return true;
+
+        // THE CHANGE IS JOURNALED IN THE BACKGROUND, IN THE ORDER IT WAS MADE
+        pending.add((name == null || name.isEmpty() ? "-" + uuid : "+" + uuid + " " + name) + "\n");
+        io.execute(this::append);
+        return true;
+    }
+
+    /**
+     * Removes the provided user from this index.
+     *
+     * @param uuid the target user
+     * @return true if the user was indexed
+     */
+    public boolean remove(@NotNull UUID uuid) {
+        return put(uuid, null);
+    }
+
+    /**
+     * Replaces every entry of this index with the provided names and writes a new snapshot, without
+     * journaling every entry on its own. Used to build the index from scratch.
+     *
+     * @param names the name of every user
+     */
+    public void rebuild(@NotNull Map<UUID, String> names) {
+        synchronized (files) {
+            synchronized (this) {
+                byName.clear();
+                byId.clear();
+                pending.clear();
+                names.forEach(this::apply);
+            }
+            compact();
+        }
+    }
+
+    /*
+    QUERY METHODS
+     */
+
+    /**
+     * Returns the unique ID of the user with the provided name, ignoring case.
+     *
+     * @param name the target name
+     * @return the unique ID of the user, or null if no user is indexed with this name
+     */
+    public @Nullable UUID lookup(@NotNull String name) {
+        return byName.get(fold(name));
+    }
+
+    /**
+     * Returns the name the provided user is indexed with.
+     *
+     * @param uuid the target user
+     * @return the name of the user, or null if the user is not indexed
+     */
+    public @Nullable String getName(@NotNull UUID uuid) {
+        return byId.get(uuid);
+    }
+
+    /**
+     * Passes the unique ID and name of every indexed user to the provided action.
+     *
+     * @param action receives the unique ID and name of every user
+     */
+    public void forEach(@NotNull BiConsumer<UUID, String> action) {
+        byId.forEach(action);
+    }
+
+    /**
+     * Returns the number of users indexed.
+     *
+     * @return the number of indexed users
+     */
+    public int size() {
+        return byId.size();
+    }
+
+    /*
+    PERSISTENCE METHODS
+     */
+
+    /**
+     * Replaces the entries of this index with those of the snapshot and journal files.
+     *
+     * @return true if either file existed and was read
+     * @throws UserStorageException when the files could not be read
+     */
+    public boolean open() {
+        synchronized (files) {
+            synchronized (this) {
+                return read();
+            }
+        }
+    }
+
+    /**
+     * Writes every entry of this index into a new snapshot sorted by name, replacing the previous snapshot
+     * atomically, and empties the journal. If this index is kept in memory only, this method does nothing.
+     * Changes made while the snapshot is written are journaled again afterwards.
+     *
+     * @throws UserStorageException when the snapshot could not be written
+     */
+    public void compact() {
+        if (file == null) return;
+
+        synchronized (files) {
+
+            // CHANGES WAITING TO BE JOURNALED ARE PART OF THE SNAPSHOT, SO THEY ARE DROPPED WITH THE JOURNAL
+            List<Map.Entry<String, UUID>> entries;
+            Map<UUID, String> names;
+            synchronized (this) {
+                entries = new ArrayList<>(byName.entrySet());
+                names = new HashMap<>(byId);
+                pending.clear();
+            }
+            entries.sort(Map.Entry.comparingByKey());
+            write(entries, names);
+        }
+    }
+
+    /**
+     * Compacts this index and releases its journal.
+     *
+     * @throws UserStorageException when the snapshot could not be written
+     */
+    public void close() {
+        synchronized (files) {
+            compact();
+            try {
+                closeJournal();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Returns a future completed once every change made before this call was journaled.
+     *
+     * @return a future completed once the journal is up to date
+     */
+    @NotNull CompletableFuture<Void> awaitJournal() {
+        return io.drain();
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Reads the snapshot and journal files. Must be called while holding both the file and index locks.
+     */
+    private boolean read() {
+        if (file == null || (!file.exists() && !journal.exists())) return false;
+
+        byName.clear();
+        byId.clear();
+        pending.clear();
+        journaled = 0;
+        try {
+            if (file.exists()) {
+                try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    for (String line; (line = reader.readLine()) != null; ) {
+                        int space = line.indexOf(' ');
+                        UUID uuid = parse(space > 0 ? line.substring(0, space) : null);
+                        if (uuid != null) apply(uuid, line.substring(space + 1));
+                    }
+                }
+            }
+
+            // REPLAY THE CHANGES MADE SINCE THE SNAPSHOT, A TRUNCATED LAST LINE IS SIMPLY IGNORED
+            if (journal.exists()) {
+                try (BufferedReader reader = Files.newBufferedReader(journal.toPath(), StandardCharsets.UTF_8)) {
+                    for (String line; (line = reader.readLine()) != null; journaled++) {
+                        if (line.length() < 37) continue;
+
+                        int space = line.indexOf(' ');
+                        UUID uuid = parse(line.substring(1, space > 0 ? space : line.length()));
+                        if (uuid == null) continue;
+
+                        if (line.charAt(0) == '+' && space > 0) apply(uuid, line.substring(space + 1));
+                        else if (line.charAt(0) == '-') apply(uuid, null);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to read the name index", ex);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the provided entries as the new snapshot and empties the journal. Must be called while
+     * holding the file lock.
+     */
+    private void write(@NotNull List<Map.Entry<String, UUID>> entries, @NotNull Map<UUID, String> names) {
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            if (file.getParentFile() != null && !file.getParentFile().exists() && !file.getParentFile().mkdirs())
+                throw new IOException("Unable to create " + file.getParent());
+
+            try (Writer out = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, UUID> entry : entries) {
+                    String name = names.get(entry.getValue());
+                    if (name != null) out.write(entry.getValue() + " " + name + "\n");
+                }
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // THE SNAPSHOT NOW CONTAINS EVERY JOURNALED CHANGE
+            closeJournal();
+            Files.deleteIfExists(journal.toPath());
+            journaled = 0;
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to write the name index", ex);
+        }
+    }
+
+    /**
+     * Applies a change to the in-memory maps without journaling it.
+     */
+    private boolean apply(@NotNull UUID uuid, @Nullable String name) {
+        if (name != null && name.isEmpty()) name = null;
+
+        String previous = name != null ? byId.put(uuid, name) : byId.remove(uuid);
+        if (name != null && name.equals(previous)) return false;
+        if (name == null && previous == null) return false;
+
+        if (previous != null) byName.remove(fold(previous), uuid);
+        if (name != null) byName.put(fold(name), uuid);
+        return true;
+    }
+
+    /**
+     * Appends the changes waiting to be journaled to the journal at once, compacting this index once the
+     * journal outgrows the snapshot. Runs on the shared I/O executor. A journal that cannot be written is
+     * reported but does not fail the change, since the index is corrected again the next time the user is loaded.
+     */
+    private void append() {
+        synchronized (files) {
+            try {
+                int appended = 0;
+                for (String line; (line = pending.poll()) != null; appended++) {
+                    if (writer == null) {
+                        if (journal.getParentFile() != null && !journal.getParentFile().exists()) journal.getParentFile().mkdirs();
+                        writer = Files.newBufferedWriter(journal.toPath(), StandardCharsets.UTF_8,
+                                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    }
+                    writer.write(line);
+                }
+                if (appended == 0) return;
+
+                writer.flush();
+                journaled += appended;
+                if (journaled >= COMPACT_THRESHOLD && journaled >= byId.size()) compact();
+            } catch (IOException | UserStorageException ex) {
+                new UserStorageException("Failed to journal a change of the name index", ex).printStackTrace();
+            }
+        }
+    }
+
+    private void closeJournal() throws IOException {
+        if (writer == null) return;
+
+        writer.close();
+        writer = null;
+    }
+
+    private static @Nullable UUID parse(@Nullable String value) {
+        if (value == null) return null;
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static @NotNull String fold(@NotNull String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
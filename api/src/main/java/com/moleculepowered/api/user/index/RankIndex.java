@@ -0,0 +1,440 @@
+package com.moleculepowered.api.user.index;
+
+import com.google.gson.JsonElement;
+import com.moleculepowered.api.user.UserManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An in-memory ranking of users by a numeric key of their data, such as kills or playtime. Users are
+ * ordered from the highest to the lowest score; users with the same score are ordered by unique ID so
+ * every user has a distinct rank.
+ *
+ * <p>Scores are kept in an order-statistics tree, so updating a score, looking up the rank of a user
+ * and reading the top users all take logarithmic time and never touch the disk. Indexes are declared
+ * using {@link UserManager#declareIndex(String)}, which keeps them up to date as users change.</p>
+ *
+ * <pre>{@code
+ * RankIndex kills = manager.declareIndex("kills");
+ *
+ * List<RankIndex.Entry> top = kills.getTop(10);
+ * int rank = kills.getRank(player.getUniqueId());
+ * }</pre>
+ *
+ * @author OMGitzFROST
+ * @see UserManager#declareIndex(String)
+ */
+public final class RankIndex
+{
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private final String key;
+    private Node root;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Creates a new empty index ranking users by the provided key.
+     *
+     * @param key the ranked key
+     */
+    public RankIndex(@NotNull String key) {
+        this.key = key;
+    }
+
+    /*
+    UPDATE METHODS
+     */
+
+    /**
+     * Sets the score of the provided user, adding it to this index if it was not ranked.
+     *
+     * @param uuid  the target user
+     * @param score the new score
+     * @throws IllegalArgumentException when the score is not a number
+     */
+    public void update(@NotNull UUID uuid, double score) {
+        if (Double.isNaN(score)) throw new IllegalArgumentException("The score of a ranked user must be a number");
+
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.get(uuid);
+            if (node != null) {
+                if (node.score == score) return;
+                root = erase(root, node.score, uuid);
+            }
+
+            node = new Node(uuid, score);
+            nodes.put(uuid, node);
+            root = insert(root, node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sets the score of the provided user from a stored value. Values that are missing or are not
+     * numbers remove the user from this index.
+     *
+     * @param uuid  the target user
+     * @param value the stored value
+     */
+    public void update(@NotNull UUID uuid, @Nullable JsonElement value) {
+        double score = Double.NaN;
+        if (value != null && value.isJsonPrimitive()) {
+            try {
+                score = value.getAsDouble();
+            } catch (RuntimeException ignored) {
+            }
+        }
+
+        if (Double.isNaN(score)) remove(uuid);
+        else update(uuid, score);
+    }
+
+    /**
+     * Removes the provided user from this index.
+     *
+     * @param uuid the target user
+     * @return true if the user was ranked
+     */
+    public boolean remove(@NotNull UUID uuid) {
+        lock.writeLock().lock();
+        try {
+            Node node = nodes.remove(uuid);
+            if (node == null) return false;
+
+            root = erase(root, node.score, uuid);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every user from this index.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            nodes.clear();
+            root = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+    QUERY METHODS
+     */
+
+    /**
+     * Returns the rank of the provided user, starting at 1 for the user with the highest score.
+     *
+     * @param uuid the target user
+     * @return the rank of the user, or -1 if the user is not ranked
+     */
+    public int getRank(@NotNull UUID uuid) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(uuid);
+            return node != null ? rank(node.score, uuid) : -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the score of the provided user.
+     *
+     * @param uuid the target user
+     * @return the score of the user, or null if the user is not ranked
+     */
+    public @Nullable Double getScore(@NotNull UUID uuid) {
+        lock.readLock().lock();
+        try {
+            Node node = nodes.get(uuid);
+            return node != null ? node.score : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the user at the provided rank.
+     *
+     * @param rank the target rank, starting at 1
+     * @return the entry at the rank, or null if fewer users are ranked
+     */
+    public @Nullable Entry getEntry(int rank) {
+        lock.readLock().lock();
+        try {
+            if (rank < 1 || rank > size(root)) return null;
+
+            Node node = root;
+            int remaining = rank;
+            while (true) {
+                int left = size(node.left);
+                if (remaining <= left) node = node.left;
+                else if (remaining == left + 1) return new Entry(node.uuid, node.score, rank);
+                else {
+                    remaining -= left + 1;
+                    node = node.right;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the users with the highest scores, ordered from the highest to the lowest.
+     *
+     * @param limit the maximum number of users returned
+     * @return the top users
+     */
+    public @NotNull List<Entry> getTop(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> top = new ArrayList<>(Math.max(0, Math.min(limit, size(root))));
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+
+            // IN-ORDER TRAVERSAL, STOPPING ONCE ENOUGH USERS WERE COLLECTED
+            while (top.size() < limit && (node != null || !path.isEmpty())) {
+                while (node != null) {
+                    path.push(node);
+                    node = node.left;
+                }
+                node = path.pop();
+                top.add(new Entry(node.uuid, node.score, top.size() + 1));
+                node = node.right;
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of users ranked by this index.
+     *
+     * @return the number of ranked users
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the key this index ranks users by.
+     *
+     * @return the ranked key
+     */
+    public @NotNull String getKey() {
+        return key;
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Compares a score and unique ID to a node, ordering higher scores first.
+     */
+    private static int compare(double score, @NotNull UUID uuid, @NotNull Node node) {
+        int result = Double.compare(node.score, score);
+        return result != 0 ? result : uuid.compareTo(node.uuid);
+    }
+
+    private int rank(double score, @NotNull UUID uuid) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int result = compare(score, uuid, node);
+            if (result < 0) node = node.left;
+            else if (result > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else return rank + size(node.left) + 1;
+        }
+        return -1;
+    }
+
+    private static @NotNull Node insert(@Nullable Node tree, @NotNull Node node) {
+        if (tree == null) return node;
+
+        // THE NEW NODE BECOMES THE ROOT OF THIS SUBTREE, SPLIT THE SUBTREE AROUND IT
+        if (node.priority > tree.priority) {
+            split(tree, node);
+            return node.update();
+        }
+
+        if (compare(node.score, node.uuid, tree) < 0) tree.left = insert(tree.left, node);
+        else tree.right = insert(tree.right, node);
+        return tree.update();
+    }
+
+    /**
+     * Splits the provided tree around a node not contained in it, attaching the nodes ordered
+     * before the pivot as its left subtree and the rest as its right subtree.
+     */
+    private static void split(@Nullable Node tree, @NotNull Node pivot) {
+        Node left = null, right = null, node = tree;
+        Node leftTail = null, rightTail = null;
+
+        while (node != null) {
+            Node next;
+            if (compare(node.score, node.uuid, pivot) < 0) {
+                next = node.right;
+                node.right = null;
+                if (leftTail == null) left = node;
+                else leftTail.right = node;
+                leftTail = node;
+            } else {
+                next = node.left;
+                node.left = null;
+                if (rightTail == null) right = node;
+                else rightTail.left = node;
+                rightTail = node;
+            }
+            node = next;
+        }
+        pivot.left = recount(left, true);
+        pivot.right = recount(right, false);
+    }
+
+    /**
+     * Recomputes the sizes along the spine created by {@link #split(Node, Node)}.
+     */
+    private static @Nullable Node recount(@Nullable Node spine, boolean rightSpine) {
+        Deque<Node> nodes = new ArrayDeque<>();
+        for (Node node = spine; node != null; node = rightSpine ? node.right : node.left) nodes.push(node);
+        while (!nodes.isEmpty()) nodes.pop().update();
+        return spine;
+    }
+
+    private static @Nullable Node erase(@Nullable Node tree, double score, @NotNull UUID uuid) {
+        if (tree == null) return null;
+
+        int result = compare(score, uuid, tree);
+        if (result == 0) return merge(tree.left, tree.right);
+
+        if (result < 0) tree.left = erase(tree.left, score, uuid);
+        else tree.right = erase(tree.right, score, uuid);
+        return tree.update();
+    }
+
+    /**
+     * Merges two trees, every node of the first being ordered before every node of the second.
+     */
+    private static @Nullable Node merge(@Nullable Node left, @Nullable Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static int size(@Nullable Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * A node of the treap backing this index, holding the size of its subtree.
+     */
+    private static final class Node
+    {
+        private final UUID uuid;
+        private final double score;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left, right;
+        private int size = 1;
+
+        private Node(@NotNull UUID uuid, double score) {
+            this.uuid = uuid;
+            this.score = score;
+        }
+
+        private @NotNull Node update() {
+            size = 1 + size(left) + size(right);
+            return this;
+        }
+    }
+
+    /**
+     * A ranked user, as returned by the queries of a {@link RankIndex}.
+     */
+    public static final class Entry
+    {
+        private final UUID uuid;
+        private final double score;
+        private final int rank;
+
+        private Entry(@NotNull UUID uuid, double score, int rank) {
+            this.uuid = uuid;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        /**
+         * Returns the unique ID of the ranked user.
+         *
+         * @return the unique ID of the user
+         */
+        public @NotNull UUID getUniqueId() {
+            return uuid;
+        }
+
+        /**
+         * Returns the score of the ranked user.
+         *
+         * @return the score of the user
+         */
+        public double getScore() {
+            return score;
+        }
+
+        /**
+         * Returns the rank of the user, starting at 1.
+         *
+         * @return the rank of the user
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public @NotNull String toString() {
+            return "#" + rank + " " + uuid + " (" + score + ")";
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A compact {@link UserCodec} encoding user documents as typed binary values. Compared to JSON,
+ * binary documents carry no whitespace or quoting, store numbers, booleans and unique IDs in their
+ * native form, and write every key only once: keys are listed in a dictionary at the start of the
+ * document and referenced by their position afterwards. The keys every user has, such as its name,
+ * are part of a built-in dictionary and are never written at all.
+ *
+ * <p>A document starts with a two-byte marker and a version, followed by the dictionary and the root
+ * object. Lengths, counts and key references are written as variable-length integers, so small values
+ * take a single byte. Documents convert both ways with JSON without losing information.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class BinaryCodec implements UserCodec
+{
+    private static final byte MARKER_HIGH = (byte) 0xB1, MARKER_LOW = 0x55, VERSION = 1;
+    private static final List<String> BUILT_IN = Arrays.asList("uuid", "name", "display-name", "custom-name", "locale");
+
+    // VALUE TAGS
+    private static final byte NULL = 0, FALSE = 1, TRUE = 2, INTEGER = 3, DOUBLE = 4, STRING = 5, ARRAY = 6,
+            OBJECT = 7, DECIMAL = 8, UNIQUE_ID = 9;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] encode(@NotNull JsonObject document) {
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        for (int i = 0; i < BUILT_IN.size(); i++) keys.put(BUILT_IN.get(i), i);
+        collectKeys(document, keys);
+
+        Output out = new Output();
+        out.write(MARKER_HIGH);
+        out.write(MARKER_LOW);
+        out.write(VERSION);
+
+        // THE DICTIONARY ONLY LISTS THE KEYS THAT ARE NOT BUILT IN
+        out.writeVarInt(keys.size() - BUILT_IN.size());
+        keys.keySet().stream().skip(BUILT_IN.size()).forEach(out::writeString);
+
+        writeObject(out, document, keys);
+        return out.toByteArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull JsonObject decode(byte[] data) {
+        if (!isBinary(data)) throw new UserStorageException("The provided data is not a binary user document");
+        if (data[2] != VERSION) throw new UserStorageException("Unsupported binary user document version {0}", data[2]);
+
+        try {
+            Input in = new Input(data, 3);
+            int count = in.readVarInt();
+            String[] keys = new String[BUILT_IN.size() + count];
+            for (int i = 0; i < keys.length; i++) keys[i] = i < BUILT_IN.size() ? BUILT_IN.get(i) : in.readString();
+
+            return readObject(in, keys);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new UserStorageException("Failed to parse a binary user document", ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String getExtension() {
+        return ".bin";
+    }
+
+    /**
+     * Returns true if the provided data starts with the marker of a binary document.
+     *
+     * @param data the encoded document
+     * @return true if the data is a binary document
+     */
+    static boolean isBinary(byte[] data) {
+        return data.length >= 3 && data[0] == MARKER_HIGH && data[1] == MARKER_LOW;
+    }
+
+    /*
+    ENCODING METHODS
+     */
+
+    private static void collectKeys(@NotNull JsonElement element, @NotNull Map<String, Integer> keys) {
+        if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                keys.putIfAbsent(entry.getKey(), keys.size());
+                collectKeys(entry.getValue(), keys);
+            }
+        } else if (element.isJsonArray()) {
+            for (JsonElement value : element.getAsJsonArray()) collectKeys(value, keys);
+        }
+    }
+
+    private static void writeObject(@NotNull Output out, @NotNull JsonObject object, @NotNull Map<String, Integer> keys) {
+        out.writeVarInt(object.size());
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            out.writeVarInt(keys.get(entry.getKey()));
+            writeValue(out, entry.getValue(), keys);
+        }
+    }
+
+    private static void writeValue(@NotNull Output out, @NotNull JsonElement value, @NotNull Map<String, Integer> keys) {
+        if (value.isJsonNull()) out.write(NULL);
+        else if (value.isJsonObject()) {
+            out.write(OBJECT);
+            writeObject(out, value.getAsJsonObject(), keys);
+        } else if (value.isJsonArray()) {
+            JsonArray array = value.getAsJsonArray();
+            out.write(ARRAY);
+            out.writeVarInt(array.size());
+            for (JsonElement element : array) writeValue(out, element, keys);
+        } else {
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isBoolean()) out.write(primitive.getAsBoolean() ? TRUE : FALSE);
+            else if (primitive.isNumber()) writeNumber(out, primitive.getAsNumber());
+            else writeString(out, primitive.getAsString());
+        }
+    }
+
+    private static void writeNumber(@NotNull Output out, @NotNull Number number) {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            out.write(INTEGER);
+            out.writeVarLong(zigzag(number.longValue()));
+            return;
+        }
+        if (number instanceof Double || number instanceof Float) {
+            out.write(DOUBLE);
+            out.writeLong(Double.doubleToLongBits(number.doubleValue()));
+            return;
+        }
+
+        // NUMBERS PARSED FROM JSON KEEP THEIR TEXT, ONLY CONVERT THOSE THAT SURVIVE THE ROUND TRIP
+        String text = number.toString();
+        try {
+            long integer = Long.parseLong(text);
+            out.write(INTEGER);
+            out.writeVarLong(zigzag(integer));
+            return;
+        } catch (NumberFormatException ignored) {
+        }
+
+        double decimal = Double.parseDouble(text);
+        if (Double.toString(decimal).equals(text)) {
+            out.write(DOUBLE);
+            out.writeLong(Double.doubleToLongBits(decimal));
+        } else {
+            out.write(DECIMAL);
+            out.writeString(text);
+        }
+    }
+
+    private static void writeString(@NotNull Output out, @NotNull String value) {
+        if (value.length() == 36 && value.charAt(8) == '-') {
+            try {
+                UUID uuid = UUID.fromString(value);
+                if (uuid.toString().equals(value)) {
+                    out.write(UNIQUE_ID);
+                    out.writeLong(uuid.getMostSignificantBits());
+                    out.writeLong(uuid.getLeastSignificantBits());
+                    return;
+                }
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        out.write(STRING);
+        out.writeString(value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /*
+    DECODING METHODS
+     */
+
+    private static @NotNull JsonObject readObject(@NotNull Input in, @NotNull String[] keys) {
+        JsonObject object = new JsonObject();
+        int size = in.readVarInt();
+        for (int i = 0; i < size; i++) {
+            String key = keys[in.readVarInt()];
+            object.add(key, readValue(in, keys));
+        }
+        return object;
+    }
+
+    private static @NotNull JsonElement readValue(@NotNull Input in, @NotNull String[] keys) {
+        byte tag = in.read();
+        switch (tag) {
+            case NULL:
+                return JsonNull.INSTANCE;
+            case FALSE:
+                return new JsonPrimitive(false);
+            case TRUE:
+                return new JsonPrimitive(true);
+            case INTEGER:
+                long zigzag = in.readVarLong();
+                return new JsonPrimitive((zigzag >>> 1) ^ -(zigzag & 1));
+            case DOUBLE:
+                return new JsonPrimitive(Double.longBitsToDouble(in.readLong()));
+            case STRING:
+                return new JsonPrimitive(in.readString());
+            case ARRAY:
+                JsonArray array = new JsonArray();
+                int size = in.readVarInt();
+                for (int i = 0; i < size; i++) array.add(readValue(in, keys));
+                return array;
+            case OBJECT:
+                return readObject(in, keys);
+            case DECIMAL:
+                return new JsonPrimitive(new BigDecimal(in.readString()));
+            case UNIQUE_ID:
+                return new JsonPrimitive(new UUID(in.readLong(), in.readLong()).toString());
+            default:
+                throw new IllegalArgumentException("Unknown value tag " + tag);
+        }
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * A growable byte buffer with the primitive writes used by this codec.
+     */
+    private static final class Output
+    {
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        private void write(byte value) {
+            ensure(1);
+            buffer[size++] = value;
+        }
+
+        private void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) buffer[size++] = (byte) (value >>> shift);
+        }
+
+        private void writeString(@NotNull String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    /**
+     * A cursor over an encoded document with the primitive reads used by this codec.
+     */
+    private static final class Input
+    {
+        private final byte[] data;
+        private int position;
+
+        private Input(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private byte read() {
+            if (position >= data.length) throw new IndexOutOfBoundsException("Unexpected end of document");
+            return data[position++];
+        }
+
+        private int readVarInt() {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid length " + value);
+            return (int) value;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte next = read();
+                value |= (long) (next & 0x7F) << shift;
+                if ((next & 0x80) == 0) return value;
+            }
+            throw new IllegalArgumentException("Malformed variable-length integer");
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) value = (value << 8) | (read() & 0xFF);
+            return value;
+        }
+
+        private @NotNull String readString() {
+            int length = readVarInt();
+            if (length > data.length - position) throw new IndexOutOfBoundsException("Unexpected end of document");
+
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
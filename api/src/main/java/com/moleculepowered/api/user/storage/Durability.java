@@ -0,0 +1,30 @@
+package com.moleculepowered.api.user.storage;
+
+/**
+ * How far a {@link UserStorage} goes to ensure written users survive a power loss or an operating
+ * system crash. Every level writes users atomically, so a crash of the server itself never leaves a
+ * partially written user behind; the levels only differ in when the data is forced to the disk.
+ *
+ * @author OMGitzFROST
+ */
+public enum Durability
+{
+    /**
+     * Leaves flushing to the operating system. Writes are the fastest, but the latest writes may be
+     * lost if the machine crashes.
+     */
+    NONE,
+
+    /**
+     * Forces every write to the disk before it completes. Every completed write survives a crash, at
+     * the cost of a disk synchronization per write.
+     */
+    FSYNC,
+
+    /**
+     * Forces writes to the disk before they complete, like {@link #FSYNC}, but synchronizes the writes
+     * of many users together. While one synchronization is running, every write arriving meanwhile waits
+     * and is synchronized by the next one, keeping the number of synchronizations low under load.
+     */
+    GROUP_COMMIT
+}
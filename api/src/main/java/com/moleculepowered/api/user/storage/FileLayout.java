@@ -0,0 +1,45 @@
+package com.moleculepowered.api.user.storage;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * How a {@link JsonFileStorage} arranges user files inside its folder.
+ *
+ * @author OMGitzFROST
+ * @see JsonFileStorage#setLayout(FileLayout)
+ */
+public enum FileLayout
+{
+    /**
+     * Keeps every user file directly inside the folder, as earlier versions did. Simple to browse, but
+     * listing the folder and checking whether a file exists slow down once it holds many users.
+     */
+    FLAT {
+        @Override
+        public @NotNull Path resolve(@NotNull Path folder, @NotNull String fileName) {
+            return folder.resolve(fileName);
+        }
+    },
+
+    /**
+     * Spreads user files over two levels of folders named after the first four characters of the
+     * user's unique ID, such as {@code ab/cd/abcd1234-...json}, keeping every folder small.
+     */
+    SHARDED {
+        @Override
+        public @NotNull Path resolve(@NotNull Path folder, @NotNull String fileName) {
+            return folder.resolve(fileName.substring(0, 2)).resolve(fileName.substring(2, 4)).resolve(fileName);
+        }
+    };
+
+    /**
+     * Returns the location of the provided user file inside the provided folder.
+     *
+     * @param folder   the user data folder
+     * @param fileName the name of the user file
+     * @return the location of the user file
+     */
+    public abstract @NotNull Path resolve(@NotNull Path folder, @NotNull String fileName);
+}
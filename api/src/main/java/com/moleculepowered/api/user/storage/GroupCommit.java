@@ -0,0 +1,94 @@
+package com.moleculepowered.api.user.storage;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Batches the disk synchronizations of concurrent writes. The first writer to commit becomes the leader
+ * and synchronizes every write committed so far, while writers arriving meanwhile wait and are
+ * synchronized together by the next leader.
+ *
+ * @param <T> the type of the committed writes
+ * @author OMGitzFROST
+ * @see Durability#GROUP_COMMIT
+ */
+final class GroupCommit<T>
+{
+    private final Lock lock = new ReentrantLock();
+    private final Condition finished = lock.newCondition();
+    private final Synchronizer<T> synchronizer;
+    private Batch<T> current = new Batch<>();
+    private boolean syncing;
+
+    GroupCommit(@NotNull Synchronizer<T> synchronizer) {
+        this.synchronizer = synchronizer;
+    }
+
+    /**
+     * Commits a write, blocking until the batch containing it was synchronized.
+     *
+     * @param write the committed write
+     * @throws IOException when the batch containing the write could not be synchronized
+     */
+    void commit(@NotNull T write) throws IOException {
+        lock.lock();
+        try {
+            Batch<T> batch = current;
+            batch.writes.add(write);
+
+            while (!batch.done) {
+                if (syncing) {
+                    finished.awaitUninterruptibly();
+                    continue;
+                }
+
+                // BECOME THE LEADER, SYNCHRONIZING EVERY WRITE COMMITTED SO FAR
+                Batch<T> leading = current;
+                current = new Batch<>();
+                syncing = true;
+                lock.unlock();
+                try {
+                    synchronizer.synchronize(leading.writes);
+                } catch (IOException ex) {
+                    leading.failure = ex;
+                } finally {
+                    lock.lock();
+                    leading.done = true;
+                    syncing = false;
+                    finished.signalAll();
+                }
+            }
+            if (batch.failure != null) throw new IOException("Failed to synchronize a batch of writes", batch.failure);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * Synchronizes a batch of writes to the disk.
+     *
+     * @param <T> the type of the writes
+     */
+    @FunctionalInterface
+    interface Synchronizer<T>
+    {
+        void synchronize(@NotNull List<T> writes) throws IOException;
+    }
+
+    private static final class Batch<T>
+    {
+        private final List<T> writes = new ArrayList<>();
+        private IOException failure;
+        private boolean done;
+    }
+}
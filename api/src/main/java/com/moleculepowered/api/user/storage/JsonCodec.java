@@ -0,0 +1,59 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link UserCodec} encoding user documents as UTF-8 JSON.
+ *
+ * @author OMGitzFROST
+ */
+public final class JsonCodec implements UserCodec
+{
+    private final Gson gson;
+
+    /**
+     * Creates a new JSON codec.
+     *
+     * @param pretty true to indent documents, making them easier to edit by hand
+     */
+    public JsonCodec(boolean pretty) {
+        GsonBuilder builder = new GsonBuilder().serializeNulls();
+        this.gson = pretty ? builder.setPrettyPrinting().create() : builder.create();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] encode(@NotNull JsonObject document) {
+        return gson.toJson(document).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull JsonObject decode(byte[] data) {
+        try {
+            JsonObject document = gson.fromJson(new String(data, StandardCharsets.UTF_8), JsonObject.class);
+            return document != null ? document : new JsonObject();
+        } catch (JsonParseException ex) {
+            throw new UserStorageException("Failed to parse a JSON user document", ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String getExtension() {
+        return ".json";
+    }
+}
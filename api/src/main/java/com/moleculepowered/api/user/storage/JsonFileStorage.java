@@ -0,0 +1,568 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.moleculepowered.api.concurrent.IOExecutor;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import com.moleculepowered.api.user.UserView;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link UserStorage} keeping every user in its own file, named after the user's unique ID. By default,
+ * files are pretty-printed JSON, which is the layout used by earlier versions; another {@link UserCodec},
+ * such as the compact {@link UserCodec#BINARY binary} codec, can be selected when the storage is created.
+ * Files written by another codec are still read, and are converted the next time their user is written.
+ *
+ * <p>Files are never written in place. Every write goes to a temporary file which is then atomically
+ * renamed over the previous version, so a crash or a full disk leaves either the old or the new file.
+ * Whether writes are also forced to the disk is controlled by {@link #setDurability(Durability)}.</p>
+ *
+ * <p>Files are arranged using a {@link FileLayout}. Users are found in any layout, so the layout can be
+ * changed at any time; files are moved into the current layout as their user is written, or all at once
+ * in the background using {@link #migrateLayout()}.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class JsonFileStorage implements UserStorage
+{
+    private static final TypeAdapter<JsonElement> ELEMENTS = new Gson().getAdapter(JsonElement.class);
+    private final GroupCommit<Write> group = new GroupCommit<>(this::commit);
+    private final List<String> extensions = new ArrayList<>();
+    private final UserCodec codec;
+    private final File folder;
+    private volatile Durability durability = Durability.NONE;
+    private volatile FileLayout layout = FileLayout.FLAT;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new storage keeping its files inside the provided folder.
+     *
+     * @param folder the user data folder
+     */
+    public JsonFileStorage(@NotNull File folder) {
+        this(folder, UserCodec.JSON);
+    }
+
+    /**
+     * Creates a new storage keeping its files inside the provided folder, encoded using the provided codec.
+     *
+     * @param folder the user data folder
+     * @param codec  the codec files are written with
+     */
+    public JsonFileStorage(@NotNull File folder, @NotNull UserCodec codec) {
+        this.folder = folder;
+        this.codec = codec;
+
+        // THE CODEC'S OWN EXTENSION COMES FIRST, FILES OF THE BUILT-IN CODECS ARE READ AS WELL
+        extensions.add(codec.getExtension());
+        for (UserCodec known : new UserCodec[]{UserCodec.JSON, UserCodec.BINARY})
+            if (!extensions.contains(known.getExtension())) extensions.add(known.getExtension());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable JsonObject load(@NotNull UUID uuid) {
+        File file = find(uuid);
+        if (file == null) return null;
+
+        try {
+            byte[] data = Files.readAllBytes(file.toPath());
+            return UserCodec.detect(data).decode(data);
+        } catch (IOException | UserStorageException ex) {
+            throw new UserStorageException("Failed to read " + file.getName(), ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void store(@NotNull UUID uuid, @NotNull JsonObject data) {
+        Write write = prepare(uuid, data);
+        try {
+            switch (durability) {
+                case NONE:
+                    write.replace();
+                    break;
+                case FSYNC:
+                    commit(Collections.singletonList(write));
+                    break;
+                case GROUP_COMMIT:
+                    group.commit(write);
+                    break;
+            }
+        } catch (IOException ex) {
+            write.discard();
+            throw new UserStorageException("Failed to write " + write.target.getFileName(), ex);
+        }
+    }
+
+    /**
+     * Stores the data of every provided user. Every file is written before any of them replaces its
+     * previous version, and the whole batch is synchronized to the disk at once.
+     *
+     * @param data the data of every user
+     */
+    @Override
+    public void storeAll(@NotNull Map<UUID, JsonObject> data) {
+        List<Write> writes = new ArrayList<>(data.size());
+        try {
+            data.forEach((uuid, json) -> writes.add(prepare(uuid, json)));
+            if (durability == Durability.NONE) {
+                for (Write write : writes) write.replace();
+            } else commit(writes);
+        } catch (IOException ex) {
+            writes.forEach(Write::discard);
+            throw new UserStorageException("Failed to write a batch of users", ex);
+        } catch (UserStorageException ex) {
+            writes.forEach(Write::discard);
+            throw ex;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean delete(@NotNull UUID uuid) {
+        boolean deleted = false;
+        for (Path path : candidates(uuid)) deleted |= path.toFile().delete();
+        return deleted;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean exists(@NotNull UUID uuid) {
+        return find(uuid) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Collection<UUID> keys() {
+        Set<UUID> keys = new LinkedHashSet<>();
+        try (Stream<Path> files = listFiles()) {
+            files.forEach(path -> {
+                UUID uuid = parseName(path.getFileName().toString());
+                if (uuid != null) keys.add(uuid);
+            });
+        }
+        return keys;
+    }
+
+    /**
+     * Lazily streams a read-only view of every user file, walking the folder with a directory stream
+     * and parsing files in parallel on the common fork-join pool. JSON files are parsed as a stream of tokens,
+     * so values outside the projection are skipped without being built, and parsing stops once every
+     * projected key was read. The returned stream must be closed to release the directory handle.
+     *
+     * @param projection the keys to read, or null to read every key
+     * @return a parallel stream of user views
+     */
+    @Override
+    public @NotNull Stream<UserView> scan(@Nullable Set<String> projection) {
+        return listFiles().parallel().map(path -> read(path, projection)).filter(Objects::nonNull);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull File getLocation(@NotNull UUID uuid) {
+        return layout.resolve(folder.toPath(), uuid + codec.getExtension()).toFile();
+    }
+
+    /**
+     * Stops a running layout migration. Files already moved stay in the new layout.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Sets how far writes go to ensure they survive a crash. Regardless of the durability, every file is
+     * written next to its previous version and atomically renamed over it, so a crash or a full disk never
+     * leaves a partially written user file. By default, flushing is left to the operating system.
+     *
+     * @param durability the durability of writes
+     * @return this storage
+     */
+    public @NotNull JsonFileStorage setDurability(@NotNull Durability durability) {
+        this.durability = durability;
+        return this;
+    }
+
+    /**
+     * Returns how far writes go to ensure they survive a crash.
+     *
+     * @return the durability of writes
+     */
+    public @NotNull Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Sets the layout new files are written in. Users stored in another layout are still found, and are
+     * moved into the new layout the next time they are written; use {@link #migrateLayout()} to move every
+     * file at once. By default, files are written in the {@link FileLayout#FLAT flat} layout.
+     *
+     * @param layout the layout of new files
+     * @return this storage
+     */
+    public @NotNull JsonFileStorage setLayout(@NotNull FileLayout layout) {
+        this.layout = layout;
+        return this;
+    }
+
+    /**
+     * Returns the layout new files are written in.
+     *
+     * @return the layout of new files
+     */
+    public @NotNull FileLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Moves every user file that is not in the current layout into it, on the shared {@link IOExecutor}.
+     * The storage stays fully usable meanwhile: every file exists in either its old or its new location at
+     * all times, and a file written during the migration is never replaced by its older version. Since the
+     * migration only moves what is left in another layout, an interrupted migration simply resumes the next
+     * time it is started. Closing the storage stops it.
+     *
+     * @return a future completed with the number of files moved
+     */
+    public @NotNull CompletableFuture<Integer> migrateLayout() {
+        return IOExecutor.supply(() -> {
+            FileLayout target = layout;
+            int moved = 0;
+            try (Stream<Path> files = listFiles()) {
+                Iterator<Path> iterator = files.iterator();
+                while (iterator.hasNext() && !closed) {
+                    Path path = iterator.next();
+                    Path destination = target.resolve(folder.toPath(), path.getFileName().toString());
+                    if (!destination.equals(path) && relocate(path, destination)) moved++;
+                }
+            }
+            return moved;
+        });
+    }
+
+    /**
+     * Moves a user file without ever replacing a file already at the destination, which can only be a
+     * newer version written since the layout changed. In that case, the source is deleted instead.
+     *
+     * @param source      the current location
+     * @param destination the new location
+     * @return true if the file was moved
+     */
+    private boolean relocate(@NotNull Path source, @NotNull Path destination) {
+        try {
+            Files.createDirectories(destination.getParent());
+            try {
+
+                // A HARD LINK IS CREATED ATOMICALLY AND FAILS IF THE DESTINATION EXISTS
+                Files.createLink(destination, source);
+            } catch (UnsupportedOperationException | FileSystemException ex) {
+                if (ex instanceof FileAlreadyExistsException) throw (FileAlreadyExistsException) ex;
+                Files.move(source, destination);
+                return true;
+            }
+            Files.deleteIfExists(source);
+            return true;
+        } catch (FileAlreadyExistsException ex) {
+            try {
+                Files.deleteIfExists(source);
+            } catch (IOException ignored) {
+            }
+            return false;
+        } catch (IOException ex) {
+            new UserStorageException("Failed to move " + source.getFileName(), ex).printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Lazily lists every user file, in every layout. Folders are read using directory streams, which
+     * are closed once they were consumed or when the returned stream is closed.
+     *
+     * @return the user files
+     */
+    private @NotNull Stream<Path> listFiles() {
+        if (!folder.isDirectory()) return Stream.empty();
+        return list(folder.toPath()).flatMap(path -> {
+            String name = path.getFileName().toString();
+            if (isShard(name) && Files.isDirectory(path))
+                return list(path).filter(shard -> isShard(shard.getFileName().toString())).flatMap(this::list);
+            return Stream.of(path);
+        }).filter(path -> {
+            String name = path.getFileName().toString();
+            return extensions.stream().anyMatch(name::endsWith) && Files.isRegularFile(path);
+        });
+    }
+
+    private @NotNull Stream<Path> list(@NotNull Path directory) {
+        DirectoryStream<Path> entries;
+        try {
+            entries = Files.newDirectoryStream(directory);
+        } catch (NotDirectoryException ex) {
+            return Stream.empty();
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to list " + directory.getFileName(), ex);
+        }
+
+        Spliterator<Path> paths = Spliterators.spliteratorUnknownSize(entries.iterator(), Spliterator.NONNULL);
+        return StreamSupport.stream(paths, false).onClose(() -> {
+            try {
+                entries.close();
+            } catch (IOException ignored) {
+            }
+        });
+    }
+
+    private static boolean isShard(@NotNull String name) {
+        return name.length() == 2 && Character.digit(name.charAt(0), 16) >= 0 && Character.digit(name.charAt(1), 16) >= 0;
+    }
+
+    /**
+     * Returns every location the provided user may be stored at, across every layout and codec, starting
+     * with the locations of the current layout.
+     *
+     * @param uuid the target user
+     * @return the possible locations of the user
+     */
+    private @NotNull List<Path> candidates(@NotNull UUID uuid) {
+        FileLayout current = layout;
+        List<Path> candidates = new ArrayList<>(extensions.size() * FileLayout.values().length);
+        for (String extension : extensions) candidates.add(current.resolve(folder.toPath(), uuid + extension));
+        for (FileLayout other : FileLayout.values()) {
+            if (other == current) continue;
+            for (String extension : extensions) candidates.add(other.resolve(folder.toPath(), uuid + extension));
+        }
+        return candidates;
+    }
+
+    /**
+     * Writes the data of a user into a temporary file next to its user file. Every thread uses its own
+     * temporary file, so concurrent writes of the same user never share one.
+     *
+     * @param uuid the target user
+     * @param data the data of the user
+     * @return the pending write
+     */
+    private @NotNull Write prepare(@NotNull UUID uuid, @NotNull JsonObject data) {
+        Path target = getLocation(uuid).toPath();
+        File parent = target.getParent().toFile();
+        if (!parent.exists() && !parent.mkdirs()) throw new UserStorageException("Unable to create user data folder");
+
+        Path temp = target.resolveSibling(target.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            Files.write(temp, codec.encode(data));
+        } catch (IOException ex) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+            throw new UserStorageException("Failed to write " + target.getFileName(), ex);
+        }
+        List<Path> stale = candidates(uuid);
+        stale.remove(target);
+        return new Write(temp, target, stale);
+    }
+
+    /**
+     * Forces the provided temporary files to the disk, renames them over their user files and forces
+     * the folder, so the renames themselves survive a crash.
+     *
+     * @param writes the pending writes
+     * @throws IOException when a file could not be synchronized or renamed
+     */
+    private void commit(@NotNull List<Write> writes) throws IOException {
+        Set<Path> folders = new LinkedHashSet<>();
+        for (Write write : writes) force(write.temp, false);
+        for (Write write : writes) {
+            write.replace();
+            folders.add(write.target.getParent());
+        }
+
+        // NOT EVERY PLATFORM ALLOWS SYNCHRONIZING A DIRECTORY, THE RENAMES ARE STILL ATOMIC THERE
+        for (Path folder : folders) {
+            try {
+                force(folder, true);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void force(@NotNull Path path, boolean directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, directory ? StandardOpenOption.READ : StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads the projected keys of a user file, returning null if the file is not a user file or cannot be read.
+     *
+     * @param path       the user file
+     * @param projection the keys to read, or null to read every key
+     * @return the view of the user
+     */
+    private @Nullable UserView read(@NotNull Path path, @Nullable Set<String> projection) {
+        String name = path.getFileName().toString();
+        UUID uuid = parseName(name);
+        if (uuid == null) return null;
+
+        if (!name.endsWith(UserCodec.JSON.getExtension())) {
+            try {
+                byte[] data = Files.readAllBytes(path);
+                return UserView.copy(uuid, UserCodec.detect(data).decode(data), projection);
+            } catch (IOException | UserStorageException ex) {
+                new UserStorageException("Failed to read " + name, ex).printStackTrace();
+                return null;
+            }
+        }
+
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            reader.setLenient(true);
+            JsonObject data = new JsonObject();
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) return UserView.wrap(uuid, data);
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                if (projection == null || projection.contains(key)) data.add(key, ELEMENTS.read(reader));
+                else reader.skipValue();
+
+                // EVERY PROJECTED KEY WAS READ, THE REST OF THE FILE IS NOT NEEDED
+                if (projection != null && data.size() == projection.size()) break;
+            }
+            return UserView.wrap(uuid, data);
+        } catch (IOException | RuntimeException ex) {
+            new UserStorageException("Failed to read " + name, ex).printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the file of the provided user, which may have been written by another codec.
+     *
+     * @param uuid the target user
+     * @return the user file, or null if the user is not stored
+     */
+    private @Nullable File find(@NotNull UUID uuid) {
+        List<Path> candidates = candidates(uuid);
+
+        // LOOK TWICE, A FILE MOVED BY A MIGRATION BETWEEN TWO CHECKS IS FOUND BY THE SECOND PASS
+        for (int pass = 0; pass < 2; pass++) {
+            for (Path path : candidates) {
+                if (Files.exists(path)) return path.toFile();
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable UUID parseName(@NotNull String name) {
+        int dot = name.lastIndexOf('.');
+        try {
+            return dot > 0 ? UUID.fromString(name.substring(0, dot)) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the codec user files are written with.
+     *
+     * @return the codec of this storage
+     */
+    public @NotNull UserCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Returns the folder containing the user files.
+     *
+     * @return the user data folder
+     */
+    public @NotNull File getFolder() {
+        return folder;
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * A user file written to a temporary file, waiting to replace its previous version.
+     */
+    private static final class Write
+    {
+        private final Path temp, target;
+        private final List<Path> stale;
+
+        private Write(@NotNull Path temp, @NotNull Path target, @NotNull List<Path> stale) {
+            this.temp = temp;
+            this.target = target;
+            this.stale = stale;
+        }
+
+        /**
+         * Renames the temporary file over the user file, then removes versions written by other codecs.
+         */
+        private void replace() throws IOException {
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            for (Path path : stale) Files.deleteIfExists(path);
+        }
+
+        private void discard() {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
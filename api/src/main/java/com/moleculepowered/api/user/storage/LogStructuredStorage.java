@@ -0,0 +1,681 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.JsonObject;
+import com.moleculepowered.api.concurrent.IOExecutor;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * An embedded {@link UserStorage} keeping every user in a single, append-only log file. Every write
+ * appends a record to the end of the log, while an in-memory index maps each user to its latest
+ * record, so reads cost a single positional read and no directory is ever listed.
+ *
+ * <p>Records replaced or deleted by later records become garbage. Once garbage makes up a large share
+ * of the log, the log is compacted in the background by copying the live records into a new file,
+ * which atomically replaces the old one. Writes continue while a compaction is running.</p>
+ *
+ * <p>Each record is checksummed. When the log is opened, a record that was only partially written,
+ * for example after a crash, is discarded along with everything after it.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class LogStructuredStorage implements UserStorage
+{
+    private static final int MAGIC = 0x4D4C5331;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int FILE_HEADER = 8;
+    private static final int RECORD_HEADER = 1 + 16 + 4;
+    private static final int RECORD_TRAILER = 4;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final AtomicLong garbage = new AtomicLong();
+    private final Object appendLock = new Object();
+    private final GroupCommit<UUID> group = new GroupCommit<>(this::force);
+    private volatile Durability durability = Durability.NONE;
+    private volatile UserCodec codec = new JsonCodec(false);
+    private final File file;
+    private volatile Map<UUID, Pointer> index = new ConcurrentHashMap<>();
+    private volatile double compactionRatio = 0.5;
+    private volatile long compactionThreshold = 1 << 20;
+    private FileChannel channel;
+    private long end;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Opens the provided log file, creating it if it does not exist, and rebuilds its index.
+     *
+     * @param file the log file
+     * @throws UserStorageException when the file could not be opened or is not a user log
+     */
+    public LogStructuredStorage(@NotNull File file) {
+        this.file = file;
+        try {
+            if (file.getParentFile() != null && !file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+                throw new UserStorageException("Unable to create user data folder");
+            }
+            open();
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to open " + file.getName(), ex);
+        }
+    }
+
+    /*
+    CHAIN METHODS
+     */
+
+    /**
+     * Sets the share of garbage in the log that triggers a background compaction. Compaction is
+     * never triggered before the garbage exceeds the {@link #setCompactionThreshold(long) threshold}.
+     *
+     * @param ratio the garbage ratio, between 0 and 1
+     * @return an instance of this storage chain
+     */
+    public @NotNull LogStructuredStorage setCompactionRatio(double ratio) {
+        this.compactionRatio = Math.max(0, Math.min(1, ratio));
+        return this;
+    }
+
+    /**
+     * Sets the minimum amount of garbage, in bytes, required before a compaction is triggered.
+     *
+     * @param bytes the minimum garbage size
+     * @return an instance of this storage chain
+     */
+    public @NotNull LogStructuredStorage setCompactionThreshold(long bytes) {
+        this.compactionThreshold = Math.max(0, bytes);
+        return this;
+    }
+
+    /*
+    STORAGE METHODS
+     */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @Nullable JsonObject load(@NotNull UUID uuid) {
+        byte[] payload;
+        lock.readLock().lock();
+        try {
+            Pointer pointer = index.get(uuid);
+            if (pointer == null) return null;
+            payload = readPayload(channel, pointer);
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to read " + uuid + " from " + file.getName(), ex);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            return UserCodec.detect(payload).decode(payload);
+        } catch (UserStorageException ex) {
+            throw new UserStorageException("Failed to parse " + uuid + " from " + file.getName(), ex);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void store(@NotNull UUID uuid, @NotNull JsonObject data) {
+        append(PUT, uuid, codec.encode(data));
+        sync(uuid);
+    }
+
+    /**
+     * Stores the data of every provided user, appending every record before synchronizing the log once.
+     *
+     * @param data the data of every user
+     */
+    @Override
+    public void storeAll(@NotNull Map<UUID, JsonObject> data) {
+        if (data.isEmpty()) return;
+
+        data.forEach((uuid, json) -> append(PUT, uuid, codec.encode(json)));
+        if (durability != Durability.NONE) {
+            try {
+                force(Collections.emptyList());
+            } catch (IOException ex) {
+                throw new UserStorageException("Failed to synchronize " + file.getName(), ex);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean delete(@NotNull UUID uuid) {
+        if (!index.containsKey(uuid)) return false;
+
+        boolean existed = append(DELETE, uuid, new byte[0]);
+        sync(uuid);
+        return existed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean exists(@NotNull UUID uuid) {
+        return index.containsKey(uuid);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull Collection<UUID> keys() {
+        return new ArrayList<>(index.keySet());
+    }
+
+    /**
+     * Sets how far appended records go to ensure they survive a crash. Records are checksummed, so a crash
+     * never leaves a partially written record behind regardless of the durability. By default, flushing is
+     * left to the operating system.
+     *
+     * @param durability the durability of writes
+     * @return this storage
+     */
+    public @NotNull LogStructuredStorage setDurability(@NotNull Durability durability) {
+        this.durability = durability;
+        return this;
+    }
+
+    /**
+     * Returns how far appended records go to ensure they survive a crash.
+     *
+     * @return the durability of writes
+     */
+    public @NotNull Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Sets the codec new records are encoded with. Records written by another codec are still read, and
+     * are converted when their user is written again or when the log is compacted. By default, records
+     * are encoded as compact JSON.
+     *
+     * @param codec the codec of new records
+     * @return this storage
+     */
+    public @NotNull LogStructuredStorage setCodec(@NotNull UserCodec codec) {
+        this.codec = codec;
+        return this;
+    }
+
+    /**
+     * Returns the codec new records are encoded with.
+     *
+     * @return the codec of new records
+     */
+    public @NotNull UserCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Returns the log file, which contains every user.
+     *
+     * @param uuid the target user
+     * @return the log file
+     */
+    @Override
+    public @NotNull File getLocation(@NotNull UUID uuid) {
+        return file;
+    }
+
+    /**
+     * Forces every record to disk and closes the log file.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (!channel.isOpen()) return;
+            channel.force(true);
+            channel.close();
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to close " + file.getName(), ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+    COMPACTION
+     */
+
+    /**
+     * Compacts the log, blocking until the compacted log replaced the current one. Live records are
+     * copied without blocking writers; only records appended during the copy are replayed while
+     * writers are blocked. Nothing is done if another compaction, such as a background one, is running.
+     *
+     * @return true if the log was compacted, false if another compaction was running
+     * @throws UserStorageException when the log could not be compacted
+     */
+    public boolean compact() {
+        if (!compacting.compareAndSet(false, true)) return false;
+        try {
+            compactLog();
+            return true;
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * Copies the live records into a new log and swaps it in place of the current one. Callers must
+     * hold the compaction flag, since every compaction writes the same temporary file.
+     *
+     * @throws UserStorageException when the log could not be compacted
+     */
+    private void compactLog() {
+        File temp = new File(file.getPath() + ".compact");
+        Map<UUID, Pointer> snapshot;
+        long start;
+
+        // CAPTURE THE LIVE RECORDS AND THE END OF THE LOG THEY WERE CAPTURED AT
+        lock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                start = end;
+                snapshot = new HashMap<>(index);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.READ);
+            Map<UUID, Pointer> compacted = new ConcurrentHashMap<>();
+            long position;
+
+            try {
+                position = writeFileHeader(out);
+                for (Map.Entry<UUID, Pointer> entry : snapshot.entrySet()) {
+                    byte[] payload;
+                    lock.readLock().lock();
+                    try {
+                        payload = readPayload(channel, entry.getValue());
+                    } finally {
+                        lock.readLock().unlock();
+                    }
+                    compacted.put(entry.getKey(), new Pointer(position, payload.length));
+                    position += writeRecord(out, position, PUT, entry.getKey(), payload);
+                }
+            } catch (IOException | RuntimeException ex) {
+                out.close();
+                Files.deleteIfExists(temp.toPath());
+                throw ex;
+            }
+
+            lock.writeLock().lock();
+            try {
+
+                // REPLAY EVERY RECORD APPENDED WHILE THE LIVE RECORDS WERE COPIED
+                Record record;
+                long tail = start;
+                while (tail < end && (record = readRecord(channel, tail, end)) != null) {
+                    if (record.op == PUT) compacted.put(record.uuid, new Pointer(position, record.payload.length));
+                    else compacted.remove(record.uuid);
+                    position += writeRecord(out, position, record.op, record.uuid, record.payload);
+                    tail += record.size();
+                }
+                out.force(true);
+                out.close();
+
+                // SWAP THE COMPACTED LOG IN PLACE OF THE CURRENT ONE
+                channel.close();
+                try {
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+                synchronized (appendLock) {
+                    index = compacted;
+                    end = position;
+                    garbage.set(0);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to compact " + file.getName(), ex);
+        }
+    }
+
+    /**
+     * Returns the size of the log, in bytes.
+     *
+     * @return the size of the log
+     */
+    public long getSize() {
+        synchronized (appendLock) {
+            return end;
+        }
+    }
+
+    /**
+     * Returns the number of bytes in the log occupied by replaced or deleted records.
+     *
+     * @return the size of the garbage
+     */
+    public long getGarbage() {
+        return garbage.get();
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Opens the log file and rebuilds the index by replaying every record. A torn or corrupted
+     * record ends the replay and is truncated from the log.
+     *
+     * @throws IOException when the file could not be read
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+
+        if (size < FILE_HEADER) {
+            channel.truncate(0);
+            end = writeFileHeader(channel);
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+        readFully(channel, header, 0);
+        if (header.getInt(0) != MAGIC) throw new UserStorageException("{0} is not a user data log", file.getName());
+
+        long position = FILE_HEADER;
+        Record record;
+        while ((record = readRecord(channel, position, size)) != null) {
+            apply(record.op, record.uuid, new Pointer(position, record.payload.length));
+            position += record.size();
+        }
+        if (position < size) channel.truncate(position);
+        end = position;
+    }
+
+    /**
+     * Appends a record to the log and updates the index, triggering a compaction if necessary.
+     *
+     * @param op      the record type
+     * @param uuid    the target user
+     * @param payload the record payload
+     * @return true if the index contained the user before this record
+     */
+    private boolean append(byte op, @NotNull UUID uuid, byte[] payload) {
+        boolean existed;
+        lock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                Pointer pointer = new Pointer(end, payload.length);
+                end += writeRecord(channel, end, op, uuid, payload);
+                existed = apply(op, uuid, pointer);
+            }
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to write " + uuid + " to " + file.getName(), ex);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        scheduleCompaction();
+        return existed;
+    }
+
+    /**
+     * Forces the log to the disk as required by the durability, once a record of the provided user was appended.
+     *
+     * @param uuid the written user
+     */
+    private void sync(@NotNull UUID uuid) {
+        try {
+            switch (durability) {
+                case FSYNC:
+                    force(Collections.emptyList());
+                    break;
+                case GROUP_COMMIT:
+                    group.commit(uuid);
+                    break;
+                default:
+                    break;
+            }
+        } catch (IOException ex) {
+            throw new UserStorageException("Failed to synchronize " + uuid + " to " + file.getName(), ex);
+        }
+    }
+
+    /**
+     * Forces every appended record to the disk. A forced log also covers records appended by other
+     * threads, which is what allows {@link Durability#GROUP_COMMIT} to synchronize many writes at once.
+     *
+     * @param writes the writes covered, unused
+     * @throws IOException when the log could not be forced
+     */
+    private void force(@NotNull List<UUID> writes) throws IOException {
+        lock.readLock().lock();
+        try {
+            channel.force(false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a record to the index and accounts for the garbage it creates.
+     *
+     * @param op      the record type
+     * @param uuid    the target user
+     * @param pointer the location of the record
+     * @return true if the index contained the user before this record
+     */
+    private boolean apply(byte op, @NotNull UUID uuid, @NotNull Pointer pointer) {
+        Pointer previous = op == PUT ? index.put(uuid, pointer) : index.remove(uuid);
+        if (previous != null) garbage.addAndGet(previous.size());
+        if (op == DELETE) garbage.addAndGet(pointer.size());
+        return previous != null;
+    }
+
+    /**
+     * Starts a background compaction if the garbage exceeds both the threshold and the ratio, and
+     * no compaction is already running.
+     */
+    private void scheduleCompaction() {
+        long garbage = this.garbage.get();
+        if (garbage < compactionThreshold || garbage < getSize() * compactionRatio) return;
+        if (!compacting.compareAndSet(false, true)) return;
+
+        IOExecutor.execute(() -> {
+            try {
+                compactLog();
+            } catch (UserStorageException ex) {
+                ex.printStackTrace();
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    /**
+     * Writes the file header at the start of the provided channel.
+     *
+     * @param channel the target channel
+     * @return the size of the header
+     * @throws IOException when the header could not be written
+     */
+    private static long writeFileHeader(@NotNull FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER).putInt(MAGIC).putInt(1);
+        header.flip();
+        writeFully(channel, header, 0);
+        return FILE_HEADER;
+    }
+
+    /**
+     * Writes a record at the provided position.
+     *
+     * @param channel  the target channel
+     * @param position the position of the record
+     * @param op       the record type
+     * @param uuid     the target user
+     * @param payload  the record payload
+     * @return the size of the record
+     * @throws IOException when the record could not be written
+     */
+    private static int writeRecord(@NotNull FileChannel channel, long position, byte op, @NotNull UUID uuid, byte[] payload) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length + RECORD_TRAILER);
+        record.put(op).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).putInt(payload.length).put(payload);
+
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        writeFully(channel, record, position);
+        return record.limit();
+    }
+
+    /**
+     * Reads and validates the record at the provided position.
+     *
+     * @param channel  the source channel
+     * @param position the position of the record
+     * @param limit    the end of the readable log
+     * @return the record, or null if the record is incomplete or corrupted
+     * @throws IOException when the record could not be read
+     */
+    private static @Nullable Record readRecord(@NotNull FileChannel channel, long position, long limit) throws IOException {
+        if (position + RECORD_HEADER + RECORD_TRAILER > limit) return null;
+
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        readFully(channel, header, position);
+        byte op = header.get(0);
+        int length = header.getInt(17);
+        if ((op != PUT && op != DELETE) || length < 0 || position + RECORD_HEADER + length + RECORD_TRAILER > limit) return null;
+
+        ByteBuffer body = ByteBuffer.allocate(length + RECORD_TRAILER);
+        readFully(channel, body, position + RECORD_HEADER);
+
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, RECORD_HEADER);
+        crc.update(body.array(), 0, length);
+        if ((int) crc.getValue() != body.getInt(length)) return null;
+
+        byte[] payload = new byte[length];
+        System.arraycopy(body.array(), 0, payload, 0, length);
+        return new Record(op, new UUID(header.getLong(1), header.getLong(9)), payload);
+    }
+
+    /**
+     * Reads the payload of the record the provided pointer refers to.
+     *
+     * @param channel the source channel
+     * @param pointer the record location
+     * @return the record payload
+     * @throws IOException when the payload could not be read
+     */
+    private static byte[] readPayload(@NotNull FileChannel channel, @NotNull Pointer pointer) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(pointer.length);
+        readFully(channel, payload, pointer.offset + RECORD_HEADER);
+        return payload.array();
+    }
+
+    /**
+     * Fills the provided buffer from the channel, starting at the provided position.
+     *
+     * @param channel  the source channel
+     * @param buffer   the target buffer
+     * @param position the position to read from
+     * @throws IOException when the channel ends before the buffer is filled
+     */
+    private static void readFully(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Unexpected end of log");
+        }
+    }
+
+    /**
+     * Writes the provided buffer to the channel, starting at the provided position.
+     *
+     * @param channel  the target channel
+     * @param buffer   the source buffer
+     * @param position the position to write at
+     * @throws IOException when the buffer could not be written
+     */
+    private static void writeFully(@NotNull FileChannel channel, @NotNull ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer, position + buffer.position());
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * The location of a user's latest record in the log.
+     */
+    private static final class Pointer
+    {
+        private final long offset;
+        private final int length;
+
+        private Pointer(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        private int size() {
+            return RECORD_HEADER + length + RECORD_TRAILER;
+        }
+    }
+
+    /**
+     * A record read from the log.
+     */
+    private static final class Record
+    {
+        private final byte op;
+        private final UUID uuid;
+        private final byte[] payload;
+
+        private Record(byte op, @NotNull UUID uuid, byte[] payload) {
+            this.op = op;
+            this.uuid = uuid;
+            this.payload = payload;
+        }
+
+        private int size() {
+            return RECORD_HEADER + payload.length + RECORD_TRAILER;
+        }
+    }
+}
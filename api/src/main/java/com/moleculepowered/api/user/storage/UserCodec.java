@@ -0,0 +1,62 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.JsonObject;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Converts user documents from and to the bytes a {@link UserStorage} keeps on disk. Every codec
+ * converts both ways with JSON, so a storage can switch codecs at any time: documents written by
+ * another codec are still read, and are converted the next time they are written.
+ *
+ * @author OMGitzFROST
+ * @see JsonCodec
+ * @see BinaryCodec
+ */
+public interface UserCodec
+{
+    /**
+     * The pretty-printed JSON codec used by earlier versions.
+     */
+    UserCodec JSON = new JsonCodec(true);
+
+    /**
+     * The compact binary codec.
+     */
+    UserCodec BINARY = new BinaryCodec();
+
+    /**
+     * Encodes the provided document.
+     *
+     * @param document the user document
+     * @return the encoded document
+     */
+    byte[] encode(@NotNull JsonObject document);
+
+    /**
+     * Decodes the provided document.
+     *
+     * @param data the encoded document
+     * @return the user document
+     * @throws UserStorageException when the data is not a document of this codec
+     */
+    @NotNull JsonObject decode(byte[] data);
+
+    /**
+     * Returns the extension of files containing documents of this codec, including the leading dot.
+     *
+     * @return the file extension
+     */
+    @NotNull String getExtension();
+
+    /**
+     * Returns the codec the provided document was encoded with, recognizing binary documents by their
+     * leading marker and treating everything else as JSON.
+     *
+     * @param data the encoded document
+     * @return the codec able to decode the document
+     */
+    static @NotNull UserCodec detect(byte[] data) {
+        return BinaryCodec.isBinary(data) ? BINARY : JSON;
+    }
+}
@@ -0,0 +1,148 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.JsonObject;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import com.moleculepowered.api.user.UserData;
+import com.moleculepowered.api.user.UserManager;
+import com.moleculepowered.api.user.UserView;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The storage backend underneath {@link UserData}, responsible for reading and writing the data of
+ * every user handled by a {@link UserManager}. Implementations must be thread-safe, since users are
+ * written from the shared I/O executor while other users are being read.
+ *
+ * <p>Every method reports failures using a {@link UserStorageException}.</p>
+ *
+ * @author OMGitzFROST
+ * @see JsonFileStorage
+ * @see LogStructuredStorage
+ * @see UserManager#setStorage(UserStorage)
+ */
+public interface UserStorage extends AutoCloseable
+{
+    /**
+     * Loads the data of the provided user.
+     *
+     * @param uuid the target user
+     * @return the data of the user, or null if the user is not stored
+     */
+    @Nullable JsonObject load(@NotNull UUID uuid);
+
+    /**
+     * Stores the data of the provided user, replacing any data previously stored.
+     *
+     * @param uuid the target user
+     * @param data the data of the user
+     */
+    void store(@NotNull UUID uuid, @NotNull JsonObject data);
+
+    /**
+     * Stores the data of every provided user. Implementations may write the batch more efficiently than
+     * storing every user on its own, for example by synchronizing it to the disk at once. By default,
+     * this method stores every user in turn.
+     *
+     * @param data the data of every user
+     */
+    default void storeAll(@NotNull Map<UUID, JsonObject> data) {
+        data.forEach(this::store);
+    }
+
+    /**
+     * Deletes the data of the provided user.
+     *
+     * @param uuid the target user
+     * @return true if the user was stored and is now deleted
+     */
+    boolean delete(@NotNull UUID uuid);
+
+    /**
+     * Returns true if data is stored for the provided user.
+     *
+     * @param uuid the target user
+     * @return true if the user is stored
+     */
+    boolean exists(@NotNull UUID uuid);
+
+    /**
+     * Returns the unique IDs of every user stored by this storage.
+     *
+     * @return the stored users
+     */
+    @NotNull Collection<UUID> keys();
+
+    /**
+     * Returns the file the provided user's data is stored in. Storages keeping every user in the
+     * same file return that file.
+     *
+     * @param uuid the target user
+     * @return the file containing the user's data
+     */
+    @NotNull File getLocation(@NotNull UUID uuid);
+
+    /**
+     * Lazily streams a read-only view of every stored user, reading users in parallel. Only the keys in
+     * the provided projection are kept, and implementations may skip parsing the remaining keys entirely.
+     * Users that cannot be read are reported and skipped. The returned stream should be closed once consumed.
+     *
+     * <p>By default, this method loads every user from {@link #keys()} on the common fork-join pool.</p>
+     *
+     * @param projection the keys to read, or null to read every key
+     * @return a parallel stream of user views
+     */
+    default @NotNull Stream<UserView> scan(@Nullable Set<String> projection) {
+        return keys().parallelStream().map(uuid -> {
+            try {
+                JsonObject data = load(uuid);
+                return data != null ? UserView.copy(uuid, data, projection) : null;
+            } catch (UserStorageException ex) {
+                ex.printStackTrace();
+                return null;
+            }
+        }).filter(Objects::nonNull);
+    }
+
+    /**
+     * Releases every resource held by this storage. By default, this method does nothing.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Copies every user stored in the source storage into the target storage, replacing users
+     * already stored in the target. The source storage is not modified.
+     *
+     * @param from the source storage
+     * @param to   the target storage
+     * @return the number of users copied
+     */
+    static int migrate(@NotNull UserStorage from, @NotNull UserStorage to) {
+        int copied = 0;
+        Map<UUID, JsonObject> batch = new LinkedHashMap<>();
+        for (UUID uuid : from.keys()) {
+            JsonObject data = from.load(uuid);
+            if (data == null) continue;
+
+            // COPY IN BATCHES SO THE TARGET CAN SYNCHRONIZE MANY USERS AT ONCE
+            batch.put(uuid, data);
+            if (batch.size() == 256) {
+                to.storeAll(batch);
+                copied += batch.size();
+                batch.clear();
+            }
+        }
+        to.storeAll(batch);
+        return copied + batch.size();
+    }
+}
@@ -0,0 +1,107 @@
+package com.moleculepowered.api.user.sync;
+
+import com.moleculepowered.api.concurrent.SerialExecutor;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A {@link SyncTransport} connecting several managers of the same process through a shared
+ * {@link Hub}, mainly used to run and test a network of servers on a single machine. Messages are
+ * delivered asynchronously, on a serial executor per receiver, so they arrive in the order they were sent.
+ *
+ * <pre>{@code
+ * LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+ * UserSync first = firstManager.enableSync(hub.connect(), "first");
+ * UserSync second = secondManager.enableSync(hub.connect(), "second");
+ * }</pre>
+ *
+ * @author OMGitzFROST
+ */
+public final class LoopbackTransport implements SyncTransport
+{
+    private final SerialExecutor executor = new SerialExecutor();
+    private final Hub hub;
+    private volatile Consumer<SyncMessage> receiver;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    private LoopbackTransport(@NotNull Hub hub) {
+        this.hub = hub;
+    }
+
+    /*
+    TRANSPORT METHODS
+     */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void open(@NotNull Consumer<SyncMessage> receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void send(@NotNull SyncMessage message) {
+        for (LoopbackTransport transport : hub.transports) {
+            if (transport != this) transport.deliver(message);
+        }
+    }
+
+    /**
+     * Disconnects this transport from its hub.
+     */
+    @Override
+    public void close() {
+        hub.transports.remove(this);
+        receiver = null;
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    private void deliver(@NotNull SyncMessage message) {
+        executor.execute(() -> {
+            Consumer<SyncMessage> receiver = this.receiver;
+            if (receiver == null) return;
+            try {
+                receiver.accept(message);
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        });
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * Connects loopback transports to each other. Every message sent by a connected transport is
+     * delivered to every other transport connected to the same hub.
+     */
+    public static final class Hub
+    {
+        private final List<LoopbackTransport> transports = new CopyOnWriteArrayList<>();
+
+        /**
+         * Creates a new transport connected to this hub.
+         *
+         * @return the connected transport
+         */
+        public @NotNull LoopbackTransport connect() {
+            LoopbackTransport transport = new LoopbackTransport(this);
+            transports.add(transport);
+            return transport;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.moleculepowered.api.user.sync;
+
+import com.moleculepowered.api.concurrent.SerialExecutor;
+import com.moleculepowered.api.exception.user.UserSyncException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A {@link SyncTransport} connecting servers over TCP sockets, one JSON message per line. One server
+ * {@link #listen(InetSocketAddress) listens} and relays every message it receives to every other
+ * connected server, while the others {@link #connect(InetSocketAddress) connect} to it, forming a star.
+ *
+ * <p>By default, the listening server only accepts connections from the same machine, which makes
+ * this transport suitable for networks of servers sharing a host and for testing. Lost connections are
+ * not re-established; {@link UserSync} recovers from the messages missed meanwhile once leases expire.</p>
+ *
+ * @author OMGitzFROST
+ */
+public final class SocketTransport implements SyncTransport
+{
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final ServerSocket server;
+    private volatile Consumer<SyncMessage> receiver;
+    private volatile boolean closed;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    private SocketTransport(@Nullable ServerSocket server) {
+        this.server = server;
+    }
+
+    /**
+     * Listens for servers connecting from the same machine on the provided port.
+     *
+     * @param port the listened port, or 0 to pick any free port
+     * @return the listening transport
+     * @throws UserSyncException when the port could not be bound
+     */
+    public static @NotNull SocketTransport listen(int port) {
+        return listen(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Listens for servers connecting to the provided address.
+     *
+     * @param address the listened address
+     * @return the listening transport
+     * @throws UserSyncException when the address could not be bound
+     */
+    public static @NotNull SocketTransport listen(@NotNull InetSocketAddress address) {
+        try {
+            ServerSocket socket = new ServerSocket();
+            socket.bind(address);
+
+            SocketTransport transport = new SocketTransport(socket);
+            start("MoleculeAPI-Sync-Accept", transport::accept);
+            return transport;
+        } catch (IOException ex) {
+            throw new UserSyncException("Failed to listen on " + address, ex);
+        }
+    }
+
+    /**
+     * Connects to a server listening on the provided port of the same machine.
+     *
+     * @param port the port of the listening server
+     * @return the connected transport
+     * @throws UserSyncException when the connection failed
+     */
+    public static @NotNull SocketTransport connect(int port) {
+        return connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Connects to a server listening on the provided address.
+     *
+     * @param address the address of the listening server
+     * @return the connected transport
+     * @throws UserSyncException when the connection failed
+     */
+    public static @NotNull SocketTransport connect(@NotNull InetSocketAddress address) {
+        try {
+            SocketTransport transport = new SocketTransport(null);
+            transport.add(new Socket(address.getAddress(), address.getPort()));
+            return transport;
+        } catch (IOException ex) {
+            throw new UserSyncException("Failed to connect to " + address, ex);
+        }
+    }
+
+    /*
+    TRANSPORT METHODS
+     */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void open(@NotNull Consumer<SyncMessage> receiver) {
+        this.receiver = receiver;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void send(@NotNull SyncMessage message) {
+        String line = message.toJson();
+        for (Connection connection : connections) connection.write(line);
+    }
+
+    /**
+     * Closes every connection and, if this transport listens, stops accepting servers.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            if (server != null) server.close();
+        } catch (IOException ignored) {
+        }
+        connections.forEach(Connection::close);
+    }
+
+    /**
+     * Returns the local port of this transport: the listened port for a listening transport, or the
+     * port of its connection otherwise.
+     *
+     * @return the local port, or -1 if not bound
+     */
+    public int getPort() {
+        if (server != null) return server.getLocalPort();
+        return connections.isEmpty() ? -1 : connections.get(0).socket.getLocalPort();
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    private void accept() {
+        while (!closed) {
+            try {
+                add(server.accept());
+            } catch (IOException ex) {
+                if (!closed) ex.printStackTrace();
+            }
+        }
+    }
+
+    private void add(@NotNull Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        Connection connection = new Connection(socket);
+        connections.add(connection);
+        start("MoleculeAPI-Sync-Read", connection::read);
+    }
+
+    /**
+     * Delivers a received line locally and, if this transport listens, relays it to every other server.
+     */
+    private void receive(@NotNull Connection source, @NotNull String line) {
+        if (server != null) {
+            for (Connection connection : connections) {
+                if (connection != source) connection.write(line);
+            }
+        }
+
+        Consumer<SyncMessage> receiver = this.receiver;
+        if (receiver == null) return;
+        try {
+            receiver.accept(SyncMessage.fromJson(line));
+        } catch (RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static void start(@NotNull String name, @NotNull Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * A connection to another server. Lines are written on a serial executor, so sending never waits
+     * for the socket while lines still leave in the order they were sent.
+     */
+    private final class Connection
+    {
+        private final SerialExecutor writes = new SerialExecutor();
+        private final Socket socket;
+        private final Writer writer;
+
+        private Connection(@NotNull Socket socket) throws IOException {
+            this.socket = socket;
+            this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        private void write(@NotNull String line) {
+            writes.execute(() -> {
+                try {
+                    writer.write(line);
+                    writer.write('\n');
+                    writer.flush();
+                } catch (IOException ex) {
+                    close();
+                }
+            });
+        }
+
+        private void read() {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                for (String line; (line = reader.readLine()) != null; ) receive(this, line);
+            } catch (IOException ignored) {
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.moleculepowered.api.user.sync;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.moleculepowered.api.exception.user.UserSyncException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A message exchanged between servers by {@link UserSync}, concerning a single user. Messages are
+ * immutable and convert to and from a single line of JSON, so transports only need to move strings.
+ *
+ * @author OMGitzFROST
+ * @see SyncTransport
+ */
+public final class SyncMessage
+{
+    private final Type type;
+    private final String origin;
+    private final UUID uuid;
+    private final long version, lease;
+    private final JsonObject data;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    SyncMessage(@NotNull Type type, @NotNull String origin, @NotNull UUID uuid, long version, long lease, @Nullable JsonObject data) {
+        this.type = type;
+        this.origin = origin;
+        this.uuid = uuid;
+        this.version = version;
+        this.lease = lease;
+        this.data = data;
+    }
+
+    /**
+     * Reads a message from the JSON line created by {@link #toJson()}.
+     *
+     * @param json the encoded message
+     * @return the message
+     * @throws UserSyncException when the line is not a valid message
+     */
+    public static @NotNull SyncMessage fromJson(@NotNull String json) {
+        try {
+            JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+            JsonElement data = object.get("data");
+            return new SyncMessage(Type.valueOf(object.get("type").getAsString()), object.get("origin").getAsString(),
+                    UUID.fromString(object.get("uuid").getAsString()), object.get("version").getAsLong(),
+                    object.get("lease").getAsLong(), data != null && data.isJsonObject() ? data.getAsJsonObject() : null);
+        } catch (JsonParseException | IllegalArgumentException | IllegalStateException | NullPointerException ex) {
+            throw new UserSyncException("Received an invalid synchronization message", ex);
+        }
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the type of this message.
+     *
+     * @return the message type
+     */
+    public @NotNull Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the identifier of the server that sent this message.
+     *
+     * @return the sending server
+     */
+    public @NotNull String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Returns the unique ID of the user this message concerns.
+     *
+     * @return the unique ID of the user
+     */
+    public @NotNull UUID getUniqueId() {
+        return uuid;
+    }
+
+    /**
+     * Returns the version of the user's document on the sending server, for {@link Type#DELTA deltas}.
+     *
+     * @return the document version, or 0
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns how long the lease is held for in milliseconds, for {@link Type#CLAIM claims}.
+     *
+     * @return the lease duration, or 0
+     */
+    public long getLease() {
+        return lease;
+    }
+
+    /**
+     * Returns the changed keys and their new values, for {@link Type#DELTA deltas}.
+     *
+     * @return a copy of the changes, or null
+     */
+    public @Nullable JsonObject getData() {
+        return data != null ? data.deepCopy() : null;
+    }
+
+    /**
+     * Encodes this message as a single line of JSON.
+     *
+     * @return the encoded message
+     */
+    public @NotNull String toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", type.name());
+        json.addProperty("origin", origin);
+        json.addProperty("uuid", uuid.toString());
+        json.addProperty("version", version);
+        json.addProperty("lease", lease);
+        if (data != null) json.add("data", data);
+        return json.toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public @NotNull String toString() {
+        return toJson();
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * The kinds of messages exchanged by {@link UserSync}.
+     */
+    public enum Type
+    {
+        /**
+         * Claims or renews the ownership lease of a user.
+         */
+        CLAIM,
+
+        /**
+         * Releases the ownership lease of a user, once its data was written to the storage.
+         */
+        RELEASE,
+
+        /**
+         * Ships changed keys of a user from its owner to every server holding a copy.
+         */
+        DELTA,
+
+        /**
+         * Asks the owner of a user to ship every key of the user.
+         */
+        FETCH,
+
+        /**
+         * Tells every server to drop its copy of a user, for example after it was deleted.
+         */
+        INVALIDATE
+    }
+}
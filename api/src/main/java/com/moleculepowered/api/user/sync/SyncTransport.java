@@ -0,0 +1,45 @@
+package com.moleculepowered.api.user.sync;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * Moves {@link SyncMessage synchronization messages} between the servers of a network on behalf of
+ * {@link UserSync}. Implementations may use any medium, such as a message broker or sockets; two are
+ * provided: a {@link LoopbackTransport} connecting managers of the same process, and a
+ * {@link SocketTransport} connecting servers over TCP.
+ *
+ * <p>A transport broadcasts every message to every other connected server. Messages sent by one server
+ * must be received by every other server in the order they were sent, though messages of different
+ * servers may interleave. Delivery is best-effort: servers that are not connected simply miss messages,
+ * which {@link UserSync} tolerates through lease expiry.</p>
+ *
+ * @author OMGitzFROST
+ * @see UserSync
+ */
+public interface SyncTransport
+{
+    /**
+     * Starts delivering the messages sent by other servers to the provided receiver. The receiver is
+     * called from a thread owned by the transport, one message at a time.
+     *
+     * @param receiver receives every incoming message
+     */
+    void open(@NotNull Consumer<SyncMessage> receiver);
+
+    /**
+     * Broadcasts the provided message to every other connected server. This method must not block on
+     * the receivers.
+     *
+     * @param message the sent message
+     */
+    void send(@NotNull SyncMessage message);
+
+    /**
+     * Disconnects from the other servers and releases every resource held by this transport. By default,
+     * this method does nothing.
+     */
+    default void close() {
+    }
+}
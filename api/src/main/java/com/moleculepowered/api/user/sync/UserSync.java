@@ -0,0 +1,414 @@
+package com.moleculepowered.api.user.sync;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.moleculepowered.api.user.User;
+import com.moleculepowered.api.user.UserDocument;
+import com.moleculepowered.api.user.UserManager;
+import com.moleculepowered.api.user.feed.ChangeFeed;
+import com.moleculepowered.api.user.feed.ChangeRecord;
+import com.moleculepowered.api.user.feed.ChangeSubscriber;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the users of a {@link UserManager} consistent across the servers of a network sharing the same
+ * storage, so every server can serve reads from the users it has loaded without re-reading their files.
+ *
+ * <p>Each user is owned by at most one server at a time, through a lease the owner renews while it keeps
+ * the user loaded, typically the server the player is online on. The owner ships the changes it makes
+ * to every other server as deltas, which servers holding a copy of the user apply to it in memory, and
+ * tells them to drop their copy when the user is deleted. A server loading a user owned elsewhere asks
+ * the owner for every key of the user, so its copy includes changes not written to the storage yet.</p>
+ *
+ * <p>When a player moves between servers, the previous server {@link #release(UUID) releases} the lease
+ * once the user was written to the storage, and the next server {@link #acquire(UUID) acquires} it
+ * before loading the user, so the user is never loaded from an outdated file. Leases of servers that
+ * stopped without releasing them expire.</p>
+ *
+ * <p>Leases are advisory: servers are expected to only change the users they own. Messages are moved
+ * between servers by a pluggable {@link SyncTransport}. Synchronization is enabled using
+ * {@link UserManager#enableSync(SyncTransport, String)}.</p>
+ *
+ * @author OMGitzFROST
+ * @see UserManager#enableSync(SyncTransport, String)
+ */
+public final class UserSync
+{
+    private static final Duration DEFAULT_LEASE = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_CLAIM_ROUND = Duration.ofSeconds(1);
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "MoleculeAPI-Sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<UUID, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Void>> waiting = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> applied = new ConcurrentHashMap<>();
+    private final Set<UUID> owned = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> claiming = ConcurrentHashMap.newKeySet();
+    private final UserManager manager;
+    private final SyncTransport transport;
+    private final ChangeFeed.Subscription subscription;
+    private final String server;
+    private volatile long lease = DEFAULT_LEASE.toMillis();
+    private volatile long claimRound = DEFAULT_CLAIM_ROUND.toMillis();
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Starts synchronizing the users of the provided manager with the other servers reachable through
+     * the provided transport. Use {@link UserManager#enableSync(SyncTransport, String)} instead, which
+     * also notifies this synchronization of the users the manager loads.
+     *
+     * @param manager   the synchronized manager
+     * @param transport the transport connecting the servers
+     * @param server    an identifier of this server, unique within the network
+     */
+    public UserSync(@NotNull UserManager manager, @NotNull SyncTransport transport, @NotNull String server) {
+        this.manager = manager;
+        this.transport = transport;
+        this.server = server;
+
+        transport.open(this::receive);
+        this.subscription = manager.getChangeFeed().subscribe(new ChangeSubscriber() {
+            @Override
+            public void onBatch(@NotNull List<ChangeRecord> records) {
+                ship(records);
+            }
+
+            @Override
+            public void onGap(long from, long to) {
+                resend();
+            }
+        });
+        timer.scheduleWithFixedDelay(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /*
+    LEASE METHODS
+     */
+
+    /**
+     * Acquires the ownership lease of the provided user. If another server holds the lease, the returned
+     * future completes once that server released it or its lease expired. Servers should acquire a user
+     * before loading it with the intent to change it, and should stop waiting after a timeout of their
+     * choice, for example using {@link CompletableFuture#get(long, TimeUnit)}.
+     *
+     * <p>A claim is only confirmed once a {@link #setClaimRound(Duration) claim round} passed without
+     * another server claiming the user first, since servers claiming the user at the same time do not
+     * know about each other before their claims arrive. A server losing such a race keeps waiting.</p>
+     *
+     * @param uuid the target user
+     * @return a future completed once this server owns the user
+     */
+    public @NotNull CompletableFuture<Void> acquire(@NotNull UUID uuid) {
+        if (owned.contains(uuid) && !claiming.contains(uuid)) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Void> future = waiting.computeIfAbsent(uuid, key -> new CompletableFuture<>());
+        if (tryClaim(uuid)) confirm(uuid);
+        return future;
+    }
+
+    /**
+     * Releases the ownership lease of the provided user, if this server owns it. The user should be
+     * written to the storage first, so the next owner loads its latest data.
+     *
+     * @param uuid the target user
+     */
+    public void release(@NotNull UUID uuid) {
+        if (!owned.remove(uuid)) return;
+
+        leases.remove(uuid);
+        claiming.remove(uuid);
+        transport.send(new SyncMessage(SyncMessage.Type.RELEASE, server, uuid, 0, 0, null));
+    }
+
+    /**
+     * Returns true if this server owns the lease of the provided user.
+     *
+     * @param uuid the target user
+     * @return true if this server owns the user
+     */
+    public boolean isOwner(@NotNull UUID uuid) {
+        return owned.contains(uuid);
+    }
+
+    /**
+     * Returns the server owning the lease of the provided user.
+     *
+     * @param uuid the target user
+     * @return the identifier of the owning server, or null if no server owns the user
+     */
+    public @Nullable String getOwner(@NotNull UUID uuid) {
+        if (owned.contains(uuid)) return server;
+
+        Lease lease = leases.get(uuid);
+        return lease != null && !lease.isExpired() ? lease.server : null;
+    }
+
+    /**
+     * Sets how long a lease is held without being renewed. Owners renew their leases three times per
+     * duration, so a lease only expires once its owner stopped. By default, leases are held for 30 seconds.
+     *
+     * @param duration the lease duration
+     */
+    public void setLeaseDuration(@NotNull Duration duration) {
+        this.lease = Math.max(3000, duration.toMillis());
+    }
+
+    /**
+     * Sets how long a claim must stand before this server considers itself the owner of the user. The
+     * round should exceed the time the transport takes to deliver a message to every server. By default,
+     * claims are confirmed after one second.
+     *
+     * @param duration the claim round
+     */
+    public void setClaimRound(@NotNull Duration duration) {
+        this.claimRound = Math.max(0, duration.toMillis());
+    }
+
+    /**
+     * Returns the identifier of this server.
+     *
+     * @return the identifier of this server
+     */
+    public @NotNull String getServer() {
+        return server;
+    }
+
+    /*
+    MANAGER METHODS
+     */
+
+    /**
+     * Called by the manager once it loaded the provided user. If another server owns the user, it is
+     * asked for every key of the user, so the loaded copy includes its unwritten changes.
+     *
+     * @param user the loaded user
+     */
+    public void onLoad(@NotNull User user) {
+        UUID uuid = user.getUniqueId();
+        if (!owned.contains(uuid) && getOwner(uuid) != null)
+            transport.send(new SyncMessage(SyncMessage.Type.FETCH, server, uuid, 0, 0, null));
+    }
+
+    /**
+     * Called by the manager once it unloaded the provided user.
+     *
+     * @param uuid the unloaded user
+     */
+    public void onUnload(@NotNull UUID uuid) {
+        applied.remove(uuid);
+    }
+
+    /**
+     * Releases every lease owned by this server and stops synchronizing. The transport is closed as well.
+     */
+    public void close() {
+        subscription.cancel();
+        for (UUID uuid : owned.toArray(new UUID[0])) release(uuid);
+        timer.shutdownNow();
+        transport.close();
+        waiting.values().forEach(future -> future.cancel(false));
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Claims the provided user unless another server holds an unexpired lease on it.
+     */
+    private boolean tryClaim(@NotNull UUID uuid) {
+        Lease current = leases.get(uuid);
+        if (current != null && !current.server.equals(server) && !current.isExpired()) return false;
+
+        owned.add(uuid);
+        leases.put(uuid, new Lease(server, System.currentTimeMillis() + lease));
+        transport.send(new SyncMessage(SyncMessage.Type.CLAIM, server, uuid, 0, lease, null));
+        return true;
+    }
+
+    /**
+     * Completes the acquisition of the provided user once a claim round passed, if this server still
+     * owns it by then. A server that lost the claim to another one keeps waiting for the lease.
+     */
+    private void confirm(@NotNull UUID uuid) {
+        if (!claiming.add(uuid)) return;
+
+        try {
+            timer.schedule(() -> {
+                claiming.remove(uuid);
+                CompletableFuture<Void> future = waiting.get(uuid);
+                if (future != null && owned.contains(uuid) && waiting.remove(uuid, future)) future.complete(null);
+            }, claimRound, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+
+            // THIS SYNCHRONIZATION WAS CLOSED, ITS WAITERS WERE ALREADY CANCELLED
+            claiming.remove(uuid);
+        }
+    }
+
+    /**
+     * Sends the latest document of every owned user to the other servers after changes were lost by the
+     * change feed before they could be shipped. Copies of owned users that are no longer loaded here are
+     * invalidated instead, so other servers read them again.
+     */
+    private void resend() {
+        for (UUID uuid : owned) {
+            User user = manager.getLoadedUser(uuid);
+            if (user == null) {
+                transport.send(new SyncMessage(SyncMessage.Type.INVALIDATE, server, uuid, 0, 0, null));
+                continue;
+            }
+
+            UserDocument document = user.getDocument();
+            transport.send(new SyncMessage(SyncMessage.Type.DELTA, server, uuid, document.getVersion(), 0, document.toJson()));
+        }
+    }
+
+    /**
+     * Ships the changes of owned users recorded by the change feed, merging the changes of each user
+     * within a batch into a single delta.
+     */
+    private void ship(@NotNull List<ChangeRecord> records) {
+        Map<UUID, JsonObject> deltas = new LinkedHashMap<>();
+        Map<UUID, Long> versions = new HashMap<>();
+        for (ChangeRecord record : records) {
+            UUID uuid = record.getUniqueId();
+            if (!owned.contains(uuid)) continue;
+
+            if (record.isDeletion()) {
+                deltas.remove(uuid);
+                transport.send(new SyncMessage(SyncMessage.Type.INVALIDATE, server, uuid, 0, 0, null));
+                continue;
+            }
+
+            JsonElement value = record.getValue();
+            deltas.computeIfAbsent(uuid, key -> new JsonObject()).add(record.getKey(), value != null ? value : JsonNull.INSTANCE);
+            versions.merge(uuid, record.getVersion(), Math::max);
+        }
+        deltas.forEach((uuid, delta) -> transport.send(new SyncMessage(SyncMessage.Type.DELTA, server, uuid, versions.get(uuid), 0, delta)));
+    }
+
+    private void receive(@NotNull SyncMessage message) {
+        if (message.getOrigin().equals(server)) return;
+
+        UUID uuid = message.getUniqueId();
+        switch (message.getType()) {
+            case CLAIM:
+
+                // CONCURRENT CLAIMS ARE SETTLED IN FAVOR OF THE LOWEST SERVER IDENTIFIER, THE WINNER CLAIMS AGAIN
+                if (owned.contains(uuid) && message.getOrigin().compareTo(server) > 0) {
+                    leases.remove(uuid);
+                    tryClaim(uuid);
+                    break;
+                }
+                // A NEW OWNER, OR ONE THAT RESTARTED AFTER ITS LEASE EXPIRED, COUNTS VERSIONS FROM ITS OWN LOAD
+                Lease previous = leases.get(uuid);
+                if (previous == null || previous.isExpired() || !previous.server.equals(message.getOrigin())) applied.remove(uuid);
+
+                owned.remove(uuid);
+                leases.put(uuid, new Lease(message.getOrigin(), System.currentTimeMillis() + message.getLease()));
+                manager.onRemoteUser(uuid, null);
+                break;
+            case RELEASE:
+                Lease current = leases.get(uuid);
+                if (current != null && current.server.equals(message.getOrigin())) leases.remove(uuid, current);
+
+                // THE NEXT OWNER STARTS COUNTING VERSIONS FROM ITS OWN LOAD
+                applied.remove(uuid);
+                if (waiting.containsKey(uuid) && tryClaim(uuid)) confirm(uuid);
+                break;
+            case DELTA:
+                JsonObject data = message.getData();
+                JsonElement name = data != null ? data.get("name") : null;
+                if (name != null && name.isJsonPrimitive()) manager.onRemoteUser(uuid, name.getAsString());
+
+                User user = manager.getLoadedUser(uuid);
+                if (user == null || data == null || owned.contains(uuid)) break;
+
+                Long version = applied.get(uuid);
+                if (version != null && message.getVersion() <= version) break;
+
+                applied.put(uuid, message.getVersion());
+                Map<String, JsonElement> changes = new LinkedHashMap<>();
+                for (Map.Entry<String, JsonElement> entry : data.entrySet()) changes.put(entry.getKey(), entry.getValue());
+                user.applyRemote(changes);
+                break;
+            case FETCH:
+                User owner = owned.contains(uuid) ? manager.getLoadedUser(uuid) : null;
+                if (owner == null) break;
+
+                UserDocument document = owner.getDocument();
+                transport.send(new SyncMessage(SyncMessage.Type.DELTA, server, uuid, document.getVersion(), 0, document.toJson()));
+                break;
+            case INVALIDATE:
+                User copy = manager.getLoadedUser(uuid);
+                if (copy != null && !owned.contains(uuid)) manager.removeUser(copy);
+                applied.remove(uuid);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Renews the leases of owned users and hands users whose lease expired to the servers waiting for them.
+     */
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            for (UUID uuid : owned) {
+                Lease current = leases.get(uuid);
+                if (current == null || current.expiry - now < lease * 2 / 3) tryClaim(uuid);
+            }
+            for (UUID uuid : waiting.keySet()) {
+                if (!claiming.contains(uuid) && tryClaim(uuid)) confirm(uuid);
+            }
+            leases.entrySet().removeIf(entry -> !entry.getValue().server.equals(server) && entry.getValue().isExpired());
+        } catch (RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * The lease of a user, as last claimed by a server.
+     */
+    private static final class Lease
+    {
+        private final String server;
+        private final long expiry;
+
+        private Lease(@NotNull String server, long expiry) {
+            this.server = server;
+            this.expiry = expiry;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiry;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.moleculepowered.api.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs serial executors on a multi-threaded pool, which must still run their tasks one at a time.
+ */
+class SerialExecutorTest
+{
+    private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void runsTasksInSubmissionOrder() throws Exception {
+        SerialExecutor executor = new SerialExecutor(pool);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < 1000; i++) {
+            int task = i;
+            executor.execute(() -> order.add(task));
+        }
+        executor.drain().get(5, TimeUnit.SECONDS);
+
+        assertEquals(1000, order.size());
+        for (int i = 0; i < order.size(); i++) assertEquals(i, order.get(i));
+        assertFalse(executor.isBusy());
+    }
+
+    @Test
+    void neverRunsTasksConcurrently() throws Exception {
+        SerialExecutor executor = new SerialExecutor(pool);
+        AtomicInteger running = new AtomicInteger(), overlaps = new AtomicInteger();
+
+        // SUBMIT FROM SEVERAL THREADS AT ONCE
+        List<Runnable> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            submitters.add(() -> {
+                for (int i = 0; i < 250; i++) {
+                    executor.execute(() -> {
+                        if (running.incrementAndGet() > 1) overlaps.incrementAndGet();
+                        running.decrementAndGet();
+                    });
+                }
+            });
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (Runnable submitter : submitters) threads.add(new Thread(submitter));
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        executor.drain().get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, overlaps.get());
+    }
+
+    @Test
+    void keepsRunningAfterFailedTask() throws Exception {
+        SerialExecutor executor = new SerialExecutor(pool);
+        AtomicInteger ran = new AtomicInteger();
+
+        executor.execute(() -> {
+            throw new IllegalStateException("expected");
+        });
+        executor.execute(ran::incrementAndGet);
+        executor.drain().get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, ran.get());
+    }
+}
@@ -0,0 +1,66 @@
+package com.moleculepowered.api.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Schedules flushes with and without a flush window.
+ */
+class WriteBehindTest
+{
+    @Test
+    void flushesImmediatelyUntilWindowIsSet() {
+        WriteBehind writeBehind = new WriteBehind();
+        AtomicInteger flushed = new AtomicInteger();
+
+        writeBehind.schedule(flushed::incrementAndGet);
+
+        assertEquals(Duration.ZERO, writeBehind.getWindow());
+        assertEquals(1, flushed.get());
+        assertEquals(0, writeBehind.getPending());
+    }
+
+    @Test
+    void defaultNeverDefers() {
+        AtomicInteger flushed = new AtomicInteger();
+
+        WriteBehind.getDefault().schedule(flushed::incrementAndGet);
+
+        assertEquals(1, flushed.get());
+        assertThrows(UnsupportedOperationException.class, () -> WriteBehind.getDefault().setWindow(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void defersFlushesOnceWindowIsSet() throws Exception {
+        WriteBehind writeBehind = new WriteBehind();
+        writeBehind.setWindow(Duration.ofMillis(50));
+        CountDownLatch flushed = new CountDownLatch(1);
+
+        writeBehind.schedule(flushed::countDown);
+
+        assertEquals(1, writeBehind.getPending());
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void flushesImmediatelyOnceBoundIsReached() {
+        WriteBehind writeBehind = new WriteBehind();
+        writeBehind.setWindow(Duration.ofMinutes(1));
+        writeBehind.setMaximumPending(1);
+        AtomicInteger flushed = new AtomicInteger();
+
+        writeBehind.schedule(flushed::incrementAndGet);
+        writeBehind.schedule(flushed::incrementAndGet);
+
+        assertEquals(1, flushed.get());
+        assertEquals(1, writeBehind.getPending());
+    }
+}
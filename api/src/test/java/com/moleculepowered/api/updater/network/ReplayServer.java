@@ -0,0 +1,539 @@
+package com.moleculepowered.api.updater.network;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.moleculepowered.api.updater.provider.AbstractProvider;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * An in-process HTTP server that replays captured provider responses. It allows every
+ * {@link AbstractProvider} to be exercised, benchmarked and regression-tested without
+ * an internet connection.
+ * <p>
+ * Responses are registered against the URL a provider would normally contact (for example
+ * {@code https://api.spiget.org/v2/resources/1}) and can be configured to simulate latency,
+ * server errors, dropped connections, {@code 304 Not Modified} responses and rate limits.
+ * Once {@link #redirect()} is called, every {@link ProviderConnection} (and update download)
+ * will be routed to this server instead of the real host.
+ * </p>
+ *
+ * <pre>{@code
+ * try (ReplayServer server = new ReplayServer().redirect()) {
+ *     server.expect("https://api.spigotmc.org/legacy/update.php?resource=1").body("1.2.0");
+ *     server.expect("https://api.github.com/repos/foo/bar/releases/latest").rateLimited();
+ *
+ *     provider.fetch();
+ * }
+ * }</pre>
+ *
+ * <p>Captured responses can be recorded from the live service using {@link #capture(String, Path)}
+ * and loaded back into a server using {@link #load(Path)}.</p>
+ *
+ * @author OMGitzFROST
+ * @see ProviderConnection#setResolver(java.util.function.UnaryOperator)
+ */
+public final class ReplayServer implements AutoCloseable
+{
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+    private final Map<String, Exchange> exchanges = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final HttpServer server;
+    private volatile UnaryOperator<String> redirect;
+    private volatile Duration latency = Duration.ZERO;
+
+    /*
+    CONSTRUCTORS
+     */
+
+    /**
+     * Creates and starts a new replay server bound to an ephemeral port on the loopback address.
+     *
+     * @throws IOException if the server could not be bound
+     */
+    public ReplayServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Creates and starts a new replay server bound to the provided port on the loopback address.
+     *
+     * @param port the target port, or 0 to pick any free port
+     * @throws IOException if the server could not be bound
+     */
+    public ReplayServer(int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "MoleculeAPI-ReplayServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    /*
+    CHAIN METHODS
+     */
+
+    /**
+     * Registers a new exchange for the provided URL and returns it so that its response can be
+     * configured. By default, the exchange responds with an empty {@code 200 OK}.
+     *
+     * @param url the URL a provider would normally contact
+     * @return the registered exchange
+     */
+    public @NotNull Exchange expect(@NotNull String url) {
+        Exchange exchange = new Exchange(url);
+        exchanges.put(keyOf(url), exchange);
+        return exchange;
+    }
+
+    /**
+     * Registers a {@code 200 OK} response containing the provided body for the provided URL.
+     *
+     * @param url  the URL a provider would normally contact
+     * @param body the response body
+     * @return an instance of this server chain
+     */
+    public @NotNull ReplayServer serve(@NotNull String url, @NotNull String body) {
+        expect(url).body(body);
+        return this;
+    }
+
+    /**
+     * Sets the latency added to every response served by this server. Latency configured on a
+     * single exchange is added on top of this value.
+     *
+     * @param latency the global latency
+     * @return an instance of this server chain
+     */
+    public @NotNull ReplayServer setLatency(@NotNull Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Loads every capture file (see {@link #capture(String, Path)}) located inside the provided
+     * directory and registers them as exchanges.
+     *
+     * @param directory the directory containing the captures
+     * @return an instance of this server chain
+     * @throws IOException if a capture could not be read
+     */
+    public @NotNull ReplayServer load(@NotNull Path directory) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path path : stream) {
+                try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    JsonObject capture = GSON.fromJson(reader, JsonObject.class);
+                    Exchange exchange = expect(capture.get("url").getAsString())
+                            .status(capture.get("status").getAsInt())
+                            .body(capture.get("body").getAsString());
+
+                    if (capture.has("headers")) {
+                        capture.getAsJsonObject("headers").entrySet().forEach(e -> exchange.header(e.getKey(), e.getValue().getAsString()));
+                    }
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Redirects all provider traffic to this server. Requests are mapped using the original
+     * host as the first path segment, for example {@code https://api.spiget.org/v2/resources/1}
+     * becomes {@code http://127.0.0.1:port/api.spiget.org/v2/resources/1}.
+     *
+     * <p>The redirect is removed when this server is {@link #close() closed}.</p>
+     *
+     * @return an instance of this server chain
+     */
+    public @NotNull ReplayServer redirect() {
+        UnaryOperator<String> redirect = url -> getAddress() + "/" + keyOf(url);
+        this.redirect = redirect;
+        ProviderConnection.setResolver(redirect);
+        return this;
+    }
+
+    /*
+    CAPTURING
+     */
+
+    /**
+     * Records the live response of the provided URL into a capture file inside the provided
+     * directory. The capture can later be replayed using {@link #load(Path)}. Please note that
+     * this method always contacts the real host, even if a redirect is active.
+     *
+     * @param url       the URL to capture
+     * @param directory the directory the capture is written to
+     * @return the capture file
+     * @throws IOException if the URL could not be contacted or the capture could not be written
+     */
+    public static @NotNull Path capture(@NotNull String url, @NotNull Path directory) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.addRequestProperty("User-Agent", "MoleculeAPI/ProviderConnection");
+        conn.setInstanceFollowRedirects(true);
+        conn.setReadTimeout(30000);
+
+        try {
+            int status = conn.getResponseCode();
+            InputStream in = status >= 400 ? conn.getErrorStream() : conn.getInputStream();
+
+            JsonObject headers = new JsonObject();
+            for (Map.Entry<String, List<String>> entry : conn.getHeaderFields().entrySet()) {
+                String name = entry.getKey();
+                if (name == null || entry.getValue().isEmpty()) continue;
+                if (name.equalsIgnoreCase("Content-Type") || name.equalsIgnoreCase("ETag") || name.equalsIgnoreCase("Retry-After")
+                        || name.toLowerCase().startsWith("x-ratelimit")) {
+                    headers.addProperty(name, entry.getValue().get(0));
+                }
+            }
+
+            JsonObject capture = new JsonObject();
+            capture.addProperty("url", url);
+            capture.addProperty("status", status);
+            capture.add("headers", headers);
+            capture.addProperty("body", in != null ? new String(readFully(in), StandardCharsets.UTF_8) : "");
+
+            Files.createDirectories(directory);
+            Path file = directory.resolve(keyOf(url).replaceAll("[^A-Za-z0-9.-]", "_") + ".json");
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                GSON.toJson(capture, writer);
+            }
+            return file;
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the base address of this server, for example {@code http://127.0.0.1:49152}.
+     *
+     * @return the base address
+     */
+    public @NotNull String getAddress() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    /**
+     * Returns the number of requests this server received for the provided URL.
+     *
+     * @param url the original URL
+     * @return the number of requests received
+     */
+    public int getRequestCount(@NotNull String url) {
+        AtomicInteger count = requests.get(keyOf(url));
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Returns the total number of requests received by this server.
+     *
+     * @return the number of requests received
+     */
+    public int getRequestCount() {
+        return requests.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    /**
+     * Stops this server and removes the provider redirect it installed, unless another redirect
+     * replaced it meanwhile.
+     */
+    @Override
+    public void close() {
+        UnaryOperator<String> redirect = this.redirect;
+        if (redirect != null) ProviderConnection.resetResolver(redirect);
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Handles an incoming request, serving the matching exchange or a {@code 404} if no
+     * exchange was registered for the requested URL.
+     *
+     * @param http the incoming exchange
+     * @throws IOException if the response could not be written
+     */
+    private void handle(@NotNull HttpExchange http) throws IOException {
+        try {
+            String key = http.getRequestURI().getRawPath().substring(1);
+            if (http.getRequestURI().getRawQuery() != null) key += "?" + http.getRequestURI().getRawQuery();
+
+            requests.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            Exchange exchange = exchanges.get(key);
+
+            sleep(latency.plus(exchange != null ? exchange.latency : Duration.ZERO));
+
+            // UNKNOWN URLS ARE TREATED THE SAME WAY A MARKETPLACE TREATS AN INVALID PROJECT
+            if (exchange == null) {
+                http.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+                return;
+            }
+
+            // SIMULATE A DROPPED CONNECTION BY CLOSING THE EXCHANGE WITHOUT A RESPONSE
+            if (exchange.drop) return;
+
+            exchange.headers.forEach((name, value) -> http.getResponseHeaders().set(name, value));
+
+            // ANSWER CONDITIONAL REQUESTS WHEN THE CLIENT ALREADY HAS THE CURRENT ENTITY
+            String etag = exchange.headers.get("ETag");
+            if (etag != null && etag.equals(http.getRequestHeaders().getFirst("If-None-Match"))) {
+                http.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+                return;
+            }
+
+            if (exchange.status == HttpURLConnection.HTTP_NOT_MODIFIED || exchange.body.length == 0) {
+                http.sendResponseHeaders(exchange.status, -1);
+                return;
+            }
+
+            http.sendResponseHeaders(exchange.status, exchange.body.length);
+            try (OutputStream out = http.getResponseBody()) {
+                out.write(exchange.body);
+            }
+        } finally {
+            http.close();
+        }
+    }
+
+    /**
+     * Converts a URL into the key used to match incoming requests, which is the URL without
+     * its scheme, for example {@code api.spiget.org/v2/resources/1}.
+     *
+     * @param url the target URL
+     * @return the exchange key
+     */
+    private static @NotNull String keyOf(@NotNull String url) {
+        int index = url.indexOf("://");
+        return index != -1 ? url.substring(index + 3) : url;
+    }
+
+    /**
+     * Reads the provided input stream until its end is reached.
+     *
+     * @param in the target input stream
+     * @return the bytes read
+     * @throws IOException if the stream could not be read
+     */
+    private static byte[] readFully(@NotNull InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) out.write(buffer, 0, read);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Pauses the handling thread for the provided duration, if any.
+     *
+     * @param duration the target duration
+     */
+    private static void sleep(@NotNull Duration duration) {
+        if (duration.isZero() || duration.isNegative()) return;
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+    INTERNAL CLASSES
+     */
+
+    /**
+     * Represents a single captured request and the response served for it. All setters
+     * return the exchange itself so responses can be configured in a single chain.
+     *
+     * @author OMGitzFROST
+     */
+    public static final class Exchange
+    {
+        private final Map<String, String> headers = new ConcurrentHashMap<>();
+        private final String url;
+        private volatile Duration latency = Duration.ZERO;
+        private volatile byte[] body = new byte[0];
+        private volatile int status = HttpURLConnection.HTTP_OK;
+        private volatile boolean drop;
+
+        /**
+         * Creates a new exchange for the provided URL.
+         *
+         * @param url the original URL
+         */
+        private Exchange(@NotNull String url) {
+            this.url = url;
+        }
+
+        /**
+         * Sets the status code returned by this exchange.
+         *
+         * @param status the HTTP status code
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange status(int status) {
+            this.status = status;
+            return this;
+        }
+
+        /**
+         * Sets the body returned by this exchange.
+         *
+         * @param body the response body
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange body(@NotNull String body) {
+            return body(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Sets the raw body returned by this exchange, useful when serving update downloads.
+         *
+         * @param body the response body
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange body(@NotNull byte[] body) {
+            this.body = body;
+            return this;
+        }
+
+        /**
+         * Adds a header to the response returned by this exchange.
+         *
+         * @param name  the header name
+         * @param value the header value
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange header(@NotNull String name, @Nullable String value) {
+            if (value == null) headers.remove(name);
+            else headers.put(name, value);
+            return this;
+        }
+
+        /**
+         * Adds latency to this exchange, on top of the server's global latency.
+         *
+         * @param latency the added latency
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange latency(@NotNull Duration latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Makes this exchange fail with a server error ({@code 500 Internal Server Error}).
+         *
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange error() {
+            return status(HttpURLConnection.HTTP_INTERNAL_ERROR);
+        }
+
+        /**
+         * Makes this exchange close the connection without sending a response, simulating a
+         * dropped connection or an unreachable host.
+         *
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange drop() {
+            this.drop = true;
+            return this;
+        }
+
+        /**
+         * Tags the response with the provided entity tag. Requests sending a matching
+         * {@code If-None-Match} header will receive a {@code 304 Not Modified} response.
+         *
+         * @param etag the entity tag
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange etag(@NotNull String etag) {
+            return header("ETag", etag);
+        }
+
+        /**
+         * Makes this exchange always respond with {@code 304 Not Modified}.
+         *
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange notModified() {
+            return status(HttpURLConnection.HTTP_NOT_MODIFIED);
+        }
+
+        /**
+         * Adds the rate-limit headers used by most marketplaces (GitHub in particular) to
+         * the response returned by this exchange.
+         *
+         * @param limit     the request limit
+         * @param remaining the remaining requests
+         * @param reset     the epoch second at which the limit resets
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange rateLimit(int limit, int remaining, long reset) {
+            header("X-RateLimit-Limit", String.valueOf(limit));
+            header("X-RateLimit-Remaining", String.valueOf(remaining));
+            return header("X-RateLimit-Reset", String.valueOf(reset));
+        }
+
+        /**
+         * Makes this exchange respond as if the rate limit was exceeded, returning
+         * {@code 403 Forbidden} with no remaining requests.
+         *
+         * @return an instance of this exchange chain
+         */
+        public @NotNull Exchange rateLimited() {
+            rateLimit(60, 0, System.currentTimeMillis() / 1000 + 3600);
+            header("Retry-After", "3600");
+            return status(HttpURLConnection.HTTP_FORBIDDEN);
+        }
+
+        /**
+         * Returns the original URL this exchange was registered for.
+         *
+         * @return the original URL
+         */
+        public @NotNull String getURL() {
+            return url;
+        }
+    }
+}
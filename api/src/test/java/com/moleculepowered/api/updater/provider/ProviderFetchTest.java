@@ -0,0 +1,113 @@
+package com.moleculepowered.api.updater.provider;
+
+import com.moleculepowered.api.exception.updater.ProviderUnreachableException;
+import com.moleculepowered.api.updater.network.ProviderConnection;
+import com.moleculepowered.api.updater.network.ReplayServer;
+import com.moleculepowered.api.util.ComparableVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fetches providers against captured responses replayed by a local {@link ReplayServer}.
+ */
+class ProviderFetchTest
+{
+    private static final String SPIGOT = "https://api.spigotmc.org/legacy/update.php?resource=1";
+    private static final String GITHUB = "https://api.github.com/repos/foo/bar";
+    private ReplayServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        ProviderConnection.clearCache();
+        server = new ReplayServer().redirect();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+        ProviderConnection.clearCache();
+    }
+
+    @Test
+    void fetchesSpigotVersion() {
+        server.serve(SPIGOT, "1.2.0");
+
+        SpigotProvider provider = new SpigotProvider(1);
+        provider.fetch();
+
+        assertEquals(0, provider.getVersion().compareTo(new ComparableVersion("1.2.0")));
+        assertEquals("https://www.spigotmc.org/resources/1", provider.getDownloadLink());
+        assertEquals(1, server.getRequestCount(SPIGOT));
+    }
+
+    @Test
+    void reusesCachedBodyWhenNotModified() {
+        ReplayServer.Exchange exchange = server.expect(SPIGOT).body("1.2.0").etag("\"v1\"");
+
+        SpigotProvider first = new SpigotProvider(1);
+        first.fetch();
+
+        // ONLY AN UNCONDITIONAL REQUEST WOULD RECEIVE THE CHANGED BODY, THE TAG STILL MATCHES
+        exchange.body("9.9.9");
+        SpigotProvider second = new SpigotProvider(1);
+        second.fetch();
+
+        assertEquals(2, server.getRequestCount(SPIGOT));
+        assertEquals(0, second.getVersion().compareTo(new ComparableVersion("1.2.0")));
+    }
+
+    @Test
+    void reportsUnknownResourceAsUnreachable() {
+        assertThrows(ProviderUnreachableException.class, () -> new SpigotProvider(2).fetch());
+    }
+
+    @Test
+    void reportsServerErrorAsUnreachable() {
+        server.expect(SPIGOT).error();
+        assertThrows(ProviderUnreachableException.class, () -> new SpigotProvider(1).fetch());
+    }
+
+    @Test
+    void fetchesGithubReleaseAndClearsStaleChecksum() {
+        server.serve(GITHUB + "/contributors", "[{\"login\":\"alice\"}]");
+        server.serve(GITHUB + "/releases/latest", "{\"tag_name\":\"1.3.0\",\"html_url\":\"https://github.com/foo/bar/releases/1.3.0\","
+                + "\"assets\":[{\"browser_download_url\":\"https://example.com/a.jar\",\"digest\":\"sha256:abcd\"}]}");
+
+        GithubProvider provider = new GithubProvider("foo/bar");
+        provider.fetch();
+
+        assertEquals(0, provider.getVersion().compareTo(new ComparableVersion("1.3.0")));
+        assertEquals("https://example.com/a.jar", provider.getDownloadLink());
+        assertTrue(provider.getContributors().contains("alice"));
+        assertNotNull(provider.getChecksum());
+
+        // A LATER RELEASE WITHOUT A DIGEST MUST NOT KEEP THE PREVIOUS CHECKSUM
+        server.serve(GITHUB + "/releases/latest", "{\"tag_name\":\"1.4.0\",\"html_url\":\"https://github.com/foo/bar/releases/1.4.0\","
+                + "\"assets\":[{\"browser_download_url\":\"https://example.com/b.jar\"}]}");
+        provider.fetch();
+
+        assertEquals(0, provider.getVersion().compareTo(new ComparableVersion("1.4.0")));
+        assertNull(provider.getChecksum());
+    }
+
+    @Test
+    void closeKeepsResolverInstalledByAnotherServer() throws IOException {
+        try (ReplayServer other = new ReplayServer().redirect()) {
+            other.serve(SPIGOT, "2.0.0");
+            server.close();
+
+            SpigotProvider provider = new SpigotProvider(1);
+            provider.fetch();
+            assertEquals(1, other.getRequestCount(SPIGOT));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.moleculepowered.api.updater.verify;
+
+import com.moleculepowered.api.exception.updater.JarVerificationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies jars written on the fly, including damaged files and pages served instead of a jar.
+ */
+class JarVerifierTest
+{
+    @TempDir
+    Path folder;
+
+    @Test
+    void acceptsValidJar() throws Exception {
+        File jar = writeJar("Molecule", "1.2.0");
+        Checksum checksum = new Checksum("SHA-256", sha256(Files.readAllBytes(jar.toPath())));
+
+        assertDoesNotThrow(() -> new JarVerifier().setName("Molecule").setVersion("1.2.0").setChecksum(checksum).verify(jar));
+    }
+
+    @Test
+    void rejectsMismatchingDescription() throws IOException {
+        File jar = writeJar("Other", "1.1.0");
+
+        assertThrows(JarVerificationException.class, () -> new JarVerifier().setName("Molecule").verify(jar));
+        assertThrows(JarVerificationException.class, () -> new JarVerifier().setVersion("1.2.0").verify(jar));
+    }
+
+    @Test
+    void rejectsMismatchingChecksum() throws Exception {
+        File jar = writeJar("Molecule", "1.2.0");
+        Checksum checksum = new Checksum("SHA-256", sha256(new byte[0]));
+
+        assertThrows(JarVerificationException.class, () -> new JarVerifier().setChecksum(checksum).verify(jar));
+    }
+
+    @Test
+    void rejectsCorruptJar() throws IOException {
+        File jar = writeJar("Molecule", "1.2.0");
+        byte[] bytes = Files.readAllBytes(jar.toPath());
+
+        // DAMAGE THE SIGNATURE OF THE FIRST LOCAL HEADER
+        bytes[0] ^= 0x7F;
+        Files.write(jar.toPath(), bytes);
+
+        assertThrows(JarVerificationException.class, () -> new JarVerifier().verify(jar));
+    }
+
+    @Test
+    void rejectsTruncatedJar() throws IOException {
+        File jar = writeJar("Molecule", "1.2.0");
+        byte[] bytes = Files.readAllBytes(jar.toPath());
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(jar.toPath(), truncated);
+
+        assertThrows(JarVerificationException.class, () -> new JarVerifier().verify(jar));
+    }
+
+    @Test
+    void rejectsHtmlPage() throws IOException {
+        File page = folder.resolve("update.jar").toFile();
+        Files.write(page.toPath(), "<!DOCTYPE html><html><body>Rate limit exceeded</body></html>".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(JarVerificationException.class, () -> new JarVerifier().verify(page));
+    }
+
+    @Test
+    void rejectsOversizedDescription() throws IOException {
+        File jar = writeJar("Molecule", "1.2.0");
+        byte[] bytes = Files.readAllBytes(jar.toPath());
+
+        // THE CENTRAL DIRECTORY ENTRY OF PLUGIN.YML IS THE LAST OCCURRENCE OF ITS NAME
+        int header = lastIndexOf(bytes, "plugin.yml".getBytes(StandardCharsets.UTF_8)) - 46;
+        for (int i = 24; i < 28; i++) bytes[header + i] = (byte) 0xFF;
+        Files.write(jar.toPath(), bytes);
+
+        assertThrows(JarVerificationException.class, () -> new JarVerifier().verify(jar));
+    }
+
+    private File writeJar(String name, String version) throws IOException {
+        File file = folder.resolve(name + "-" + version + ".jar").toFile();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(file.toPath()))) {
+            write(out, "com/example/Main.class", new byte[256]);
+            write(out, "plugin.yml", ("name: " + name + "\nversion: " + version + "\nmain: com.example.Main\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private static void write(JarOutputStream out, String entry, byte[] content) throws IOException {
+        out.putNextEntry(new JarEntry(entry));
+        out.write(content);
+        out.closeEntry();
+    }
+
+    private static int lastIndexOf(byte[] bytes, byte[] target) {
+        outer:
+        for (int i = bytes.length - target.length; i >= 0; i--) {
+            for (int j = 0; j < target.length; j++) if (bytes[i + j] != target[j]) continue outer;
+            return i;
+        }
+        return -1;
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(content)) hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+}
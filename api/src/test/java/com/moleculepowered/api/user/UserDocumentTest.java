@@ -0,0 +1,84 @@
+package com.moleculepowered.api.user;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Changes user documents, which must never change once created, including through compare-and-set races.
+ */
+class UserDocumentTest
+{
+    @Test
+    void changesLeaveOriginalUntouched() {
+        UserDocument original = UserDocument.EMPTY.with("coins", new JsonPrimitive(5));
+        UserDocument changed = original.with("coins", new JsonPrimitive(6)).without("missing");
+
+        assertEquals(new JsonPrimitive(5), original.get("coins"));
+        assertEquals(new JsonPrimitive(6), changed.get("coins"));
+        assertEquals(original.getVersion() + 1, changed.getVersion());
+        assertSame(changed, changed.without("missing"));
+        assertFalse(original.without("coins").has("coins"));
+    }
+
+    @Test
+    void nestedValuesCannotBeChangedThroughDocument() {
+        JsonObject data = new JsonObject();
+        data.add("homes", new JsonArray());
+        UserDocument document = UserDocument.of(data);
+
+        data.getAsJsonArray("homes").add("spawn");
+        document.get("homes").getAsJsonArray().add("base");
+        document.toJson().getAsJsonArray("homes").add("farm");
+
+        assertEquals(0, document.get("homes").getAsJsonArray().size());
+    }
+
+    @Test
+    void readValuesFollowChanges() {
+        UserDocument document = UserDocument.EMPTY.with("level", new JsonPrimitive(3));
+        assertEquals(3, document.read("level", Integer.class, JsonElement::getAsInt));
+
+        UserDocument changed = document.with("level", new JsonPrimitive(4));
+        assertEquals(4, changed.read("level", Integer.class, JsonElement::getAsInt));
+        assertEquals(3, document.read("level", Integer.class, JsonElement::getAsInt));
+        assertNull(changed.read("missing", Integer.class, JsonElement::getAsInt));
+    }
+
+    @Test
+    void compareAndSetKeepsEveryConcurrentChange() throws Exception {
+        AtomicReference<UserDocument> reference = new AtomicReference<>(UserDocument.EMPTY);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    String key = thread + "-" + i;
+                    UserDocument current;
+                    do {
+                        current = reference.get();
+                    } while (!reference.compareAndSet(current, current.with(key, new JsonPrimitive(i))));
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        UserDocument document = reference.get();
+        assertEquals(4000, document.size());
+        assertEquals(4000, document.getVersion());
+        assertTrue(document.has("7-499"));
+    }
+}
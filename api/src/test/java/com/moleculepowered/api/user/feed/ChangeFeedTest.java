@@ -0,0 +1,123 @@
+package com.moleculepowered.api.user.feed;
+
+import com.google.gson.JsonPrimitive;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records more changes than a feed retains and follows them from subscribers that fall behind.
+ */
+class ChangeFeedTest
+{
+    private static final UUID USER = UUID.randomUUID();
+
+    @Test
+    void retainsMostRecentRecordsAfterWrapping() {
+        ChangeFeed feed = new ChangeFeed(4);
+        for (int i = 1; i <= 10; i++) feed.record(USER, "coins", null, new JsonPrimitive(i), i);
+
+        assertEquals(10, feed.getLatestSequence());
+        assertEquals(7, feed.getOldestSequence());
+        assertEquals(Arrays.asList(7L, 8L, 9L, 10L), sequences(feed.read(1, 100)));
+        assertEquals(Arrays.asList(8L, 9L), sequences(feed.read(8, 2)));
+        assertEquals(new JsonPrimitive(9), feed.read(9, 1).get(0).getValue());
+        assertTrue(feed.read(11, 5).isEmpty());
+    }
+
+    @Test
+    void replayReportsDiscardedRecords() throws Exception {
+        ChangeFeed feed = new ChangeFeed(4);
+        for (int i = 1; i <= 10; i++) feed.record(USER, "coins", null, new JsonPrimitive(i), i);
+
+        Recorder recorder = new Recorder(4);
+        feed.subscribe(2, 3, recorder);
+
+        assertTrue(recorder.done.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(Arrays.asList(2L, 6L)), recorder.gaps);
+        assertEquals(Arrays.asList(7L, 8L, 9L, 10L), recorder.sequences);
+        assertTrue(recorder.batches.stream().allMatch(size -> size <= 3));
+    }
+
+    @Test
+    void slowSubscriberSkipsToOldestRetainedRecord() throws Exception {
+        ChangeFeed feed = new ChangeFeed(8);
+        CountDownLatch blocked = new CountDownLatch(1), release = new CountDownLatch(1);
+        Recorder recorder = new Recorder(1) {
+            @Override
+            public void onBatch(List<ChangeRecord> records) {
+                super.onBatch(records);
+                blocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        feed.subscribe(recorder);
+
+        // THE FIRST BATCH BLOCKS WHILE THE FEED WRAPS SEVERAL TIMES
+        feed.record(USER, "coins", null, new JsonPrimitive(0), 1);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 2; i <= 30; i++) feed.record(USER, "coins", null, new JsonPrimitive(i), i);
+        release.countDown();
+
+        for (int i = 0; i < 100 && !recorder.sequences.contains(30L); i++) Thread.sleep(20);
+        assertEquals(Collections.singletonList(Arrays.asList(2L, 22L)), recorder.gaps);
+        assertEquals(1L, (long) recorder.sequences.get(0));
+        assertEquals(Arrays.asList(23L, 24L, 25L, 26L, 27L, 28L, 29L, 30L), recorder.sequences.subList(1, recorder.sequences.size()));
+    }
+
+    @Test
+    void recordsDeletions() {
+        ChangeFeed feed = new ChangeFeed(ChangeFeed.DEFAULT_CAPACITY);
+        ChangeRecord deletion = feed.recordDeletion(USER);
+
+        assertTrue(deletion.isDeletion());
+        assertEquals(USER, feed.read(1, 1).get(0).getUniqueId());
+    }
+
+    private static List<Long> sequences(List<ChangeRecord> records) {
+        return records.stream().map(ChangeRecord::getSequence).collect(Collectors.toList());
+    }
+
+    /**
+     * Collects every delivered record and gap, counting down once the expected number of records arrived.
+     */
+    private static class Recorder implements ChangeSubscriber
+    {
+        final List<Long> sequences = Collections.synchronizedList(new ArrayList<>());
+        final List<List<Long>> gaps = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done;
+
+        Recorder(int expected) {
+            done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void onBatch(List<ChangeRecord> records) {
+            batches.add(records.size());
+            for (ChangeRecord record : records) {
+                sequences.add(record.getSequence());
+                done.countDown();
+            }
+        }
+
+        @Override
+        public void onGap(long from, long to) {
+            gaps.add(Arrays.asList(from, to));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.moleculepowered.api.user.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fills bloom filters with random users and measures how often they report values that were never added.
+ */
+class BloomFilterTest
+{
+    @Test
+    void neverMissesAddedValues() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID uuid = UUID.randomUUID();
+            filter.put(uuid);
+            filter.put("player" + i);
+            uuids.add(uuid);
+        }
+
+        for (UUID uuid : uuids) assertTrue(filter.mightContain(uuid));
+        for (int i = 0; i < 10_000; i++) assertTrue(filter.mightContain("player" + i));
+    }
+
+    @Test
+    void falsePositivesStayNearRequestedRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put(UUID.randomUUID());
+
+        int positives = 0;
+        for (int i = 0; i < 100_000; i++) if (filter.mightContain(UUID.randomUUID())) positives++;
+
+        // ALLOW TWICE THE REQUESTED RATE, THE EXPECTED RATE IS ONLY REACHED ON AVERAGE
+        assertTrue(positives < 2_000, "False positive rate of " + positives / 100_000.0);
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    void countsDistinctValuesAndSaturates() {
+        BloomFilter filter = new BloomFilter(100, 0.001);
+        UUID uuid = UUID.randomUUID();
+
+        assertTrue(filter.put(uuid));
+        assertFalse(filter.put(uuid));
+        assertEquals(1, filter.count());
+
+        for (int i = 0; i < 200; i++) filter.put("player" + i);
+        assertTrue(filter.isSaturated());
+        assertEquals(100, filter.getCapacity());
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
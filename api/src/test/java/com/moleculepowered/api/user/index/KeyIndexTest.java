@@ -0,0 +1,105 @@
+package com.moleculepowered.api.user.index;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.moleculepowered.api.user.User;
+import com.moleculepowered.api.user.UserManager;
+import com.moleculepowered.api.user.storage.JsonFileStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Looks users up by value through hash and range indexes, including indexes read back from a file.
+ */
+class KeyIndexTest
+{
+    @TempDir
+    File folder;
+
+    @Test
+    void hashIndexFindsExactValues() {
+        KeyIndex index = new KeyIndex("locale", KeyIndex.Type.HASH);
+        UUID german = UUID.randomUUID(), english = UUID.randomUUID();
+        index.update(german, new JsonPrimitive("de_de"));
+        index.update(english, new JsonPrimitive("en_us"));
+
+        assertEquals(Collections.singleton(german), index.lookup("de_de"));
+
+        // A CHANGED VALUE MOVES THE USER, A NULL VALUE REMOVES IT
+        index.update(german, new JsonPrimitive("en_us"));
+        assertTrue(index.lookup("de_de").isEmpty());
+        assertEquals(new HashSet<>(Arrays.asList(german, english)), index.lookup("en_us"));
+        index.remove(english);
+        assertEquals(Collections.singleton(german), index.lookup("en_us"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void rangeIndexOrdersNumbersByValue() {
+        KeyIndex index = new KeyIndex("level", KeyIndex.Type.RANGE);
+        UUID[] users = new UUID[5];
+        for (int level = 0; level < users.length; level++) {
+            users[level] = UUID.randomUUID();
+            index.update(users[level], new JsonPrimitive(level * 10));
+        }
+
+        List<UUID> middle = index.range(10, 40).collect(Collectors.toList());
+        assertEquals(Arrays.asList(users[1], users[2], users[3]), middle);
+        assertEquals(Collections.singleton(users[2]), index.lookup(20.0));
+        assertEquals(5, index.present().count());
+    }
+
+    @Test
+    void savedIndexIsReadBack() {
+        KeyIndex index = new KeyIndex("vip", KeyIndex.Type.HASH);
+        UUID vip = UUID.randomUUID(), guest = UUID.randomUUID();
+        index.update(vip, new JsonPrimitive(true));
+        index.update(guest, new JsonPrimitive(false));
+
+        File file = new File(folder, "vip.idx");
+        index.save(file);
+        KeyIndex loaded = new KeyIndex("vip", KeyIndex.Type.HASH);
+
+        assertTrue(loaded.load(file));
+        assertEquals(Collections.singleton(vip), loaded.lookup(true));
+        assertEquals(Collections.singleton(guest), loaded.lookup(false));
+        assertFalse(new KeyIndex("vip", KeyIndex.Type.HASH).load(new File(folder, "missing.idx")));
+    }
+
+    @Test
+    void populatesStoredUsersInBackground() throws Exception {
+        JsonFileStorage storage = new JsonFileStorage(new File(folder, "users"));
+        UUID german = UUID.randomUUID();
+        for (UUID uuid : Arrays.asList(german, UUID.randomUUID())) {
+            JsonObject data = new JsonObject();
+            data.addProperty("locale", uuid == german ? "de_de" : "en_us");
+            storage.store(uuid, data);
+        }
+
+        UserManager manager = new UserManager() {
+            @Override
+            protected User loadUser(UUID uuid) {
+                return null;
+            }
+        };
+        manager.setStorage(storage);
+        KeyIndex index = manager.declareKeyIndex("locale", KeyIndex.Type.HASH);
+        manager.awaitIndexes().get(5, TimeUnit.SECONDS);
+
+        assertEquals(Collections.singleton(german), index.lookup("de_de"));
+        assertEquals(2, index.size());
+    }
+}
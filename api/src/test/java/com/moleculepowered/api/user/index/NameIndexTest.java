@@ -0,0 +1,87 @@
+package com.moleculepowered.api.user.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reopens name indexes from their snapshot and journal, as after a server stopped without saving them.
+ */
+class NameIndexTest
+{
+    @TempDir
+    File folder;
+
+    @Test
+    void replaysJournalWithoutSnapshot() throws Exception {
+        File file = new File(folder, "names.idx");
+        NameIndex index = new NameIndex(file);
+        UUID steve = UUID.randomUUID(), alex = UUID.randomUUID(), gone = UUID.randomUUID();
+
+        index.put(steve, "Steve");
+        index.put(alex, "Alex");
+        index.put(gone, "Gone");
+        index.put(steve, "Steven");
+        index.remove(gone);
+        index.awaitJournal().get(5, TimeUnit.SECONDS);
+
+        NameIndex reopened = new NameIndex(file);
+        assertTrue(reopened.open());
+        assertEquals(steve, reopened.lookup("STEVEN"));
+        assertNull(reopened.lookup("steve"));
+        assertEquals(alex, reopened.lookup("alex"));
+        assertNull(reopened.getName(gone));
+        assertEquals(2, reopened.size());
+    }
+
+    @Test
+    void ignoresTornLastLine() throws Exception {
+        File file = new File(folder, "names.idx");
+        NameIndex index = new NameIndex(file);
+        UUID steve = UUID.randomUUID();
+        index.put(steve, "Steve");
+        index.awaitJournal().get(5, TimeUnit.SECONDS);
+
+        // THE SERVER STOPPED WHILE APPENDING THE NEXT CHANGE
+        Files.write(new File(folder, "names.idx.log").toPath(), ("+" + UUID.randomUUID().toString().substring(0, 20))
+                .getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        NameIndex reopened = new NameIndex(file);
+        assertTrue(reopened.open());
+        assertEquals(1, reopened.size());
+        assertEquals(steve, reopened.lookup("steve"));
+    }
+
+    @Test
+    void compactFoldsJournalIntoSnapshot() throws Exception {
+        File file = new File(folder, "names.idx");
+        NameIndex index = new NameIndex(file);
+        for (int i = 0; i < 100; i++) index.put(UUID.randomUUID(), "player" + i);
+        index.awaitJournal().get(5, TimeUnit.SECONDS);
+
+        index.close();
+        assertFalse(new File(folder, "names.idx.log").exists());
+
+        NameIndex reopened = new NameIndex(file);
+        assertTrue(reopened.open());
+        assertEquals(100, reopened.size());
+        assertEquals(index.lookup("player42"), reopened.lookup("Player42"));
+    }
+
+    @Test
+    void opensNothingWithoutFiles() {
+        assertFalse(new NameIndex(new File(folder, "missing.idx")).open());
+        assertFalse(new NameIndex(null).open());
+    }
+}
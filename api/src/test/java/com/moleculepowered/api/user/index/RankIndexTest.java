@@ -0,0 +1,112 @@
+package com.moleculepowered.api.user.index;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.moleculepowered.api.user.User;
+import com.moleculepowered.api.user.UserManager;
+import com.moleculepowered.api.user.storage.JsonFileStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Compares rank indexes to a sorted list of the same scores.
+ */
+class RankIndexTest
+{
+    @TempDir
+    File folder;
+
+    @Test
+    void ranksMatchSortedScores() {
+        RankIndex index = new RankIndex("kills");
+        Map<UUID, Double> scores = new HashMap<>();
+        Random random = new Random(42);
+
+        // INSERT, MOVE AND REMOVE USERS SO THE TREE IS REBALANCED MANY TIMES
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) uuids.add(UUID.randomUUID());
+        for (int i = 0; i < 10000; i++) {
+            UUID uuid = uuids.get(random.nextInt(uuids.size()));
+            if (random.nextInt(5) == 0) {
+                index.remove(uuid);
+                scores.remove(uuid);
+            } else {
+                double score = random.nextInt(1_000_000);
+                index.update(uuid, score);
+                scores.put(uuid, score);
+            }
+        }
+
+        List<UUID> sorted = new ArrayList<>(scores.keySet());
+        sorted.sort(Comparator.comparing((UUID uuid) -> -scores.get(uuid)).thenComparing(Comparator.naturalOrder()));
+
+        assertEquals(sorted.size(), index.size());
+        for (int rank = 1; rank <= sorted.size(); rank++) {
+            UUID uuid = sorted.get(rank - 1);
+            assertEquals(rank, index.getRank(uuid));
+            assertEquals(uuid, index.getEntry(rank).getUniqueId());
+        }
+
+        List<RankIndex.Entry> top = index.getTop(10);
+        assertEquals(10, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(sorted.get(i), top.get(i).getUniqueId());
+            assertEquals(i + 1, top.get(i).getRank());
+        }
+        assertNull(index.getEntry(sorted.size() + 1));
+    }
+
+    @Test
+    void removesUsersWithoutNumericScore() {
+        RankIndex index = new RankIndex("kills");
+        UUID uuid = UUID.randomUUID();
+
+        index.update(uuid, new JsonPrimitive(3));
+        assertEquals(3.0, index.getScore(uuid));
+
+        index.update(uuid, new JsonPrimitive("many"));
+        assertEquals(-1, index.getRank(uuid));
+        assertEquals(Collections.emptyList(), index.getTop(5));
+    }
+
+    @Test
+    void populatesStoredUsersInBackground() throws Exception {
+        JsonFileStorage storage = new JsonFileStorage(folder);
+        List<UUID> uuids = new ArrayList<>();
+        for (int kills = 0; kills < 5; kills++) {
+            UUID uuid = UUID.randomUUID();
+            JsonObject data = new JsonObject();
+            data.addProperty("kills", kills);
+            storage.store(uuid, data);
+            uuids.add(uuid);
+        }
+
+        UserManager manager = new UserManager() {
+            @Override
+            protected User loadUser(UUID uuid) {
+                return null;
+            }
+        };
+        manager.setStorage(storage);
+        RankIndex index = manager.declareIndex("kills");
+        manager.awaitIndexes().get(5, TimeUnit.SECONDS);
+
+        assertEquals(5, index.size());
+        assertEquals(uuids.get(4), index.getTop(1).get(0).getUniqueId());
+        assertEquals(5, index.getRank(uuids.get(0)));
+    }
+}
@@ -0,0 +1,158 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.JsonObject;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes user files with every durability and layout, checking that neither a failed write nor a migration
+ * ever loses the latest version of a user.
+ */
+class JsonFileStorageTest
+{
+    @TempDir
+    File folder;
+
+    @Test
+    void everyDurabilityReadsBackItsWrites() throws Exception {
+        for (Durability durability : Durability.values()) {
+            JsonFileStorage storage = new JsonFileStorage(new File(folder, durability.name())).setDurability(durability);
+            UUID uuid = UUID.randomUUID();
+
+            storage.store(uuid, data(1));
+            storage.store(uuid, data(2));
+            assertEquals(data(2), storage.load(uuid));
+            assertEquals(1, storage.keys().size());
+            assertEquals(0, temporaryFiles(storage.getFolder()));
+        }
+    }
+
+    @Test
+    void groupCommitKeepsConcurrentWrites() throws Exception {
+        JsonFileStorage storage = new JsonFileStorage(folder).setDurability(Durability.GROUP_COMMIT);
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 64; i++) uuids.add(UUID.randomUUID());
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = thread; i < uuids.size(); i += 8) storage.store(uuids.get(i), data(i));
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+
+        for (int i = 0; i < uuids.size(); i++) assertEquals(data(i), storage.load(uuids.get(i)));
+        assertEquals(0, temporaryFiles(folder));
+    }
+
+    @Test
+    void failedWriteKeepsPreviousVersion() throws Exception {
+        JsonFileStorage storage = new JsonFileStorage(folder);
+        UUID uuid = UUID.randomUUID();
+        storage.store(uuid, data(1));
+
+        // A FOLDER IN PLACE OF THE TEMPORARY FILE MAKES THE NEXT WRITE FAIL BEFORE ANY RENAME
+        File target = storage.getLocation(uuid);
+        File temp = new File(target.getParentFile(), target.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        assertTrue(new File(temp, "blocked").mkdirs());
+
+        assertThrows(UserStorageException.class, () -> storage.store(uuid, data(2)));
+        assertEquals(data(1), storage.load(uuid));
+    }
+
+    @Test
+    void storeAllWritesEveryUser() throws Exception {
+        JsonFileStorage storage = new JsonFileStorage(folder).setDurability(Durability.FSYNC);
+        Map<UUID, JsonObject> batch = new HashMap<>();
+        for (int i = 0; i < 10; i++) batch.put(UUID.randomUUID(), data(i));
+
+        storage.storeAll(batch);
+        for (Map.Entry<UUID, JsonObject> entry : batch.entrySet()) assertEquals(entry.getValue(), storage.load(entry.getKey()));
+        assertEquals(0, temporaryFiles(folder));
+    }
+
+    @Test
+    void shardedLayoutNestsFiles() {
+        JsonFileStorage storage = new JsonFileStorage(folder).setLayout(FileLayout.SHARDED);
+        UUID uuid = UUID.randomUUID();
+        storage.store(uuid, data(1));
+
+        String name = uuid + ".json";
+        File expected = new File(new File(new File(folder, name.substring(0, 2)), name.substring(2, 4)), name);
+        assertEquals(expected, storage.getLocation(uuid));
+        assertTrue(expected.isFile());
+        assertTrue(storage.exists(uuid));
+        assertEquals(1, storage.keys().size());
+    }
+
+    @Test
+    void migrationMovesFlatFiles() throws Exception {
+        JsonFileStorage storage = new JsonFileStorage(folder);
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            UUID uuid = UUID.randomUUID();
+            storage.store(uuid, data(i));
+            uuids.add(uuid);
+        }
+
+        // FLAT FILES ARE STILL FOUND BEFORE THEY ARE MOVED
+        storage.setLayout(FileLayout.SHARDED);
+        assertEquals(data(0), storage.load(uuids.get(0)));
+
+        assertEquals(20, storage.migrateLayout().get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < uuids.size(); i++) {
+            assertTrue(storage.getLocation(uuids.get(i)).isFile());
+            assertEquals(data(i), storage.load(uuids.get(i)));
+        }
+        assertFalse(new File(folder, uuids.get(0) + ".json").exists());
+        assertEquals(20, storage.keys().size());
+        assertEquals(0, storage.migrateLayout().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void writeAfterLayoutChangeReplacesOldLocation() throws Exception {
+        JsonFileStorage storage = new JsonFileStorage(folder);
+        UUID uuid = UUID.randomUUID();
+        storage.store(uuid, data(1));
+
+        storage.setLayout(FileLayout.SHARDED);
+        storage.store(uuid, data(2));
+
+        assertFalse(new File(folder, uuid + ".json").exists());
+        assertEquals(0, storage.migrateLayout().get(5, TimeUnit.SECONDS));
+        assertEquals(data(2), storage.load(uuid));
+        assertEquals(1, storage.keys().size());
+    }
+
+    private static JsonObject data(int coins) {
+        JsonObject data = new JsonObject();
+        data.addProperty("coins", coins);
+        return data;
+    }
+
+    private static long temporaryFiles(File folder) throws IOException {
+        try (Stream<Path> files = Files.walk(folder.toPath())) {
+            return files.filter(path -> path.toString().endsWith(".tmp")).count();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reopens and compacts user logs, including logs whose last record was only partially written.
+ */
+class LogStructuredStorageTest
+{
+    @TempDir
+    File folder;
+
+    @Test
+    void recoversFromTornTail() throws IOException {
+        File file = new File(folder, "users.log");
+        List<UUID> users = new ArrayList<>();
+
+        LogStructuredStorage storage = new LogStructuredStorage(file);
+        for (int i = 0; i < 10; i++) {
+            UUID uuid = UUID.randomUUID();
+            storage.store(uuid, data(i));
+            users.add(uuid);
+        }
+        storage.close();
+        long intact = file.length();
+
+        // A CRASH WHILE APPENDING LEAVES THE START OF A RECORD BEHIND
+        Files.write(file.toPath(), new byte[]{1, 42, 42, 42, 42, 42, 42}, StandardOpenOption.APPEND);
+
+        storage = new LogStructuredStorage(file);
+        assertEquals(intact, file.length());
+        for (int i = 0; i < users.size(); i++) assertEquals(i, load(storage, users.get(i)));
+
+        // THE LOG ACCEPTS WRITES AGAIN ONCE THE TORN RECORD WAS DISCARDED
+        UUID added = UUID.randomUUID();
+        storage.store(added, data(99));
+        storage.close();
+
+        storage = new LogStructuredStorage(file);
+        assertEquals(99, load(storage, added));
+        assertEquals(users.size() + 1, storage.keys().size());
+        storage.close();
+    }
+
+    @Test
+    void compactsGarbage() {
+        File file = new File(folder, "users.log");
+        LogStructuredStorage storage = new LogStructuredStorage(file).setCompactionThreshold(Long.MAX_VALUE);
+
+        UUID kept = UUID.randomUUID(), deleted = UUID.randomUUID();
+        for (int i = 0; i < 100; i++) storage.store(kept, data(i));
+        storage.store(deleted, data(-1));
+        assertTrue(storage.delete(deleted));
+
+        long size = storage.getSize();
+        assertTrue(storage.getGarbage() > 0);
+        assertTrue(storage.compact());
+
+        assertEquals(0, storage.getGarbage());
+        assertTrue(storage.getSize() < size);
+        assertEquals(99, load(storage, kept));
+        assertFalse(storage.exists(deleted));
+        storage.close();
+
+        storage = new LogStructuredStorage(file);
+        assertEquals(99, load(storage, kept));
+        assertNull(storage.load(deleted));
+        storage.close();
+    }
+
+    private static JsonObject data(int value) {
+        JsonObject data = new JsonObject();
+        data.addProperty("value", value);
+        return data;
+    }
+
+    private static int load(LogStructuredStorage storage, UUID uuid) {
+        JsonObject data = storage.load(uuid);
+        assertNotNull(data);
+        return data.get("value").getAsInt();
+    }
+}
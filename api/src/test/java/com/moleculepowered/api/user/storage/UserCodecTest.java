@@ -0,0 +1,69 @@
+package com.moleculepowered.api.user.storage;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.moleculepowered.api.exception.user.UserStorageException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Converts user documents through the binary codec and back, and tells both codecs apart by their data.
+ */
+class UserCodecTest
+{
+    private static final String DOCUMENT = "{"
+            + "\"uuid\":\"" + UUID.randomUUID() + "\","
+            + "\"name\":\"Steve\","
+            + "\"shouted\":\"ABCDEFAB-1234-1234-1234-ABCDEFABCDEF\","
+            + "\"coins\":-9007199254740993,"
+            + "\"ratio\":0.25,"
+            + "\"precise\":0.1000000000000000055511151231257827,"
+            + "\"vip\":true,"
+            + "\"nickname\":null,"
+            + "\"homes\":[{\"name\":\"spawn\",\"x\":12,\"y\":64.5},{\"name\":\"base\",\"tags\":[]}],"
+            + "\"stats\":{\"kills\":{\"zombie\":3}}"
+            + "}";
+
+    @Test
+    void binaryRoundTripKeepsEveryValue() {
+        JsonObject document = JsonParser.parseString(DOCUMENT).getAsJsonObject();
+        JsonObject decoded = UserCodec.BINARY.decode(UserCodec.BINARY.encode(document));
+
+        assertEquals(document, decoded);
+        assertEquals("ABCDEFAB-1234-1234-1234-ABCDEFABCDEF", decoded.get("shouted").getAsString());
+        assertEquals(-9007199254740993L, decoded.get("coins").getAsLong());
+        assertEquals("0.1000000000000000055511151231257827", decoded.get("precise").getAsBigDecimal().toPlainString());
+    }
+
+    @Test
+    void binaryIsSmallerThanJson() {
+        JsonObject document = JsonParser.parseString(DOCUMENT).getAsJsonObject();
+        assertTrue(UserCodec.BINARY.encode(document).length < UserCodec.JSON.encode(document).length);
+    }
+
+    @Test
+    void detectsCodecFromData() {
+        JsonObject document = JsonParser.parseString(DOCUMENT).getAsJsonObject();
+
+        assertSame(UserCodec.BINARY, UserCodec.detect(UserCodec.BINARY.encode(document)));
+        assertSame(UserCodec.JSON, UserCodec.detect(UserCodec.JSON.encode(document)));
+        assertSame(UserCodec.JSON, UserCodec.detect(new byte[0]));
+        assertEquals(document, UserCodec.detect(UserCodec.JSON.encode(document)).decode(UserCodec.JSON.encode(document)));
+    }
+
+    @Test
+    void rejectsDamagedBinaryDocument() {
+        byte[] data = UserCodec.BINARY.encode(JsonParser.parseString(DOCUMENT).getAsJsonObject());
+
+        assertThrows(UserStorageException.class, () -> UserCodec.BINARY.decode(Arrays.copyOf(data, data.length / 2)));
+        assertThrows(UserStorageException.class, () -> UserCodec.BINARY.decode("{}".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,177 @@
+package com.moleculepowered.api.user.sync;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.moleculepowered.api.user.User;
+import com.moleculepowered.api.user.UserDocument;
+import com.moleculepowered.api.user.UserManager;
+import com.moleculepowered.api.user.index.BloomFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hands user leases over between two managers connected through a {@link LoopbackTransport}.
+ */
+class UserSyncTest
+{
+    private UserSync first, second;
+
+    @BeforeEach
+    void connect() {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        first = manager().enableSync(hub.connect(), "first");
+        second = manager().enableSync(hub.connect(), "second");
+        first.setClaimRound(Duration.ofMillis(100));
+        second.setClaimRound(Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void close() {
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void handsLeaseOverOnRelease() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        first.acquire(uuid).get(5, TimeUnit.SECONDS);
+        assertTrue(first.isOwner(uuid));
+
+        // THE SECOND SERVER WAITS UNTIL THE FIRST ONE RELEASES THE USER
+        CompletableFuture<Void> handoff = second.acquire(uuid);
+        Thread.sleep(300);
+        assertFalse(handoff.isDone());
+        assertEquals("first", second.getOwner(uuid));
+
+        first.release(uuid);
+        handoff.get(5, TimeUnit.SECONDS);
+        assertTrue(second.isOwner(uuid));
+        assertFalse(first.isOwner(uuid));
+    }
+
+    @Test
+    void settlesConcurrentClaims() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        CompletableFuture<Void> claimedByFirst = first.acquire(uuid), claimedBySecond = second.acquire(uuid);
+        CompletableFuture.anyOf(claimedByFirst, claimedBySecond).get(5, TimeUnit.SECONDS);
+
+        // THE LOSER KEEPS WAITING INSTEAD OF BELIEVING IT OWNS THE USER AS WELL
+        Thread.sleep(300);
+        assertTrue(claimedByFirst.isDone() ^ claimedBySecond.isDone());
+        assertTrue(first.isOwner(uuid) ^ second.isOwner(uuid));
+    }
+
+    @Test
+    void appliesDeltasOfNewOwnerAfterLeaseExpired() throws Exception {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        UUID uuid = UUID.randomUUID();
+        AtomicReference<UserDocument> copy = new AtomicReference<>(UserDocument.EMPTY);
+        UserManager manager = new UserManager() {
+            @Override
+            protected User loadUser(UUID id) {
+                return user(id, copy);
+            }
+        };
+        UserSync observer = manager.enableSync(hub.connect(), "observer");
+        manager.getUser(uuid);
+
+        // THE CRASHED OWNER SHIPPED A LATE VERSION AND NEVER RELEASED ITS SHORT LEASE
+        LoopbackTransport crashed = hub.connect(), next = hub.connect();
+        crashed.send(new SyncMessage(SyncMessage.Type.CLAIM, "crashed", uuid, 0, 50, null));
+        crashed.send(new SyncMessage(SyncMessage.Type.DELTA, "crashed", uuid, 50, 0, coins(1)));
+        await(copy, 1);
+        Thread.sleep(100);
+
+        // THE NEXT OWNER COUNTS VERSIONS FROM ITS OWN LOAD
+        next.send(new SyncMessage(SyncMessage.Type.CLAIM, "next", uuid, 0, 30000, null));
+        next.send(new SyncMessage(SyncMessage.Type.DELTA, "next", uuid, 1, 0, coins(2)));
+        await(copy, 2);
+        assertEquals("next", observer.getOwner(uuid));
+        observer.close();
+    }
+
+    @Test
+    void reportsUsersKnownToOtherServers() throws Exception {
+        LoopbackTransport.Hub hub = new LoopbackTransport.Hub();
+        UserManager manager = manager();
+        BloomFilter filter = manager.declareFilter();
+        UserSync observer = manager.enableSync(hub.connect(), "observer");
+
+        // THE PLAYER FIRST JOINED ANOTHER SERVER, WHICH NOW OWNS AND RENAMES THE USER
+        UUID uuid = UUID.randomUUID();
+        JsonObject delta = new JsonObject();
+        delta.addProperty("name", "Traveller");
+        LoopbackTransport other = hub.connect();
+        other.send(new SyncMessage(SyncMessage.Type.CLAIM, "other", uuid, 0, 30000, null));
+        other.send(new SyncMessage(SyncMessage.Type.DELTA, "other", uuid, 1, 0, delta));
+
+        for (int i = 0; i < 100 && !filter.mightContain("traveller"); i++) Thread.sleep(20);
+        assertTrue(filter.mightContain(uuid));
+        assertTrue(filter.mightContain("traveller"));
+        observer.close();
+    }
+
+    private static JsonObject coins(int coins) {
+        JsonObject delta = new JsonObject();
+        delta.addProperty("coins", coins);
+        return delta;
+    }
+
+    private static void await(AtomicReference<UserDocument> document, int coins) throws InterruptedException {
+        for (int i = 0; i < 100 && !new JsonPrimitive(coins).equals(document.get().get("coins")); i++) Thread.sleep(20);
+        assertEquals(new JsonPrimitive(coins), document.get().get("coins"));
+    }
+
+    /**
+     * Creates a user applying remote changes to the provided document, the only data the synchronization reads.
+     */
+    @SuppressWarnings("unchecked")
+    private static User user(UUID uuid, AtomicReference<UserDocument> document) {
+        return (User) Proxy.newProxyInstance(User.class.getClassLoader(), new Class<?>[]{User.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getUniqueId":
+                    return uuid;
+                case "getName":
+                    return "player";
+                case "getDocument":
+                    return document.get();
+                case "applyRemote":
+                    document.updateAndGet(current -> current.with((Map<String, JsonElement>) args[0]));
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    Class<?> type = method.getReturnType();
+                    if (type == boolean.class) return false;
+                    if (type == int.class) return 0;
+                    if (type == long.class) return 0L;
+                    return null;
+            }
+        });
+    }
+
+    private static UserManager manager() {
+        return new UserManager() {
+            @Override
+            protected User loadUser(UUID uuid) {
+                return null;
+            }
+        };
+    }
+}
@@ -52,6 +52,16 @@ public abstract class BukkitPlugin extends JavaPlugin implements MoleculePlugin
         userManager.onEnable();
     }
 
+    /**
+     * Disables the user manager, saving its indexes and closing its storage. Deferred user changes are
+     * written when the plugin is disabled either way, but plugins overriding this method should call
+     * {@code super.onDisable()} so the user manager is disabled.
+     */
+    @Override
+    public void onDisable() {
+        userManager.onDisable();
+    }
+
     /**
      * Registers all the events in the given listener class.
      *
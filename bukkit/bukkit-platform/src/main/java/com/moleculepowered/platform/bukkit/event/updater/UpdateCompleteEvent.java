@@ -38,11 +38,25 @@ public final class UpdateCompleteEvent extends AbstractEvent implements Cancella
      * @param updater the updater instance handling the update checks
      */
     public UpdateCompleteEvent(boolean async, @NotNull BukkitUpdater updater) {
+        this(async, updater, updater.getProvider(), updater.getLatestVersion(), updater.getResult());
+    }
+
+    /**
+     * Constructs a new UpdateCompleteEvent instance describing a check that completed earlier, such as
+     * a check whose events are delivered on a later tick.
+     *
+     * @param async    true if the event should be handled asynchronously
+     * @param updater  the updater instance handling the update checks
+     * @param provider the provider of the latest release when the check completed
+     * @param version  the latest version when the check completed
+     * @param result   the result of the check
+     */
+    public UpdateCompleteEvent(boolean async, @NotNull BukkitUpdater updater, AbstractProvider provider, ComparableVersion version, UpdateResult result) {
         super(async);
         this.updater = updater;
-        this.provider = updater.getProvider();
-        this.version = updater.getLatestVersion();
-        this.result = updater.getResult();
+        this.provider = provider;
+        this.version = version;
+        this.result = result;
     }
 
     /*
@@ -10,5 +10,19 @@ import com.moleculepowered.platform.bukkit.event.AbstractEvent;
  */
 public class UserCreatedEvent extends AbstractEvent
 {
+    /**
+     * Constructs a new UserCreatedEvent fired on the main thread.
+     */
+    public UserCreatedEvent() {
+        super();
+    }
 
+    /**
+     * Constructs a new UserCreatedEvent with the specified async flag.
+     *
+     * @param async true if the event is fired from an asynchronous thread
+     */
+    public UserCreatedEvent(boolean async) {
+        super(async);
+    }
 }
@@ -10,5 +10,19 @@ import com.moleculepowered.platform.bukkit.event.AbstractEvent;
  */
 public class UserDeletedEvent extends AbstractEvent
 {
+    /**
+     * Constructs a new UserDeletedEvent fired on the main thread.
+     */
+    public UserDeletedEvent() {
+        super();
+    }
 
+    /**
+     * Constructs a new UserDeletedEvent with the specified async flag.
+     *
+     * @param async true if the event is fired from an asynchronous thread
+     */
+    public UserDeletedEvent(boolean async) {
+        super(async);
+    }
 }
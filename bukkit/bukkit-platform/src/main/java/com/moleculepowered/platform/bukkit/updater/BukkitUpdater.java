@@ -1,6 +1,8 @@
 package com.moleculepowered.platform.bukkit.updater;
 
 import com.moleculepowered.api.MoleculePlugin;
+import com.moleculepowered.api.concurrent.IOExecutor;
+import com.moleculepowered.api.exception.updater.JarVerificationException;
 import com.moleculepowered.api.updater.UpdateResult;
 import com.moleculepowered.api.updater.Updater;
 import com.moleculepowered.api.updater.provider.AbstractProvider;
@@ -10,6 +12,7 @@ import com.moleculepowered.api.updater.provider.HangarProvider;
 import com.moleculepowered.api.updater.provider.PolymartProvider;
 import com.moleculepowered.api.updater.provider.SpigetProvider;
 import com.moleculepowered.api.updater.provider.SpigotProvider;
+import com.moleculepowered.api.updater.telemetry.CheckRecord;
 import com.moleculepowered.api.util.ComparableVersion;
 import com.moleculepowered.api.util.FileUtil;
 import com.moleculepowered.api.util.StringUtil;
@@ -40,6 +43,8 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -94,10 +99,13 @@ import java.util.stream.Collectors;
 public final class BukkitUpdater extends Updater implements Listener
 {
     private final Set<Player> audience = new HashSet<>();
+    private final MainThreadDispatcher dispatcher;
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private DeliveryMode delivery = DeliveryMode.DIRECT;
     private static boolean isLegacy;
     private static AbstractProvider provider;
     private static Plugin plugin;
-    private BukkitTask task;
+    private BukkitTask task, telemetryTask;
     private YamlConfiguration config;
 
     /*
@@ -114,6 +122,7 @@ public final class BukkitUpdater extends Updater implements Listener
         isLegacy = !(plugin instanceof MoleculePlugin);
         latestVersion = currentVersion;
         BukkitUpdater.plugin = plugin;
+        dispatcher = new MainThreadDispatcher(plugin);
 
         // HANDLE CONFIGURATION CREATION
         File globalConfigFile = new File(getUpdateFolder(), "config.yml");
@@ -144,6 +153,24 @@ public final class BukkitUpdater extends Updater implements Listener
         this((Plugin) plugin);
     }
 
+    /*
+    CHAIN METHODS
+     */
+
+    /**
+     * Sets how {@link UpdateCompleteEvent} and {@link UpdateFailedEvent} are delivered when an update
+     * check runs on an asynchronous thread. By default, events are delivered {@link DeliveryMode#DIRECT directly}
+     * as asynchronous events. Listeners that do not need the main thread should instead be added using
+     * {@link #addListener(com.moleculepowered.api.updater.UpdaterListener)}.
+     *
+     * @param mode The delivery mode
+     * @return An instance of this updater chain
+     */
+    public @NotNull BukkitUpdater setDeliveryMode(@NotNull DeliveryMode mode) {
+        this.delivery = mode;
+        return this;
+    }
+
     /*
     SCHEDULING METHODS
      */
@@ -153,8 +180,9 @@ public final class BukkitUpdater extends Updater implements Listener
      *
      * <p>
      * This method is used to schedule the periodic update check. By default, if no interval was set prior,
-     * it will schedule updates every 3 hours. The update checks are run on an asynchronous thread to avoid
-     * blocking the main thread.
+     * it will schedule updates every 3 hours. The update checks are run on the shared {@link IOExecutor}
+     * (a virtual thread on Java 21 or newer) to avoid blocking the main thread or occupying the server's
+     * asynchronous scheduler pool. A check is skipped if the previous one is still running.
      * </p>
      *
      * @see #initialize()
@@ -162,7 +190,16 @@ public final class BukkitUpdater extends Updater implements Listener
      */
     public void scheduleAsync() {
         if (task != null) task.cancel();
-        task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> initialize(true), 0, interval);
+        task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            if (checking.compareAndSet(false, true)) IOExecutor.execute(() -> {
+                try {
+                    initialize(true);
+                } finally {
+                    checking.set(false);
+                }
+            });
+        }, 0, interval);
+        scheduleTelemetry();
     }
 
     /**
@@ -179,6 +216,23 @@ public final class BukkitUpdater extends Updater implements Listener
     public void schedule() {
         if (task != null) task.cancel();
         task = Bukkit.getScheduler().runTaskTimer(plugin, this::initialize, 0, interval);
+        scheduleTelemetry();
+    }
+
+    /**
+     * Schedules the periodic telemetry dump based on the provided {@link #telemetryInterval}. If no
+     * interval was set, this method only cancels the existing dump task, if any. Dumps always run
+     * on an asynchronous thread.
+     *
+     * @see #setTelemetryInterval(String)
+     */
+    private void scheduleTelemetry() {
+        if (telemetryTask != null) telemetryTask.cancel();
+        if (telemetryInterval <= 0) return;
+
+        telemetryTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin,
+                () -> getTelemetry().dump().forEach(line -> plugin.getLogger().info("[Updater] " + line)),
+                telemetryInterval, telemetryInterval);
     }
 
     /*
@@ -208,6 +262,7 @@ public final class BukkitUpdater extends Updater implements Listener
      * @see #schedule()
      */
     public void initialize(boolean async) {
+        CheckRecord.Builder check = getTelemetry().startCheck();
         try {
             Validate.notEmpty(providers, "Updater Misconfigured! Please provide at least one provider");
             Validate.isTrue(interval > 0, "The minimum interval for the updater is \"1s\"");
@@ -229,7 +284,7 @@ public final class BukkitUpdater extends Updater implements Listener
                 for (AbstractProvider active : providers) {
 
                     // FETCH LATEST RELEASE
-                    active.fetch();
+                    fetch(active, check);
 
                     // SET AS LATEST IF THE FETCHED UPDATE IS NOT GREATER
                     ComparableVersion fetchedVersion = active.getVersion();
@@ -246,27 +301,59 @@ public final class BukkitUpdater extends Updater implements Listener
                 if (latestVersion.isGreaterThan(currentVersion)) {
                     result = UpdateResult.UPDATE_AVAILABLE;
                     String downloadLink = StringUtil.nonNull(provider.getDownloadLink());
-                    attemptDownload(downloadLink, new File(getUpdateFolder(), FileUtil.getFileName(downloadLink)));
+                    try {
+                        attemptDownload(downloadLink, new File(getUpdateFolder(), FileUtil.getFileName(downloadLink)));
+                    } catch (JarVerificationException ex) {
+
+                        // A REJECTED DOWNLOAD IS DISCARDED, THE UPDATE REMAINS AVAILABLE FOR A MANUAL DOWNLOAD
+                        notifyFailure(ex);
+                        deliver(async, eventAsync -> plugin.getServer().getPluginManager().callEvent(new UpdateFailedEvent(eventAsync, this, ex)));
+                    }
                 }
             } else result = UpdateResult.DISABLED;
 
-            // CALL EVENT WHEN UPDATER COMPLETES
-            UpdateCompleteEvent event = new UpdateCompleteEvent(async, this);
-            plugin.getServer().getPluginManager().callEvent(event);
-
-            // SEND NOTIFICATIONS TO THE APPROPRIATE AUDIENCE IF EVENT IS NOT CANCELLED
-            if (!event.isCancelled()) sendNotification(result);
+            // RECORD THE TOTALS OF THIS CHECK AND NOTIFY ASYNC LISTENERS ON THIS THREAD
+            check.complete(result);
+            notifyComplete(result);
+
+            // CALL EVENT WHEN UPDATER COMPLETES AND SEND NOTIFICATIONS IF EVENT IS NOT CANCELLED, A BATCHED
+            // DELIVERY RUNS ON A LATER TICK, SO THE OUTCOME OF THIS CHECK IS CAPTURED NOW
+            AbstractProvider completedProvider = provider;
+            ComparableVersion completedVersion = latestVersion;
+            UpdateResult completedResult = result;
+            deliver(async, eventAsync -> {
+                UpdateCompleteEvent event = new UpdateCompleteEvent(eventAsync, this, completedProvider, completedVersion, completedResult);
+                plugin.getServer().getPluginManager().callEvent(event);
+                if (!event.isCancelled()) sendNotification(event.getResult());
+            });
 
             // UNSCHEDULE UPDATER IF DISABLED
             if (result == UpdateResult.DISABLED) unschedule();
 
         } catch (IOException ex) {
-            // CALL EVENT WHEN UPDATER COMPLETES
-            UpdateFailedEvent event = new UpdateFailedEvent(async, this, ex);
-            plugin.getServer().getPluginManager().callEvent(event);
+            check.fail(ex);
+            notifyFailure(ex);
+
+            // CALL EVENT WHEN UPDATER FAILS
+            deliver(async, eventAsync -> plugin.getServer().getPluginManager().callEvent(new UpdateFailedEvent(eventAsync, this, ex)));
+        } catch (RuntimeException ex) {
+            check.fail(ex);
+            throw ex;
         }
     }
 
+    /**
+     * Delivers the result of an update check according to the configured {@link DeliveryMode}. The
+     * delivery receives whether the events it fires must be flagged as asynchronous.
+     *
+     * @param async    Whether the update check ran on an asynchronous thread
+     * @param delivery The delivery firing the events
+     */
+    private void deliver(boolean async, @NotNull Consumer<Boolean> delivery) {
+        if (async && this.delivery == DeliveryMode.BATCHED) dispatcher.submit(() -> delivery.accept(false));
+        else delivery.accept(async);
+    }
+
     /*
     GETTER METHODS
      */
@@ -293,6 +380,17 @@ public final class BukkitUpdater extends Updater implements Listener
         return provider;
     }
 
+    /**
+     * Returns the name of the updated plugin, downloaded updates must declare the same name
+     * in their plugin.yml in-order to be installed.
+     *
+     * @return the name of the updated plugin
+     */
+    @Override
+    protected @NotNull String getPluginName() {
+        return plugin.getName();
+    }
+
     /**
      * Returns the set of players in the audience.
      *
@@ -335,6 +433,7 @@ public final class BukkitUpdater extends Updater implements Listener
     @Override
     public void unschedule() {
         task.cancel();
+        if (telemetryTask != null) telemetryTask.cancel();
     }
 
     /**
@@ -382,6 +481,25 @@ public final class BukkitUpdater extends Updater implements Listener
     INTERNAL CLASSES
      */
 
+    /**
+     * Determines how the events of an asynchronous update check are delivered to listeners.
+     *
+     * @author OMGitzFROST
+     * @see #setDeliveryMode(DeliveryMode)
+     */
+    public enum DeliveryMode
+    {
+        /**
+         * Events are fired as asynchronous events on the thread that ran the check.
+         */
+        DIRECT,
+        /**
+         * Events are collected and fired as synchronous events on the main thread, in a single
+         * task per tick for every result produced during that tick.
+         */
+        BATCHED
+    }
+
     /**
      * Enumerates the default messages sent by the updater when it completes its task.
      *
@@ -0,0 +1,74 @@
+package com.moleculepowered.platform.bukkit.updater;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands deliveries produced on asynchronous threads over to the server's main thread. Deliveries
+ * submitted during the same tick are collected and run together by a single scheduled task,
+ * so any number of results costs one scheduler round trip per tick.
+ *
+ * <p>Every dispatcher belongs to a single plugin and schedules its drain task under that plugin only.
+ * Disabling the plugin cancels a pending drain, so the dispatcher must not outlive it. A plugin
+ * enabled again creates a new updater and with it a new dispatcher.</p>
+ *
+ * @author OMGitzFROST
+ * @see BukkitUpdater.DeliveryMode#BATCHED
+ */
+final class MainThreadDispatcher
+{
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Plugin plugin;
+
+    /**
+     * Constructs a dispatcher scheduling its drain task under the provided plugin.
+     *
+     * @param plugin the plugin owning the drain task
+     */
+    MainThreadDispatcher(@NotNull Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Queues the provided delivery, scheduling the drain task if one is not already pending. If the
+     * drain task cannot be scheduled, the delivery is discarded and the exception is rethrown.
+     *
+     * @param delivery the delivery to run on the main thread
+     */
+    void submit(@NotNull Runnable delivery) {
+        pending.add(delivery);
+        if (!scheduled.compareAndSet(false, true)) return;
+
+        // A TASK THAT COULD NOT BE SCHEDULED, FOR EXAMPLE BECAUSE THE PLUGIN WAS DISABLED, MUST NOT BLOCK LATER DELIVERIES
+        try {
+            Bukkit.getScheduler().runTask(plugin, this::drain);
+        } catch (RuntimeException ex) {
+            pending.remove(delivery);
+            scheduled.set(false);
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs every queued delivery on the main thread. The scheduled flag is cleared before the queue
+     * is polled, so a delivery submitted while draining either runs now or schedules the next drain.
+     */
+    private void drain() {
+        scheduled.set(false);
+
+        Runnable delivery;
+        while ((delivery = pending.poll()) != null) {
+            try {
+                delivery.run();
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+}
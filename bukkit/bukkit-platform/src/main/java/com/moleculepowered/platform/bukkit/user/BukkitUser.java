@@ -1,17 +1,22 @@
 package com.moleculepowered.platform.bukkit.user;
 
+import com.moleculepowered.api.concurrent.WriteBehind;
 import com.moleculepowered.api.user.User;
+import com.moleculepowered.api.user.storage.UserStorage;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Objects;
 import java.util.UUID;
 
 /**
  * Creates a {@link User} entity for the Bukkit platform.
  *
+ * <p>The identity of this user is kept in typed fields that mirror its configuration, so reading the
+ * unique ID, name, display name, custom name or locale does not look up or parse the configuration.
+ * These fields are updated whenever the matching keys are set using {@link #setData(String, Object)}.</p>
+ *
  * @author OMGitzFROST
  */
 public final class BukkitUser extends BukkitUserData implements User
@@ -32,6 +37,45 @@ public final class BukkitUser extends BukkitUserData implements User
         super(plugin, player);
     }
 
+    /**
+     * Creates a new Bukkit user based on a player object, reading and writing its data using the
+     * provided storage.
+     *
+     * @param plugin  The plugin handling this user
+     * @param player  The provided player object
+     * @param storage The storage backend of this user
+     */
+    public BukkitUser(@NotNull Plugin plugin, @NotNull OfflinePlayer player, @NotNull UserStorage storage) {
+        super(plugin, player, storage);
+    }
+
+    /**
+     * Creates a new Bukkit user using only the unique ID and name of a player, for example while the
+     * player is still logging in. The remaining information is collected once the user is updated.
+     *
+     * @param plugin  The plugin handling this user
+     * @param uuid    The unique ID of the player
+     * @param name    The name of the player, or null if the user is already stored
+     * @param storage The storage backend of this user
+     */
+    public BukkitUser(@NotNull Plugin plugin, @NotNull UUID uuid, @Nullable String name, @NotNull UserStorage storage) {
+        super(plugin, uuid, name, storage);
+    }
+
+    /**
+     * Creates a new Bukkit user using only the unique ID and name of a player, deferring its writes using
+     * the provided write-behind, typically the one of the manager loading this user.
+     *
+     * @param plugin      The plugin handling this user
+     * @param uuid        The unique ID of the player
+     * @param name        The name of the player, or null if the user is already stored
+     * @param storage     The storage backend of this user
+     * @param writeBehind The write-behind deferring the writes of this user
+     */
+    public BukkitUser(@NotNull Plugin plugin, @NotNull UUID uuid, @Nullable String name, @NotNull UserStorage storage, @NotNull WriteBehind writeBehind) {
+        super(plugin, uuid, name, storage, writeBehind);
+    }
+
     /*
     GETTER METHODS
      */
@@ -43,17 +87,29 @@ public final class BukkitUser extends BukkitUserData implements User
      */
     @Override
     public @NotNull UUID getUniqueId() {
-        return UUID.fromString(Objects.requireNonNull(getData("uuid")));
+        return uuid;
     }
 
     /**
-     * Retrieves the name assigned to this user object.
+     * Retrieves the name assigned to this user object. Users whose name is not known, since neither their
+     * file nor the server recorded it, are named after their unique ID.
      *
      * @return The name of the user
      */
     @Override
     public @NotNull String getName() {
-        return Objects.requireNonNull(getData("name"));
+        String name = this.name;
+        return name != null ? name : uuid.toString();
+    }
+
+    /**
+     * Returns true if the name of this user is known, rather than named after its unique ID.
+     *
+     * @return true if the name of this user is known
+     */
+    @Override
+    public boolean hasName() {
+        return name != null;
     }
 
     /**
@@ -65,7 +121,7 @@ public final class BukkitUser extends BukkitUserData implements User
      */
     @Override
     public @Nullable String getDisplayName() {
-        return getData("display-name");
+        return displayName;
     }
 
     /**
@@ -77,7 +133,7 @@ public final class BukkitUser extends BukkitUserData implements User
      */
     @Override
     public @Nullable String getCustomName() {
-        return getData("custom-name");
+        return customName;
     }
 
     /**
@@ -87,7 +143,7 @@ public final class BukkitUser extends BukkitUserData implements User
      */
     @Override
     public @Nullable String getLocale() {
-        return getData("locale");
+        return locale;
     }
 
     /*
@@ -147,6 +203,6 @@ public final class BukkitUser extends BukkitUserData implements User
      */
     @Override
     public @Nullable String toString() {
-        return getData().toString();
+        return getDocument().toString();
     }
 }
@@ -1,45 +1,76 @@
 package com.moleculepowered.platform.bukkit.user;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.moleculepowered.api.concurrent.IOExecutor;
+import com.moleculepowered.api.concurrent.SerialExecutor;
+import com.moleculepowered.api.concurrent.WriteBehind;
 import com.moleculepowered.api.exception.user.UserDeleteException;
+import com.moleculepowered.api.exception.user.UserStorageException;
 import com.moleculepowered.api.user.UserData;
+import com.moleculepowered.api.user.UserDataListener;
+import com.moleculepowered.api.user.UserDocument;
+import com.moleculepowered.api.user.UserField;
+import com.moleculepowered.api.user.storage.JsonFileStorage;
+import com.moleculepowered.api.user.storage.UserStorage;
 import com.moleculepowered.platform.bukkit.adapter.PlayerAdapter;
 import com.moleculepowered.platform.bukkit.event.user.UserCreatedEvent;
 import com.moleculepowered.platform.bukkit.event.user.UserDeletedEvent;
 import com.moleculepowered.platform.bukkit.model.BukkitNMSBridge;
 import org.bukkit.OfflinePlayer;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
- * Creates a user data class for the bukkit platform, it utilizes the {@link YamlConfiguration} class
- * as it's storage system. It applies custom uses for superseded methods from the parent class.
+ * Creates a user data class for the bukkit platform. User data is kept as JSON and read from and
+ * written to a {@link UserStorage}, which by default stores every user in its own file inside the
+ * plugin's user-data folder. It applies custom uses for superseded methods from the parent class.
+ *
+ * <p>The data is held as an immutable {@link UserDocument} which every change replaces using
+ * compare-and-set, so reads never lock and always see a consistent state of the user.</p>
  *
  * @author OMGitzFROST
  */
 public class BukkitUserData implements UserData
 {
+    private static final String[] IDENTITY_KEYS = {"name", "display-name", "custom-name", "locale"};
+
     // DATA OBJECTS
     private final Plugin plugin;
-    private final Gson gson;
-    private final File userFile;
-    private JsonObject config;
+    private final UserStorage storage;
+    private final SerialExecutor io, tasks;
+    private final WriteBehind writeBehind;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicReference<UserDocument> document = new AtomicReference<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final StampedLock folding = new StampedLock();
+    private volatile UserDataListener listener;
 
-    // USER INFORMATION
-    private String name, displayName, customName, locale;
-    private UUID uuid;
+    // USER INFORMATION, MIRRORS THE IDENTITY KEYS OF THE CONFIGURATION SO THEY CAN BE READ WITHOUT PARSING
+    volatile String name, displayName, customName, locale;
+    final UUID uuid;
 
     /*
     CONSTRUCTORS
@@ -54,24 +85,67 @@ public class BukkitUserData implements UserData
      *
      * @param plugin Parent plugin
      * @param player Originating player
+     * @throws UserStorageException when the stored data of the player cannot be read
      */
     public BukkitUserData(@NotNull Plugin plugin, @NotNull OfflinePlayer player) {
+        this(plugin, player, new JsonFileStorage(new File(plugin.getDataFolder(), "user-data")));
+    }
 
-        this.plugin = plugin;
-        this.gson = new GsonBuilder().setPrettyPrinting().serializeNulls().create();
-        this.userFile = new File(plugin.getDataFolder() + "/user-data", uuid + ".json");
+    /**
+     * Creates a user data class that reads and writes its data using the provided storage.
+     *
+     * @param plugin  Parent plugin
+     * @param player  Originating player
+     * @param storage The storage backend of this user
+     * @throws UserStorageException when the stored data of the player cannot be read
+     */
+    public BukkitUserData(@NotNull Plugin plugin, @NotNull OfflinePlayer player, @NotNull UserStorage storage) {
 
-        // INITIALIZE STATIC USER INFORMATION
+        this.plugin = plugin;
+        this.storage = storage;
+        this.io = new SerialExecutor(IOExecutor.get());
+        this.tasks = new SerialExecutor(IOExecutor.get());
+        this.writeBehind = WriteBehind.getDefault();
         this.uuid = player.getUniqueId();
-        this.name = player.getName();
 
-        // IF PLAYER IS ONLINE, SET ONLINE SPECIFIC INFORMATION
-        if (player.getPlayer() != null || player instanceof Player) {
-            PlayerAdapter adapter = BukkitNMSBridge.adaptPlayer((Player) player);
-            this.displayName = ((Player) player).getDisplayName();
-            this.customName = ((Player) player).getCustomName();
-            this.locale = adapter.getLocale();
-        }
+        capture(player);
+        create();
+    }
+
+    /**
+     * Creates a user data class for a player that may not be available as an {@link OfflinePlayer} yet,
+     * for example while the player is still logging in. Only the unique ID and name of the player are
+     * known; the remaining information is collected once the user is updated using an online player.
+     *
+     * @param plugin  Parent plugin
+     * @param uuid    The unique ID of the player
+     * @param name    The name of the player, or null if the user is already stored
+     * @param storage The storage backend of this user
+     * @throws UserStorageException when the stored data of the player cannot be read
+     */
+    public BukkitUserData(@NotNull Plugin plugin, @NotNull UUID uuid, @Nullable String name, @NotNull UserStorage storage) {
+        this(plugin, uuid, name, storage, WriteBehind.getDefault());
+    }
+
+    /**
+     * Creates a user data class for a player, deferring its writes using the provided write-behind,
+     * typically the one of the manager loading this user.
+     *
+     * @param plugin      Parent plugin
+     * @param uuid        The unique ID of the player
+     * @param name        The name of the player, or null if the user is already stored
+     * @param storage     The storage backend of this user
+     * @param writeBehind The write-behind deferring the writes of this user
+     * @throws UserStorageException when the stored data of the player cannot be read
+     */
+    public BukkitUserData(@NotNull Plugin plugin, @NotNull UUID uuid, @Nullable String name, @NotNull UserStorage storage, @NotNull WriteBehind writeBehind) {
+        this.plugin = plugin;
+        this.storage = storage;
+        this.io = new SerialExecutor(IOExecutor.get());
+        this.tasks = new SerialExecutor(IOExecutor.get());
+        this.writeBehind = writeBehind;
+        this.uuid = uuid;
+        this.name = name;
         create();
     }
 
@@ -79,38 +153,92 @@ public class BukkitUserData implements UserData
      * <p>This method attempts to create a new user data file.</p>
      *
      * <p>By default, this method will not create a user file if one already exists in the
-     * {@link #getDataFolder()}, otherwise this method will create one as usual.
+     * user's storage, otherwise this method will create one as usual. The new file is written
+     * in the background without waiting for it, since this method may run on a thread of the
+     * shared {@link IOExecutor}; use {@link #createAsync()} to wait until it is written.</p>
+     *
+     * <p>If the stored data cannot be read, the exception is thrown and the data of this user is left as
+     * it was. Since the constructors create the user, a user whose data cannot be read is never created,
+     * so a damaged file is never overwritten with default data.</p>
+     *
+     * @throws UserStorageException when the stored data of this user cannot be read
      */
     @Override
     public void create() {
-        try {
-            if (!getDataFolder().exists() && !getDataFolder().mkdirs())
-                throw new IllegalArgumentException("Unable to create user data folder");
 
-            // ATTEMPT TO CREATE USER FILE IF ONE DOES NOT EXIST, OR IS NULL
-            if (!userFile.exists() || (config != null && config.isJsonNull())) {
-                storeDefaults();
-
-                UserCreatedEvent event = new UserCreatedEvent();
-                plugin.getServer().getPluginManager().callEvent(event);
-            }
+        // ATTEMPT TO CREATE USER DATA IF IT IS NOT STORED, OR IS NULL
+        if (!storage.exists(uuid)) {
+            resolveName();
+            document.set(UserDocument.EMPTY);
+            storeDefaults();
+            flush();
 
-            // LOAD USER SETTINGS ONE FILE IS CONFIRMED TO EXIST
-            config = gson.fromJson(new FileReader(userFile), JsonObject.class);
-        } catch (IOException ex) {
-            ex.printStackTrace();
+            UserCreatedEvent event = new UserCreatedEvent(!plugin.getServer().isPrimaryThread());
+            plugin.getServer().getPluginManager().callEvent(event);
+            return;
         }
+
+        // LOAD USER SETTINGS ONCE THEY ARE CONFIRMED TO EXIST, A FAILED READ PROPAGATES
+        JsonObject stored = storage.load(uuid);
+        UserDocument loaded = stored != null ? UserDocument.of(stored) : UserDocument.EMPTY;
+        counters.clear();
+        document.set(loaded);
+        for (String key : IDENTITY_KEYS) sync(key, loaded.get(key));
+        resolveName();
+    }
+
+    /**
+     * Looks up the name of a player whose name is not known yet in the server's record of the player.
+     * This happens once when the user is created, so reading the name of the user never looks it up.
+     */
+    private void resolveName() {
+        if (name == null) name = plugin.getServer().getOfflinePlayer(uuid).getName();
     }
 
     /**
-     * Deletes a user's data file if one exists, otherwise this method will do nothing.
+     * Deletes a user's data file if one exists, otherwise this method will do nothing. This method
+     * blocks until the queued writes of this user were applied, so it must not be called from a
+     * thread of the shared {@link IOExecutor}; use {@link #deleteAsync()} there instead.
      */
     @Override
     public void delete() {
+        discard();
+        io.drain().join();
+        remove();
+    }
+
+    /**
+     * Asynchronously deletes this user's data file once its queued writes were applied, without
+     * blocking a thread of the shared {@link IOExecutor} while waiting for them.
+     *
+     * @return a future completed once the data file was deleted
+     */
+    @Override
+    public @NotNull CompletableFuture<Void> deleteAsync() {
+        return CompletableFuture.runAsync(this::discard, tasks)
+                .thenCompose(ignored -> io.drain())
+                .thenRunAsync(this::remove, tasks);
+    }
+
+    /**
+     * Discards unflushed changes, so they cannot recreate the data file once it is deleted.
+     */
+    private void discard() {
+        dirty.set(false);
+        counters.clear();
+    }
+
+    /**
+     * Deletes the data file of this user, which must not have queued writes anymore.
+     */
+    private void remove() {
 
-        // ATTEMPT TO DELETE USER FILE, IF SUCCESSFULL CALL EVENT
-        if (userFile.delete()) {
-            UserDeletedEvent event = new UserDeletedEvent();
+        // ATTEMPT TO DELETE USER DATA, IF SUCCESSFULL CALL EVENT
+        if (storage.delete(uuid)) {
+            UserDataListener listener = this.listener;
+            if (listener != null) listener.onDelete();
+
+            UserDeletedEvent event = new UserDeletedEvent(!plugin.getServer().isPrimaryThread());
             plugin.getServer().getPluginManager().callEvent(event);
             return;
         }
@@ -129,47 +257,171 @@ public class BukkitUserData implements UserData
         if (!(target instanceof OfflinePlayer))
             throw new IllegalArgumentException("In-order to update this user-data, you must provide a valid OfflinePlayer object");
 
+        capture((OfflinePlayer) target);
+        storeDefaults();
+    }
+
+    /**
+     * Asynchronously updates this user's data using the provided player. The player's information is
+     * read on the calling thread, since it must not be accessed asynchronously, while the data is
+     * updated on this user's executor.
+     *
+     * @param target Originating player
+     * @return a future completed once the data was updated
+     */
+    @Override
+    public <T> @NotNull CompletableFuture<Void> updateAsync(T target) {
+        if (!(target instanceof OfflinePlayer))
+            throw new IllegalArgumentException("In-order to update this user-data, you must provide a valid OfflinePlayer object");
+
+        capture((OfflinePlayer) target);
+        return CompletableFuture.runAsync(this::storeDefaults, tasks);
+    }
+
+    /**
+     * Returns the executor asynchronous operations of this user run on. Operations run one at a time
+     * on the shared {@link IOExecutor}, in the order they were requested.
+     *
+     * @return the executor of this user
+     */
+    @Override
+    public @NotNull Executor getExecutor() {
+        return tasks;
+    }
+
+    /**
+     * Collects the information stored by default from the provided player.
+     *
+     * @param player Originating player
+     */
+    private void capture(@NotNull OfflinePlayer player) {
+
+        if (!uuid.equals(player.getUniqueId()))
+            throw new IllegalArgumentException("In-order to update this user-data, you must provide the player it belongs to");
+
+        // INITIALIZE STATIC USER INFORMATION
+        this.name = player.getName();
+
+        // IF PLAYER IS ONLINE, SET ONLINE SPECIFIC INFORMATION
+        Player online = player instanceof Player ? (Player) player : player.getPlayer();
+        if (online != null) {
+            PlayerAdapter adapter = BukkitNMSBridge.adaptPlayer(online);
+            this.displayName = online.getDisplayName();
+            this.customName = online.getCustomName();
+            this.locale = adapter.getLocale();
+        }
+    }
+
+    /**
+     * Stores the default information gathered in the constructor into the user's configuration and
+     * queues a write to the user's data file. Keys that are not part of the defaults are kept.
+     */
+    private void storeDefaults() {
+        Map<String, JsonElement> defaults = new LinkedHashMap<>();
+        defaults.put("uuid", new JsonPrimitive(uuid.toString()));
+        defaults.put("name", primitive(name));
+        defaults.put("display-name", primitive(displayName));
+        defaults.put("custom-name", primitive(customName));
+        defaults.put("locale", primitive(locale));
+        swap(current -> current.with(defaults), defaults.keySet());
+        persist();
+    }
+
+    /**
+     * Marks this user as dirty and, if it was clean, schedules a flush using {@link WriteBehind}.
+     * Every change made before the flush runs is written to the user's data file at once.
+     */
+    private void persist() {
+
+        // READ FIRST SO FREQUENT CHANGES OF A DIRTY USER DO NOT CONTEND ON THE FLAG
+        if (!dirty.get() && dirty.compareAndSet(false, true)) writeBehind.schedule(this::flush);
+    }
+
+    /**
+     * Queues a write of the current configuration to the user's data file if this user has unflushed
+     * changes. The current document is captured on the calling thread, while serialization and file I/O
+     * happen on the shared {@link IOExecutor}. Writes of the same user are always applied in the order
+     * they were queued.
+     */
+    @Override
+    public void flush() {
+        if (!dirty.getAndSet(false)) return;
+
+        UserDocument[] swapped;
+        Map<String, Long> pending = new HashMap<>();
+        long stamp = folding.writeLock();
         try {
-            OfflinePlayer player = (OfflinePlayer) target;
-
-            // INITIALIZE STATIC USER INFORMATION
-            this.uuid = player.getUniqueId();
-            this.name = player.getName();
-
-            // IF PLAYER IS ONLINE, SET ONLINE SPECIFIC INFORMATION
-            if (player.getPlayer() != null || player instanceof Player) {
-                PlayerAdapter adapter = BukkitNMSBridge.adaptPlayer((Player) player);
-                this.displayName = ((Player) player).getDisplayName();
-                this.customName = ((Player) player).getCustomName();
-                this.locale = adapter.getLocale();
-            }
 
-            storeDefaults();
-        } catch (IOException ex) {
-            ex.printStackTrace();
+            // ONLY THE FOLDED AMOUNT IS TAKEN FROM A COUNTER, SO INCREMENTS MADE MEANWHILE ARE KEPT
+            Map<LongAdder, Long> deltas = new HashMap<>();
+            counters.forEach((key, counter) -> {
+                long delta = counter.sum();
+                if (delta == 0) return;
+                deltas.put(counter, delta);
+                pending.put(key, delta);
+            });
+
+            swapped = exchange(current -> current.with(fold(current, pending)));
+            deltas.forEach((counter, delta) -> counter.add(-delta));
+        } finally {
+            folding.unlockWrite(stamp);
         }
+
+        UserDocument snapshot = swapped[1];
+        notifyChanges(swapped[0], snapshot, pending.keySet());
+
+        io.execute(() -> {
+            try {
+                storage.store(uuid, snapshot.toJson());
+            } catch (UserStorageException ex) {
+                ex.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Returns true if this user has changes that were not yet flushed, or writes queued that were
+     * not yet applied to its data file.
+     *
+     * @return true if this user has unsaved changes
+     */
+    @Override
+    public boolean isDirty() {
+        return dirty.get() || io.isBusy();
+    }
+
+    /**
+     * Flushes every pending change and blocks until it was applied to the user's data file. Since
+     * writes run on the shared {@link IOExecutor}, this method must not be called from one of its
+     * threads; use {@link #saveAsync()} there instead.
+     */
+    @Override
+    public void save() {
+        flush();
+        io.drain().join();
     }
 
     /**
-     * Stores the default information gathered in the constructor into the user's data file.
-     * This method saves the user's data for future retrieval and usage.
+     * Flushes every pending change once the operations queued before it ran, returning a future
+     * completed once the changes were applied to the user's data file. No thread waits for the
+     * write, so any number of users can be saved at once from any thread.
      *
-     * @throws IOException if an I/O error occurs while storing the information into the data file.
-     *                     This can happen if the data file is inaccessible or the storage operation fails.
-     *                     The exception message provides more specific details about the error.
+     * @return a future completed once the changes were written
      */
-    private void storeDefaults() throws IOException {
-        JsonObject object = new JsonObject();
-        object.addProperty("uuid", uuid.toString());
-        object.addProperty("name", name);
-        object.addProperty("display-name", displayName);
-        object.addProperty("custom-name", customName);
-        object.addProperty("locale", locale);
+    @Override
+    public @NotNull CompletableFuture<Void> saveAsync() {
+        return CompletableFuture.runAsync(this::flush, tasks).thenCompose(ignored -> io.drain());
+    }
 
-        // SAVE DATA TO USER FILE
-        FileWriter writer = new FileWriter(userFile);
-        gson.toJson(object, writer);
-        writer.close();
+    /**
+     * Asynchronously creates this user's data file, returning a future completed once a new
+     * file was written.
+     *
+     * @return a future completed once the data file was created
+     */
+    @Override
+    public @NotNull CompletableFuture<Void> createAsync() {
+        return CompletableFuture.runAsync(this::create, tasks).thenCompose(ignored -> io.drain());
     }
 
     /**
@@ -179,23 +431,167 @@ public class BukkitUserData implements UserData
      * {@link String}, {@link Number}, {@link Boolean}, {@link Character}, or {@link JsonElement}.
      * Otherwise, this method will throw an {@link IllegalArgumentException}.</p>
      *
+     * <p>Numbers, booleans and characters are stored as native JSON values. The value is visible immediately, while the user's data file is written in the background. If the
+     * {@link WriteBehind} of this user has a flush window, changes made within the same window are written at once.</p>
+     *
      * @param key   the target key for the data
      * @param value the target value to be added or updated
      * @throws IllegalArgumentException if the provided value is not supported by the method
      */
     @Override
     public void setData(@NotNull String key, @Nullable Object value) {
+        JsonElement element;
+        if (value instanceof JsonElement) element = (JsonElement) value;
+        else if (value == null) element = JsonNull.INSTANCE;
+        else if (value instanceof Number) element = new JsonPrimitive((Number) value);
+        else if (value instanceof Boolean) element = new JsonPrimitive((Boolean) value);
+        else if (value instanceof Character) element = new JsonPrimitive((Character) value);
+        else element = new JsonPrimitive(String.valueOf(value));
+
+        UserDocument[] swapped;
+        long stamp = folding.writeLock();
         try {
-            JsonObject oldObject = getData();
 
-            if (value instanceof JsonElement) oldObject.add(key, (JsonElement) value);
-            else oldObject.addProperty(key, String.valueOf(value));
+            // INCREMENTS MADE BEFORE THE VALUE WAS SET ARE DISCARDED, LATER ONES ADD TO THE VALUE
+            LongAdder counter = counters.get(key);
+            if (counter != null) counter.add(-counter.sum());
+            swapped = exchange(current -> current.with(key, element));
+        } finally {
+            folding.unlockWrite(stamp);
+        }
+        notifyChanges(swapped[0], swapped[1], Collections.singleton(key));
+        sync(key, getDocument().get(key));
+        persist();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The changes replace the document of this user at once, notifying the data listener. Pending
+     * increments made on this server are kept and still add to the changed counters.</p>
+     */
+    @Override
+    public void applyRemote(@NotNull Map<String, JsonElement> changes) {
+        swap(current -> current.with(changes), changes.keySet());
 
-            FileWriter writer = new FileWriter(userFile);
-            gson.toJson(oldObject, writer);
-            writer.close();
-        } catch (IOException ex) {
-            ex.printStackTrace();
+        UserDocument current = getDocument();
+        for (String key : IDENTITY_KEYS) {
+            if (changes.containsKey(key)) sync(key, current.get(key));
+        }
+    }
+
+    /**
+     * Replaces the document of this user with the result of the provided change, retrying the change
+     * against the latest document until no other thread replaced it meanwhile. The data listener is
+     * then notified of every provided key whose value actually changed.
+     *
+     * @param change creates the new document from the current one, may run more than once
+     * @param keys   the keys changed by the change
+     * @return the new document
+     */
+    private @NotNull UserDocument swap(@NotNull UnaryOperator<UserDocument> change, @NotNull Collection<String> keys) {
+        UserDocument[] swapped = exchange(change);
+        notifyChanges(swapped[0], swapped[1], keys);
+        return swapped[1];
+    }
+
+    /**
+     * Replaces the document of this user like {@link #swap(UnaryOperator, Collection)}, without notifying
+     * the data listener, so callers holding a lock can notify it once the lock was released.
+     *
+     * @param change creates the new document from the current one, may run more than once
+     * @return the replaced document followed by the new document
+     */
+    private @NotNull UserDocument[] exchange(@NotNull UnaryOperator<UserDocument> change) {
+        UserDocument current, previous, next;
+        do {
+            current = document.get();
+            previous = current != null ? current : UserDocument.EMPTY;
+            next = change.apply(previous);
+        } while (!document.compareAndSet(current, next));
+        return new UserDocument[]{previous, next};
+    }
+
+    /**
+     * Notifies the data listener of every provided key whose value differs between the two documents.
+     *
+     * @param previous the replaced document
+     * @param next     the new document
+     * @param keys     the keys that may have changed
+     */
+    private void notifyChanges(@NotNull UserDocument previous, @NotNull UserDocument next, @NotNull Collection<String> keys) {
+        UserDataListener listener = this.listener;
+        if (listener == null) return;
+
+        for (String key : keys) {
+            JsonElement before = previous.get(key), after = next.get(key);
+            if (Objects.equals(before, after)) continue;
+
+            listener.onChange(key, before, after, next.getVersion());
+
+            // THE DOCUMENT LACKS THE INCREMENTS STILL PENDING, SO THE COUNTER REPORTS ITS FULL VALUE
+            if (counters.containsKey(key)) report(key);
+        }
+    }
+
+    /**
+     * Reports the current value of a counter to the data listener, repeating the report until the
+     * counter did not change meanwhile, so a late report of a concurrent increment never leaves an
+     * outdated value behind.
+     *
+     * @param key the counter key
+     */
+    private void report(@NotNull String key) {
+        UserDataListener listener = this.listener;
+        if (listener == null) return;
+
+        long value = getCounter(key), latest;
+        listener.onCount(key, value);
+        while ((latest = getCounter(key)) != value) listener.onCount(key, value = latest);
+    }
+
+    private static @NotNull JsonElement primitive(@Nullable String value) {
+        return value != null ? new JsonPrimitive(value) : JsonNull.INSTANCE;
+    }
+
+    /**
+     * Sets the listener notified whenever the data of this user changes, with the previous value of
+     * every changed key. Setting a key to the value it already has does not notify the listener. Counters
+     * report their value on every increment, and notify the listener of the change once they are flushed.
+     *
+     * @param listener the listener, or null to remove it
+     */
+    @Override
+    public void setDataListener(@Nullable UserDataListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Updates the field mirroring the provided identity key, if the key is one. The unique ID is
+     * never updated, since it identifies the user's data in its storage. Callers pass the value of
+     * the latest document rather than the value they set, so concurrent changes settle on the value
+     * the document ends up with.
+     *
+     * @param key   the changed key
+     * @param value the new value of the key
+     */
+    private void sync(@NotNull String key, @Nullable JsonElement value) {
+        String string = value != null && value.isJsonPrimitive() ? value.getAsString() : null;
+        switch (key) {
+            case "name":
+                if (string != null) name = string;
+                break;
+            case "display-name":
+                displayName = string;
+                break;
+            case "custom-name":
+                customName = string;
+                break;
+            case "locale":
+                locale = string;
+                break;
+            default:
+                break;
         }
     }
 
@@ -209,19 +605,187 @@ public class BukkitUserData implements UserData
      */
     @Override
     public @Nullable String getData(@NotNull String key, @Nullable String def) {
-        if (config == null) create();
-        return getData().get(key) != null && !getData().get(key).isJsonNull() ? getData().get(key).getAsString() : def;
+        JsonElement value = getDocument().get(key);
+        return value != null && !value.isJsonNull() ? value.getAsString() : def;
+    }
+
+    /**
+     * Returns the value of the provided field. The value is read from the current document once and kept
+     * until the field's key is set again, so repeated reads do not convert the stored value.
+     *
+     * @param field the target field
+     * @param <T>   the type of the value
+     * @return the value of the field, or its default value if not set
+     */
+    @Override
+    public <T> T get(@NotNull UserField<T> field) {
+        T read = getDocument().read(field.getKey(), field.getType(), field::parse);
+        return read != null ? read : field.getDefault();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getInt(@NotNull String key, int def) {
+        Integer value = memo(key, Integer.class, JsonElement::getAsInt);
+        return value != null ? value : def;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLong(@NotNull String key, long def) {
+        Long value = memo(key, Long.class, JsonElement::getAsLong);
+        return value != null ? value : def;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getDouble(@NotNull String key, double def) {
+        Double value = memo(key, Double.class, JsonElement::getAsDouble);
+        return value != null ? value : def;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean getBoolean(@NotNull String key, boolean def) {
+        Boolean value = memo(key, Boolean.class, BukkitUserData::readBoolean);
+        return value != null ? value : def;
     }
 
     /**
-     * Returns the configuration assigned to this user. The behavior of this method, including autoload
-     * features, may vary between platforms.
+     * Adds the provided delta to a counter without locking, so counters can be updated at a high rate
+     * from any thread. Increments are kept apart from the value stored under the key and are added to it
+     * whenever this user is flushed, at most one {@link WriteBehind} window after the update, or right away
+     * if the write-behind has no flush window.
+     *
+     * @param key   the counter key
+     * @param delta the amount to add
+     */
+    @Override
+    public void increment(@NotNull String key, long delta) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) counter = counters.computeIfAbsent(key, ignored -> new LongAdder());
+
+        counter.add(delta);
+        report(key);
+        persist();
+    }
+
+    /**
+     * Returns the current value of a counter, including updates that were not yet flushed.
+     *
+     * @param key the counter key
+     * @return the value of the counter
+     */
+    @Override
+    public long getCounter(@NotNull String key) {
+
+        // A FOLD MOVES INCREMENTS INTO THE DOCUMENT, SO BOTH ARE READ WITHOUT ONE RUNNING IN BETWEEN
+        long stamp = folding.tryOptimisticRead();
+        long value = readCounter(key);
+        if (folding.validate(stamp)) return value;
+
+        stamp = folding.readLock();
+        try {
+            return readCounter(key);
+        } finally {
+            folding.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the value stored under a counter key plus its pending increments.
+     *
+     * @param key the counter key
+     * @return the value of the counter
+     */
+    private long readCounter(@NotNull String key) {
+        LongAdder counter = counters.get(key);
+        return storedLong(getDocument(), key) + (counter != null ? counter.sum() : 0);
+    }
+
+    /**
+     * Adds the provided pending increments to the values stored under their keys in a document.
+     *
+     * @param document the document the increments are added to
+     * @param deltas   the pending increments of every counter
+     * @return the new values of the counters
+     */
+    private static @NotNull Map<String, JsonElement> fold(@NotNull UserDocument document, @NotNull Map<String, Long> deltas) {
+        Map<String, JsonElement> folded = new HashMap<>();
+        deltas.forEach((key, delta) -> folded.put(key, new JsonPrimitive(storedLong(document, key) + delta)));
+        return folded;
+    }
+
+    /**
+     * Returns the number stored under the provided key of a document.
+     *
+     * @param document the target document
+     * @param key      the data key
+     * @return the stored number, or 0 if the key is not set or not a number
+     */
+    private static long storedLong(@NotNull UserDocument document, @NotNull String key) {
+        Long value = document.read(key, Long.class, element -> element.isJsonPrimitive() ? element.getAsLong() : null);
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Returns the value assigned to the provided key as the provided type, reading it from the
+     * current document only if it was not read as that type since the key was last set.
+     *
+     * @param key    the data key
+     * @param type   the type of the value
+     * @param reader converts the stored element into the value, returning null or throwing if it cannot
+     * @param <T>    the type of the value
+     * @return the value, or null if the key is not set or cannot be read as the type
+     */
+    private <T> @Nullable T memo(@NotNull String key, @NotNull Class<T> type, @NotNull Function<JsonElement, T> reader) {
+        return getDocument().read(key, type, element -> element.isJsonPrimitive() ? reader.apply(element) : null);
+    }
+
+    /**
+     * Reads a boolean from the provided element, accepting booleans previously stored as strings.
+     *
+     * @param element the stored element
+     * @return the boolean, or null if the element is not a boolean
+     */
+    private static @Nullable Boolean readBoolean(@NotNull JsonElement element) {
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) return primitive.getAsBoolean();
+
+        String value = primitive.getAsString();
+        if (value.equalsIgnoreCase("true")) return Boolean.TRUE;
+        return value.equalsIgnoreCase("false") ? Boolean.FALSE : null;
+    }
+
+    /**
+     * Returns a copy of the configuration assigned to this user. Changing the returned object does not
+     * change this user; use {@link #setData(String, Object)} instead.
      *
      * @return The user's configuration as a {@link JsonObject}.
      */
     @Override
     public @NotNull JsonObject getData() {
-        return config;
+        return getDocument().toJson();
+    }
+
+    /**
+     * Returns the current document of this user, which is read from the storage once the user is
+     * created. The document can be read from any thread without locking.
+     *
+     * @return the current data of this user
+     */
+    @Override
+    public @NotNull UserDocument getDocument() {
+        UserDocument current = document.get();
+        return current != null ? current : UserDocument.EMPTY;
     }
 
     /**
@@ -231,6 +795,6 @@ public class BukkitUserData implements UserData
      */
     @Override
     public @NotNull File getFile() {
-        return userFile;
+        return storage.getLocation(uuid);
     }
 }
@@ -1,21 +1,94 @@
 package com.moleculepowered.platform.bukkit.user;
 
+import com.moleculepowered.api.concurrent.IOExecutor;
+import com.moleculepowered.api.user.User;
 import com.moleculepowered.api.user.UserManager;
+import com.moleculepowered.api.user.cache.UserCache;
+import com.moleculepowered.api.user.storage.FileLayout;
+import com.moleculepowered.api.user.storage.JsonFileStorage;
+import com.moleculepowered.api.user.storage.UserCodec;
+import com.moleculepowered.api.user.storage.UserStorage;
+import com.moleculepowered.api.user.sync.UserSync;
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.plugin.EventExecutor;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.RegisteredListener;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * A {@link UserManager} class created for the bukkit platform, it handles all tasks related
  * to the users handled by this platform. Allowing you to add, remove or replace existing users.
  *
+ * <p>Users are not loaded when the manager is enabled. Instead, the manager only indexes the unique
+ * ID and name of every known player and loads a user the first time it is requested. By default, at
+ * most {@value #DEFAULT_CACHE_SIZE} users are kept loaded and users idle for longer than 30 minutes are
+ * evicted; use {@link #setCache(UserCache)} to change this policy.</p>
+ *
+ * <p>The manager also follows the lifecycle of online players. A player's user is loaded during
+ * {@link AsyncPlayerPreLoginEvent}, off the main thread, so it is already loaded when the player joins.
+ * Once the player quits, their changes are flushed and the user is unloaded, keeping the loaded users
+ * proportional to the online players.</p>
+ *
+ * <p>Writes are only deferred once a flush window is set on the manager's
+ * {@link #getWriteBehind() write-behind}. Deferred changes are written when the plugin is disabled,
+ * whether or not the plugin disables the manager itself.</p>
+ *
+ * <p>Players that never joined since the server started are found by name using the persistent
+ * {@link #declareNameIndex() name index}, which is declared when the manager is enabled. The index and
+ * the users only known to the storage are read in the background, so enabling the manager never scans
+ * the storage.</p>
+ *
+ * <p>Users are stored as JSON files inside the plugin's user-data folder unless another storage is
+ * set using {@link #setStorage(UserStorage)}, for example a single-file
+ * {@link com.moleculepowered.api.user.storage.LogStructuredStorage}. User files are
+ * {@link FileLayout#SHARDED sharded} over nested folders; files left by earlier versions in the flat
+ * layout are found immediately and moved in the background once the manager is enabled.</p>
+ *
+ * <p>Once {@link #enableSync(com.moleculepowered.api.user.sync.SyncTransport, String) synchronization}
+ * is enabled, a logging in player's user is only loaded once this server acquired its lease, waiting
+ * at most {@value #HANDOFF_TIMEOUT} seconds for the server the player left to write and release it.</p>
+ *
  * @author OMGitzFROST
  */
 public final class BukkitUserManager extends UserManager
 {
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+    private static final int HANDOFF_TIMEOUT = 10;
+    private final Map<UUID, String> known = new ConcurrentHashMap<>();
+    private final Map<String, UUID> names = new ConcurrentHashMap<>();
+    private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Long> logins = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Listener listener = new Listener() {};
     private final File userDataFolder;
     private final Plugin plugin;
 
@@ -28,6 +101,8 @@ public final class BukkitUserManager extends UserManager
     public BukkitUserManager(@NotNull Plugin plugin) {
         this.plugin = plugin;
         this.userDataFolder = new File(plugin.getDataFolder(), "user-data");
+        setCache(new UserCache(DEFAULT_CACHE_SIZE, Duration.ofMinutes(30)));
+        setStorage(new JsonFileStorage(userDataFolder).setLayout(FileLayout.SHARDED));
     }
 
     /**
@@ -44,7 +119,319 @@ public final class BukkitUserManager extends UserManager
         if (!userDataFolder.exists() && !userDataFolder.mkdirs())
             throw new IllegalArgumentException("An error occurred whilst attempting to create the user-data folder");
 
-        // ADD ALL OFFLINE USERS TO OUR USER MAP
-        Arrays.stream(Bukkit.getOfflinePlayers()).forEach(p -> users.add(new BukkitUser(plugin, p)));
+        // INDEX EVERY KNOWN PLAYER, USERS ARE ONLY LOADED WHEN REQUESTED
+        for (OfflinePlayer player : Bukkit.getOfflinePlayers()) index(player.getUniqueId(), player.getName());
+
+        // FIND USERS BY NAME WITHOUT LOADING THEM, THE INDEX IS ONLY BUILT FROM THE STORAGE ONCE
+        declareNameIndex();
+
+        // INDEX USERS THAT ONLY EXIST IN STORAGE WITHOUT HOLDING UP STARTUP, THEN REJECT LOOKUPS OF
+        // PLAYERS THAT NEVER JOINED WITHOUT TOUCHING THE DISK
+        IOExecutor.execute(() -> {
+            try {
+                getStorage().keys().forEach(uuid -> known.putIfAbsent(uuid, ""));
+                declareFilter();
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        });
+
+        // FOLLOW THE LIFECYCLE OF ONLINE PLAYERS, THE HANDLER LISTS ARE USED DIRECTLY SINCE
+        // THIS MANAGER IS USUALLY ENABLED BEFORE ITS PLUGIN IS
+        register(AsyncPlayerPreLoginEvent.getHandlerList(), AsyncPlayerPreLoginEvent.class, this::onPreLogin);
+        register(PlayerJoinEvent.getHandlerList(), PlayerJoinEvent.class, this::onJoin);
+        register(PlayerQuitEvent.getHandlerList(), PlayerQuitEvent.class, this::onQuit);
+
+        // WRITE DEFERRED CHANGES ONCE THE PLUGIN IS DISABLED, EVEN IF IT NEVER DISABLES THIS MANAGER
+        register(PluginDisableEvent.getHandlerList(), PluginDisableEvent.class, this::onPluginDisable);
+
+        // MOVE FILES LEFT IN ANOTHER LAYOUT WITHOUT HOLDING UP STARTUP
+        UserStorage storage = getStorage();
+        if (storage instanceof JsonFileStorage) {
+            ((JsonFileStorage) storage).migrateLayout().exceptionally(ex -> {
+                ex.printStackTrace();
+                return 0;
+            });
+        }
+    }
+
+    /**
+     * Saves every loaded user, waiting for their pending writes to be applied, saves the secondary
+     * indexes, releases the leases owned by this server and closes the storage.
+     */
+    @Override
+    public void onDisable() {
+        HandlerList.unregisterAll(listener);
+        flushAll();
+        saveIndexes();
+
+        UserSync sync = getSync();
+        if (sync != null) sync.close();
+        getStorage().close();
+    }
+
+    /**
+     * Selects the codec user files are written with, for example {@link UserCodec#BINARY} for compact files,
+     * replacing the storage with a file storage using that codec. Existing files are still read and are
+     * converted the next time their user is written. This method should be called before any user is loaded.
+     *
+     * @param codec the codec of user files
+     */
+    public void setCodec(@NotNull UserCodec codec) {
+        setStorage(new JsonFileStorage(userDataFolder, codec).setLayout(FileLayout.SHARDED));
+    }
+
+    /*
+    GETTER METHODS
+     */
+
+    /**
+     * Returns the storage backend users of this manager are read from and written to.
+     *
+     * @return the storage backend
+     */
+    @Override
+    public @NotNull UserStorage getStorage() {
+        return Objects.requireNonNull(super.getStorage());
+    }
+
+    /**
+     * Returns the unique IDs of every player known to this manager, whether their user is loaded or not.
+     *
+     * @return the unique IDs of every known user
+     */
+    @Override
+    public @NotNull Collection<UUID> getUniqueIds() {
+        return Collections.unmodifiableSet(known.keySet());
+    }
+
+    /**
+     * Returns the folder secondary indexes are saved in, inside the user-data folder.
+     *
+     * @return the index folder
+     */
+    @Override
+    protected @NotNull File getIndexFolder() {
+        return new File(userDataFolder, "indexes");
+    }
+
+    /*
+    LOADING METHODS
+     */
+
+    /**
+     * Loads the user of a known player. Users that are not known yet, for example players that first
+     * joined another server sharing the storage, are looked up in the storage directly. Once the filter of
+     * known users is declared, only users it might contain reach this method.
+     *
+     * @param uuid the target UUID
+     * @return the loaded user, or null if the player is unknown
+     */
+    @Override
+    protected @Nullable User loadUser(@NotNull UUID uuid) {
+        String name = known.get(uuid);
+        if (name == null && getStorage().exists(uuid)) name = known.computeIfAbsent(uuid, key -> "");
+        if (name == null) return null;
+        return new BukkitUser(plugin, uuid, name.isEmpty() ? null : name, getStorage(), getWriteBehind());
+    }
+
+    /**
+     * Resolves the UUID of a known player from their name.
+     *
+     * @param name the target name
+     * @return the UUID of the player, or null if unknown
+     */
+    @Override
+    protected @Nullable UUID resolveName(@NotNull String name) {
+        return names.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void forEachKnown(@NotNull BiConsumer<UUID, String> action) {
+        super.forEachKnown(action);
+        known.forEach((uuid, name) -> action.accept(uuid, name.isEmpty() ? null : name));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The name of the user is indexed as well, so the user is found by name once it was stored.</p>
+     */
+    @Override
+    public void onRemoteUser(@NotNull UUID uuid, @Nullable String name) {
+        super.onRemoteUser(uuid, name);
+        if (name != null && !name.isEmpty()) names.put(name.toLowerCase(Locale.ROOT), uuid);
+    }
+
+    /**
+     * Returns true if the provided user is pinned by the manager, or if its player is online.
+     *
+     * @param uuid the target user
+     * @return true if the user must not be evicted
+     */
+    @Override
+    protected boolean isPinned(@NotNull UUID uuid) {
+        return online.contains(uuid) || super.isPinned(uuid);
+    }
+
+    /*
+    LIFECYCLE LISTENERS
+     */
+
+    /**
+     * Loads the user of a player that is logging in. This listener runs on the login thread, so the
+     * user is loaded, and its lease awaited, without blocking the main thread. Every login is given a
+     * new generation, so a previous session of the player does not unload the user once it was saved.
+     *
+     * @param event the triggered event
+     */
+    private void onPreLogin(@NotNull AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        logins.put(event.getUniqueId(), generation.incrementAndGet());
+        index(event.getUniqueId(), event.getName());
+        acquire(event.getUniqueId());
+        try {
+            getUser(event.getUniqueId());
+        } catch (RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Marks a joining player as online and updates their user with the information of the online player.
+     * The user is usually loaded during pre-login; otherwise it is loaded in the background and updated
+     * once it was loaded, so the main thread never reads from the storage.
+     *
+     * @param event the triggered event
+     */
+    private void onJoin(@NotNull PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        UUID uuid = player.getUniqueId();
+        online.add(uuid);
+        index(uuid, player.getName());
+
+        User user = getLoadedUser(uuid);
+        if (user != null) {
+            user.update(player);
+            return;
+        }
+
+        // THE PLAYER IS ONLY READ ON THE MAIN THREAD, SO THE LOADED USER IS UPDATED THERE
+        getUserAsync(uuid).whenComplete((loaded, ex) -> {
+            if (ex != null) {
+                ex.printStackTrace();
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (player.isOnline()) loaded.update(player);
+            });
+        });
+    }
+
+    /**
+     * Flushes the user of a quitting player and, once its changes were written, releases its lease and
+     * unloads it, unless the player logged in again in the meantime. Logins are told apart by their
+     * generation, so a player that reconnects before the write completes keeps its user and lease.
+     *
+     * @param event the triggered event
+     */
+    private void onQuit(@NotNull PlayerQuitEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        Long login = logins.get(uuid);
+        online.remove(uuid);
+
+        User user = getLoadedUser(uuid);
+        if (user == null) return;
+
+        user.saveAsync().whenComplete((ignored, ex) -> {
+            // A USER THAT COULD NOT BE WRITTEN STAYS LOADED, SO ITS CHANGES ARE NOT LOST
+            if (ex != null) {
+                ex.printStackTrace();
+                return;
+            }
+
+            // A NEWER LOGIN OWNS THE USER NOW, EVEN IF THE PLAYER DID NOT JOIN YET
+            if (online.contains(uuid) || !Objects.equals(logins.get(uuid), login)) return;
+            if (login != null && !logins.remove(uuid, login)) return;
+
+            UserSync sync = getSync();
+            if (sync != null) sync.release(uuid);
+            removeUser(user);
+        });
+    }
+
+    /**
+     * Writes every deferred change once the plugin of this manager is being disabled. Changes made while
+     * the plugin disables are no longer deferred, so they are written even if the plugin never disables
+     * this manager.
+     *
+     * @param event the triggered event
+     */
+    private void onPluginDisable(@NotNull PluginDisableEvent event) {
+        if (event.getPlugin() != plugin) return;
+
+        getWriteBehind().setWindow(Duration.ZERO);
+        flushAll();
+    }
+
+    /*
+    INTERNAL METHODS
+     */
+
+    /**
+     * Waits for this server to own the lease of the provided user, if synchronization is enabled. Since
+     * leases are advisory, the user is loaded anyway once the wait timed out.
+     *
+     * @param uuid the unique ID of the player
+     */
+    private void acquire(@NotNull UUID uuid) {
+        UserSync sync = getSync();
+        if (sync == null) return;
+
+        try {
+            sync.acquire(uuid).get(HANDOFF_TIMEOUT, TimeUnit.SECONDS);
+        } catch (TimeoutException ex) {
+            plugin.getLogger().warning("Timed out waiting for the lease of user " + uuid + " held by " + sync.getOwner(uuid));
+        } catch (ExecutionException | CancellationException ex) {
+            ex.printStackTrace();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds a player to the index of known players.
+     *
+     * @param uuid the unique ID of the player
+     * @param name the name of the player, if known
+     */
+    private void index(@NotNull UUID uuid, @Nullable String name) {
+        remember(uuid, name);
+        if (name == null) {
+            known.putIfAbsent(uuid, "");
+            return;
+        }
+        known.put(uuid, name);
+        names.put(name.toLowerCase(Locale.ROOT), uuid);
+    }
+
+    /**
+     * Registers a monitoring listener for the provided event directly into its handler list, which
+     * unlike the plugin manager does not require the plugin to be enabled.
+     *
+     * @param handlers the handler list of the event
+     * @param type     the event class
+     * @param handler  the handler invoked for the event
+     * @param <T>      the event type
+     */
+    private <T extends Event> void register(@NotNull HandlerList handlers, @NotNull Class<T> type, @NotNull Consumer<T> handler) {
+        EventExecutor executor = (l, event) -> {
+            if (type.isInstance(event)) handler.accept(type.cast(event));
+        };
+        handlers.register(new RegisteredListener(listener, executor, EventPriority.MONITOR, plugin, false));
     }
 }